@@ -0,0 +1,66 @@
+package com.amar.dto;
+
+import java.util.List;
+
+/**
+ * A keyset-paginated slice of orders. Pass {@code nextCursor} back to fetch the following slice;
+ * {@code totalElements} is only populated when the caller asks for it.
+ */
+public class OrderCursorPage {
+
+    private List<OrderDto> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long totalElements;
+
+    public OrderCursorPage() {}
+
+    public OrderCursorPage(List<OrderDto> content, int size, boolean hasNext, String nextCursor, Long totalElements) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+        this.totalElements = totalElements;
+    }
+
+    public List<OrderDto> getContent() {
+        return content;
+    }
+
+    public void setContent(List<OrderDto> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(Long totalElements) {
+        this.totalElements = totalElements;
+    }
+}
@@ -30,7 +30,7 @@ import jakarta.persistence.UniqueConstraint;
         @Index(name = "idx_reservations_expired", columnList = "is_expired, expires_at")
     },
     uniqueConstraints = {
-        @UniqueConstraint(name = "uk_reservations_order_id", columnNames = "order_id")
+        @UniqueConstraint(name = "uk_reservations_order_product", columnNames = {"order_id", "product_id"})
     }
 )
 public class InventoryReservation {
@@ -43,7 +43,7 @@ public class InventoryReservation {
     @Column(name = "product_id", nullable = false)
     private Long productId;
     
-    @Column(name = "order_id", nullable = false, unique = true)
+    @Column(name = "order_id", nullable = false)
     private UUID orderId;
     
     @Column(name = "session_id")
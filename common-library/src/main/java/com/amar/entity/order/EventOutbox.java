@@ -45,6 +45,9 @@ public class EventOutbox {
     
     @Column(name = "last_error")
     private String lastError;
+    
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
 
     // Constructors
     public EventOutbox() {
@@ -158,6 +161,14 @@ public class EventOutbox {
     public void setLastError(String lastError) {
         this.lastError = lastError;
     }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
     
     public void markAsProcessed() {
         this.processed = true;
@@ -76,39 +76,37 @@ public class InventoryServiceClient {
         
         return circuitBreaker.run(() -> {
             try {
+                String url = inventoryServiceUrl + "/api/v1/inventory/availability/bulk";
+                
+                // Single round trip; inventory-service resolves all products with one IN query
+                Map<String, Object> response = webClient.post()
+                        .uri(url)
+                        .bodyValue(productQuantities)
+                        .retrieve()
+                        .bodyToMono(Map.class)
+                        .timeout(Duration.ofSeconds(5))
+                        .block();
+                
                 Map<Long, Boolean> result = new HashMap<>();
+                Map<String, Object> bulkAvailability = null;
+                if (response != null && response.get("data") instanceof Map) {
+                    Map<String, Object> data = (Map<String, Object>) response.get("data");
+                    bulkAvailability = (Map<String, Object>) data.get("bulkAvailability");
+                }
                 
-                // Since there's no bulk endpoint, check each product individually
-                for (Map.Entry<Long, Integer> entry : productQuantities.entrySet()) {
-                    Long productId = entry.getKey();
-                    Integer quantity = entry.getValue();
-                    
-                    String url = inventoryServiceUrl + "/api/v1/inventory/availability/" + productId + "?quantity=" + quantity;
-                    
-                    try {
-                        Map<String, Object> response = webClient.get()
-                                .uri(url)
-                                .retrieve()
-                                .bodyToMono(Map.class)
-                                .timeout(Duration.ofSeconds(5))
-                                .block();
-                        
-                        if (response != null && response.get("data") != null) {
-                            Map<String, Object> data = (Map<String, Object>) response.get("data");
-                            Boolean available = (Boolean) data.getOrDefault("available", false);
-                            result.put(productId, available);
-                        } else {
-                            result.put(productId, false);
-                        }
-                    } catch (Exception e) {
-                        logger.error("Error checking availability for product {}: {}", productId, e.getMessage());
-                        result.put(productId, false);
-                    }
+                // Anything missing from the response is treated as unavailable
+                for (Long productId : productQuantities.keySet()) {
+                    Object available = bulkAvailability != null ? bulkAvailability.get(String.valueOf(productId)) : null;
+                    result.put(productId, Boolean.TRUE.equals(available));
                 }
                     
                 logger.debug("Bulk stock availability check completed for {} products", result.size());
                 return result;
                 
+            } catch (WebClientResponseException e) {
+                logger.error("Error checking bulk stock availability - Status: {}, Response: {}", 
+                           e.getStatusCode(), e.getResponseBodyAsString());
+                return new HashMap<>();
             } catch (Exception e) {
                 logger.error("Unexpected error checking bulk stock availability", e);
                 return new HashMap<>();
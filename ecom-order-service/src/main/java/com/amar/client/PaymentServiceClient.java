@@ -38,6 +38,11 @@ public class PaymentServiceClient {
     // Payment Processing
     // =====================================================
 
+    /**
+     * Take payment for an order. A reply from payment-service is final: COMPLETED succeeds, anything
+     * else is a decline. Timeouts, transport errors, 5xx replies and the circuit-breaker fallback come
+     * back with status UNKNOWN, since the charge may have gone through regardless.
+     */
     public PaymentResponse processPayment(PaymentRequest request) {
         logger.debug("Processing payment for order: {} amount: {}", request.getOrderId(), request.getAmount());
         
@@ -57,10 +62,10 @@ public class PaymentServiceClient {
                 if (rawResponse != null) {
                     String status = (String) rawResponse.get("status");
                     String paymentId = (String) rawResponse.get("paymentId");
-                    String orderId = (String) rawResponse.get("orderId");
+                    String message = (String) rawResponse.get("message");
                     
                     boolean isSuccess = "COMPLETED".equals(status);
-                    response = new PaymentResponse(isSuccess, paymentId, orderId, status);
+                    response = new PaymentResponse(isSuccess, message != null ? message : status, paymentId, status);
                     
                     if (isSuccess) {
                         logger.info("Payment processed successfully for order: {} - Transaction ID: {}", 
@@ -72,19 +77,22 @@ public class PaymentServiceClient {
                     logger.warn("Payment failed for order: {} - No response", request.getOrderId());
                 }
                 
-                return response != null ? response : createFailedResponse("No response from payment service");
+                return response != null ? response : createUnknownResponse("No response from payment service");
                 
             } catch (WebClientResponseException e) {
                 logger.error("Error processing payment for order: {} - Status: {}, Response: {}", 
                            request.getOrderId(), e.getStatusCode(), e.getResponseBodyAsString());
-                return createFailedResponse("Payment service error: " + e.getStatusCode());
+                if (e.getStatusCode().is4xxClientError()) {
+                    return createFailedResponse("Payment rejected: " + e.getStatusCode());
+                }
+                return createUnknownResponse("Payment service error: " + e.getStatusCode());
             } catch (Exception e) {
                 logger.error("Unexpected error processing payment for order: {}", request.getOrderId(), e);
-                return createFailedResponse("Unexpected error: " + e.getMessage());
+                return createUnknownResponse("Unexpected error: " + e.getMessage());
             }
         }, throwable -> {
             logger.warn("Circuit breaker fallback for payment processing - order: {}", request.getOrderId());
-            return createFailedResponse("Payment service temporarily unavailable");
+            return createUnknownResponse("Payment service temporarily unavailable");
         });
     }
 
@@ -175,6 +183,10 @@ public class PaymentServiceClient {
         return new PaymentResponse(false, message, null, "FAILED");
     }
 
+    private PaymentResponse createUnknownResponse(String message) {
+        return new PaymentResponse(false, message, null, PaymentResponse.UNKNOWN);
+    }
+
     // =====================================================
     // Data Classes
     // =====================================================
@@ -270,6 +282,9 @@ public class PaymentServiceClient {
     }
 
     public static class PaymentResponse {
+        // The request may or may not have been charged; only payment events or reconciliation can tell
+        public static final String UNKNOWN = "UNKNOWN";
+
         private boolean success;
         private String message;
         private String transactionId;
@@ -301,6 +316,8 @@ public class PaymentServiceClient {
         public String getStatus() { return status; }
         public void setStatus(String status) { this.status = status; }
         
+        public boolean isOutcomeUnknown() { return UNKNOWN.equals(status); }
+        
         public LocalDateTime getProcessedAt() { return processedAt; }
         public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
         
@@ -5,6 +5,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
 import org.springframework.stereotype.Service;
@@ -13,6 +14,9 @@ import org.springframework.web.reactive.function.client.WebClientResponseExcepti
 
 import java.math.BigDecimal;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -58,20 +62,7 @@ public class ProductServiceClient {
                 
                 if (response != null && response.get("id") != null) {
                     // Product service returns product directly, not wrapped in "data"
-                    Map<String, Object> productData = response;
-                    
-                    ProductDto product = new ProductDto();
-                    product.setId(((Number) productData.get("id")).longValue());
-                    product.setName((String) productData.get("name"));
-                    product.setDescription((String) productData.get("description"));
-                    product.setBrand((String) productData.get("brand"));
-                    product.setImageUrl((String) productData.get("imageUrl"));
-                    product.setSku((String) productData.get("sku"));
-                    
-                    Object priceObj = productData.get("price");
-                    if (priceObj instanceof Number) {
-                        product.setPrice(BigDecimal.valueOf(((Number) priceObj).doubleValue()));
-                    }
+                    ProductDto product = toProductDto(response);
                     
                     logger.info("✅ [PRODUCT-RETRIEVAL] Successfully retrieved product - ID: {}, Name: '{}', SKU: '{}', Price: {}", 
                               productId, product.getName(), product.getSku(), product.getPrice());
@@ -100,6 +91,44 @@ public class ProductServiceClient {
         });
     }
 
+    /**
+     * Look up several products in one call; products the service does not know are absent from the map.
+     * Throws when product service cannot answer, since callers use this for pricing.
+     */
+    public Map<Long, ProductDto> getProducts(Collection<Long> productIds) {
+        logger.debug("Batch product lookup for {} products", productIds.size());
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return circuitBreaker.run(() -> {
+            String url = productServiceUrl + "/api/v1/products/catalog/batch";
+            List<Map<String, Object>> response = webClient.post()
+                    .uri(url)
+                    .bodyValue(productIds)
+                    .retrieve()
+                    .bodyToMono(new ParameterizedTypeReference<List<Map<String, Object>>>() {})
+                    .timeout(Duration.ofSeconds(5))
+                    .block();
+
+            Map<Long, ProductDto> products = new HashMap<>();
+            if (response != null) {
+                for (Map<String, Object> productData : response) {
+                    if (productData.get("id") != null) {
+                        ProductDto product = toProductDto(productData);
+                        products.put(product.getId(), product);
+                    }
+                }
+            }
+            logger.debug("Batch product lookup returned {} of {} products", products.size(), productIds.size());
+            return products;
+        }, throwable -> {
+            logger.error("⚡ [PRODUCT-RETRIEVAL] Batch product lookup failed for {} products: {}",
+                       productIds.size(), throwable.getMessage());
+            throw new RuntimeException("Product service unavailable: " + throwable.getMessage(), throwable);
+        });
+    }
+
     public boolean isProductAvailable(Long productId) {
         logger.debug("Checking product availability: {}", productId);
         
@@ -130,4 +159,21 @@ public class ProductServiceClient {
             return false;
         });
     }
-}
\ No newline at end of file
+
+    private ProductDto toProductDto(Map<String, Object> productData) {
+        ProductDto product = new ProductDto();
+        product.setId(((Number) productData.get("id")).longValue());
+        product.setName((String) productData.get("name"));
+        product.setDescription((String) productData.get("description"));
+        product.setBrand((String) productData.get("brand"));
+        product.setImageUrl((String) productData.get("imageUrl"));
+        product.setSku((String) productData.get("sku"));
+        
+        // Decimal string of the JSON number, not a double, so prices keep their exact value
+        Object priceObj = productData.get("price");
+        if (priceObj instanceof Number) {
+            product.setPrice(new BigDecimal(priceObj.toString()));
+        }
+        return product;
+    }
+}
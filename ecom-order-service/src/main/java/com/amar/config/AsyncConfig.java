@@ -0,0 +1,91 @@
+package com.amar.config;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Thread pools used to fan out blocking downstream calls
+ * (cart, inventory, product, payment) during checkout.
+ *
+ * With spring.threads.virtual.enabled=true on a Java 21+ runtime, Boot already moves Tomcat,
+ * the application task executor and the scheduler onto virtual threads; the checkout stages
+ * follow, bounded by a concurrency limit instead of a pool size. On Java 17 the flag is ignored.
+ */
+@Configuration
+public class AsyncConfig {
+
+    @Value("${order.checkout.executor.core-size:16}")
+    private int checkoutCoreSize;
+
+    @Value("${order.checkout.executor.max-size:64}")
+    private int checkoutMaxSize;
+
+    @Value("${order.checkout.executor.queue-capacity:500}")
+    private int checkoutQueueCapacity;
+
+    // Cap on concurrently running checkout stages when they run on virtual threads
+    @Value("${order.checkout.executor.virtual-concurrency-limit:512}")
+    private int checkoutVirtualConcurrencyLimit;
+
+    @Bean(name = "checkoutExecutor")
+    public Executor checkoutExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("checkout-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(checkoutVirtualConcurrencyLimit);
+            executor.setTaskDecorator(mdcTaskDecorator());
+            executor.setTaskTerminationTimeout(30_000);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(checkoutCoreSize);
+        executor.setMaxPoolSize(checkoutMaxSize);
+        executor.setQueueCapacity(checkoutQueueCapacity);
+        executor.setThreadNamePrefix("checkout-");
+        executor.setTaskDecorator(mdcTaskDecorator());
+        // Run on the caller when saturated instead of failing the checkout
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Copy the caller's MDC (correlationId) onto pool threads so async stages keep log correlation
+     */
+    private TaskDecorator mdcTaskDecorator() {
+        return runnable -> {
+            Map<String, String> context = MDC.getCopyOfContextMap();
+            return () -> {
+                Map<String, String> previous = MDC.getCopyOfContextMap();
+                if (context != null) {
+                    MDC.setContextMap(context);
+                } else {
+                    MDC.clear();
+                }
+                try {
+                    runnable.run();
+                } finally {
+                    if (previous != null) {
+                        MDC.setContextMap(previous);
+                    } else {
+                        MDC.clear();
+                    }
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.amar.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.amar.service.OrderSummaryCache;
+import com.amar.service.RedisOrderUpdateChannel;
+
+@Configuration
+public class RedisConfig {
+
+    /**
+     * Subscribes this instance to cross-instance cache invalidation and order status fan-out messages
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       OrderSummaryCache orderSummaryCache,
+                                                                       ObjectProvider<RedisOrderUpdateChannel> orderUpdateChannel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(orderSummaryCache, new ChannelTopic(OrderSummaryCache.INVALIDATION_CHANNEL));
+        orderUpdateChannel.ifAvailable(channel ->
+            container.addMessageListener(channel, new ChannelTopic(channel.getChannel())));
+        return container;
+    }
+}
@@ -1,12 +1,23 @@
 package com.amar.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import com.amar.service.OrderSubscriptionRegistry;
+
 /**
  * WebSocket configuration for real-time order status updates
  * Enables STOMP messaging with SockJS fallback support
@@ -18,6 +29,19 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Value("${websocket.allowed-origins}")
     private String allowedOrigins;
 
+    @Value("${websocket.heartbeat-ms:10000}")
+    private long heartbeatMs;
+
+    @Autowired
+    private OrderSubscriptionRegistry subscriptionRegistry;
+
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    @Autowired
+    public void setMessageBrokerTaskScheduler(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler taskScheduler) {
+        this.messageBrokerTaskScheduler = taskScheduler;
+    }
+
     /**
      * Configure message broker for handling subscription destinations
      * and routing messages to connected clients
@@ -25,8 +49,11 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable simple memory-based message broker for destinations prefixed with "/topic"
-        // For production, consider using external brokers like RabbitMQ or ActiveMQ
-        config.enableSimpleBroker("/topic", "/queue");
+        // Order status updates reach every instance's broker via OrderUpdateFanout
+        // Heartbeats let the broker detect dead connections and publish their disconnect events
+        config.enableSimpleBroker("/topic", "/queue")
+              .setHeartbeatValue(new long[] {heartbeatMs, heartbeatMs})
+              .setTaskScheduler(messageBrokerTaskScheduler);
         
         // Prefix for messages that are bound to methods annotated with @MessageMapping
         config.setApplicationDestinationPrefixes("/app");
@@ -35,6 +62,21 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         config.setUserDestinationPrefix("/user");
     }
 
+    /**
+     * Mark the session as active on every inbound frame (heartbeats included)
+     * so the subscription registry only evicts sessions that have gone silent
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                subscriptionRegistry.touch(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+                return message;
+            }
+        });
+    }
+
     /**
      * Register STOMP endpoints for WebSocket connections
      * SockJS fallback provides compatibility for browsers that don't support WebSocket
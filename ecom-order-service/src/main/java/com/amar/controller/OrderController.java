@@ -6,9 +6,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.RestTemplate;
 
+import com.amar.dto.OrderCursorPage;
+import com.amar.service.OrderService;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -22,6 +26,28 @@ public class OrderController {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private OrderService orderService;
+
+    /**
+     * Order history for a user, newest first, paged with an opaque cursor over (created_at, id)
+     */
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<OrderCursorPage> getOrderHistory(@PathVariable String userId,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = "10") int size,
+                                                           @RequestParam(defaultValue = "false") boolean includeTotal) {
+        logger.debug("Retrieving order history for user: {} after cursor: {}", userId, cursor);
+
+        try {
+            int pageSize = Math.max(1, Math.min(size, 100));
+            return ResponseEntity.ok(orderService.getOrdersByUserId(userId, cursor, pageSize, includeTotal));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid order history cursor for user {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping("/create")
     public Map<String, Object> createOrder(@RequestBody Map<String, Object> orderRequest,
                                          @RequestHeader(value = "X-Correlation-ID", required = false) String correlationId) {
@@ -1,9 +1,12 @@
 package com.amar.controller;
 
 import com.amar.dto.CreateOrderRequest;
+import com.amar.dto.OrderCursorPage;
 import com.amar.dto.OrderDto;
 import com.amar.dto.UpdateOrderStatusRequest;
 import com.amar.entity.order.OrderStatus;
+import com.amar.service.CheckoutSagaOrchestrator.CheckoutPendingException;
+import com.amar.service.OrderExportService;
 import com.amar.service.OrderService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -12,10 +15,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -26,18 +35,29 @@ public class OrderManagementController {
     private static final Logger logger = LoggerFactory.getLogger(OrderManagementController.class);
 
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
 
     @Autowired
-    public OrderManagementController(OrderService orderService) {
+    public OrderManagementController(OrderService orderService, OrderExportService orderExportService) {
         this.orderService = orderService;
+        this.orderExportService = orderExportService;
     }
 
     // =====================================================
     // Order Creation
     // =====================================================
 
+    /**
+     * Checkout. By default the response is sent once payment has finished (201); with
+     * {@code mode=async} the order is persisted as PENDING and 202 is returned immediately,
+     * the outcome following on /topic/orders/{orderId} and /topic/orders/user/{userId}.
+     */
     @PostMapping
-    public ResponseEntity<OrderDto> createOrder(@Valid @RequestBody CreateOrderRequest request) {
+    public ResponseEntity<OrderDto> createOrder(@Valid @RequestBody CreateOrderRequest request,
+                                                @RequestParam(defaultValue = "sync") String mode) {
+        if ("async".equalsIgnoreCase(mode)) {
+            return acceptOrder(request);
+        }
         logger.info("🛒 [ORDER-CREATE] Received order request for user: {}", request.getUserId());
         logger.info("🛒 [ORDER-CREATE] Request payload: userId={}, cartId={}, itemsCount={}, paymentMethod={}", 
                    request.getUserId(), request.getCartId(), 
@@ -52,6 +72,14 @@ public class OrderManagementController {
                        order.getOrderNumber(), order.getId());
             return ResponseEntity.status(HttpStatus.CREATED).body(order);
 
+        } catch (CheckoutPendingException e) {
+            logger.warn("⏳ [ORDER-CREATE] {} - returning it as accepted", e.getMessage());
+            return orderService.getOrderById(e.getOrderId())
+                    .map(order -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                            .location(URI.create("/api/v1/order-management/" + order.getId()))
+                            .body(order))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.ACCEPTED).build());
+
         } catch (Exception e) {
             logger.error("❌ [ORDER-CREATE] Failed to create order for user: {} - Error: {}", 
                         request.getUserId(), e.getMessage());
@@ -60,6 +88,25 @@ public class OrderManagementController {
         }
     }
 
+    private ResponseEntity<OrderDto> acceptOrder(CreateOrderRequest request) {
+        logger.info("🛒 [ORDER-ACCEPT] Received async order request for user: {}", request.getUserId());
+
+        try {
+            OrderDto order = orderService.acceptOrder(request);
+            logger.info("✅ [ORDER-ACCEPT] Order accepted: {} (ID: {})", order.getOrderNumber(), order.getId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create("/api/v1/order-management/" + order.getId()))
+                    .body(order);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("❌ [ORDER-ACCEPT] Rejected order for user: {} - {}", request.getUserId(), e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("❌ [ORDER-ACCEPT] Failed to accept order for user: {}", request.getUserId(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     // =====================================================
     // Order Retrieval
     // =====================================================
@@ -143,6 +190,75 @@ public class OrderManagementController {
         }
     }
 
+    // =====================================================
+    // Keyset (cursor) Retrieval - no COUNT unless includeTotal=true
+    // =====================================================
+
+    @GetMapping("/user/{userId}/cursor")
+    public ResponseEntity<OrderCursorPage> getOrdersByUserIdCursor(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        logger.debug("Retrieving orders for user: {} after cursor: {}", userId, cursor);
+
+        try {
+            return ResponseEntity.ok(orderService.getOrdersByUserId(userId, cursor, clampPageSize(size), includeTotal));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid cursor request for user {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/status/{status}/cursor")
+    public ResponseEntity<OrderCursorPage> getOrdersByStatusCursor(
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        logger.debug("Retrieving orders by status: {} after cursor: {}", status, cursor);
+
+        try {
+            OrderStatus orderStatus = OrderStatus.valueOf(status.toUpperCase());
+            return ResponseEntity.ok(orderService.getOrdersByStatus(orderStatus, cursor, clampPageSize(size), includeTotal));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid status or cursor: {} / {}", status, cursor);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/search/cursor")
+    public ResponseEntity<OrderCursorPage> searchOrdersCursor(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String customerEmail,
+            @RequestParam(required = false) String orderNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        logger.debug("Searching orders after cursor {} with filters - userId: {}, status: {}, email: {}, orderNumber: {}",
+                cursor, userId, status, customerEmail, orderNumber);
+
+        try {
+            OrderStatus orderStatus = null;
+            if (status != null && !status.trim().isEmpty()) {
+                orderStatus = OrderStatus.valueOf(status.toUpperCase());
+            }
+            return ResponseEntity.ok(orderService.searchOrders(userId, orderStatus, customerEmail, orderNumber,
+                    cursor, clampPageSize(size), includeTotal));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid status or cursor: {} / {}", status, cursor);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, 100));
+    }
+
     // =====================================================
     // Order Status Management
     // =====================================================
@@ -210,6 +326,42 @@ public class OrderManagementController {
         }
     }
 
+    // =====================================================
+    // Reporting Export
+    // =====================================================
+
+    /**
+     * Orders created in [from, to) as CSV or NDJSON, streamed from a database cursor on an async
+     * request thread. Archived orders are not included.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "csv") String format) {
+
+        logger.info("Exporting orders created from {} to {} as {}", from, to, format);
+
+        OrderExportService.Format exportFormat;
+        try {
+            exportFormat = OrderExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid export request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        if (!from.isBefore(to)) {
+            logger.error("Invalid export range: {} - {}", from, to);
+            return ResponseEntity.badRequest().build();
+        }
+
+        String filename = "orders-%s-%s.%s".formatted(from.toLocalDate(), to.toLocalDate(), exportFormat.getExtension());
+        StreamingResponseBody body = out -> orderExportService.export(from, to, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
     // =====================================================
     // Health Check
     // =====================================================
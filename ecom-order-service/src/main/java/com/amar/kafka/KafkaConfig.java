@@ -2,6 +2,7 @@ package com.amar.kafka;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,8 +12,11 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -99,4 +103,36 @@ public class KafkaConfig {
         
         return factory;
     }
-}
\ No newline at end of file
+
+    /**
+     * Batch container for payment-events: one listener call per poll, acknowledged as a whole.
+     * When the listener reports a failing record (BatchListenerFailedException) the records before it
+     * are committed, the failing one is retried and finally published to the dead-letter topic, and
+     * consumption carries on after it.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> paymentBatchListenerContainerFactory(
+            @Value("${order.payment-events.batch.max-poll-records:200}") int maxPollRecords,
+            @Value("${order.payment-events.batch.failed-record-retries:2}") long failedRecordRetries,
+            @Value("${order.payment-events.batch.failed-record-retry-ms:1000}") long failedRecordRetryMs,
+            @Value("${order.payment-events.batch.dead-letter-topic:payment-events.DLT}") String deadLetterTopic) {
+        Map<String, Object> props = new HashMap<>(consumerFactory().getConfigurationProperties());
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = 
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setConcurrency(3);
+        factory.setAutoStartup(true);
+
+        // Negative partition: let the producer pick, so the DLT does not need as many partitions as the source
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate(),
+            (record, ex) -> new TopicPartition(deadLetterTopic, -1));
+        factory.setCommonErrorHandler(new DefaultErrorHandler(recoverer,
+            new FixedBackOff(failedRecordRetryMs, failedRecordRetries)));
+
+        return factory;
+    }
+}
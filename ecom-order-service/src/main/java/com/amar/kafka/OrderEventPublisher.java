@@ -3,6 +3,7 @@ package com.amar.kafka;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -13,6 +14,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.amar.dto.OrderStatusUpdate;
 import com.amar.service.OrderWebSocketService;
@@ -30,6 +33,16 @@ public class OrderEventPublisher {
     @Value("${order.kafka.topics.order-events:order-events}")
     private String orderEventsTopic;
 
+    @Value("${order.events.publish-mode:OUTBOX}")
+    private PublishMode defaultPublishMode = PublishMode.OUTBOX;
+
+    // Event types that bypass the default mode, e.g. order.updated
+    @Value("${order.events.direct-types:}")
+    private Set<String> directEventTypes = Set.of();
+
+    @Value("${order.events.outbox-types:}")
+    private Set<String> outboxEventTypes = Set.of();
+
     @Autowired
     public OrderEventPublisher(KafkaTemplate<String, Object> kafkaTemplate,
                               OrderWebSocketService webSocketService,
@@ -43,19 +56,30 @@ public class OrderEventPublisher {
     // Order Lifecycle Events
     // =====================================================
 
+    /**
+     * How an event type reaches Kafka. OUTBOX writes it in the caller's transaction and leaves
+     * delivery to the outbox relay; DIRECT sends it to Kafka once the transaction has committed.
+     */
+    public enum PublishMode {
+        OUTBOX,
+        DIRECT
+    }
+
     public void publishOrderEvent(String eventType, UUID orderId, Map<String, Object> orderData) {
-        logger.debug("Publishing order event: {} for order: {}", eventType, orderId);
+        PublishMode mode = resolvePublishMode(eventType);
+        logger.debug("Publishing order event: {} for order: {} via {}", eventType, orderId, mode);
         
-        try {
-            Map<String, Object> event = Map.of(
-                "eventType", eventType,
-                "orderId", orderId.toString(),
-                "orderData", orderData,
-                "timestamp", LocalDateTime.now(),
-                "source", "ecom-order-service"
-            );
-            
-            // Use transactional outbox pattern for reliable event publishing
+        Map<String, Object> event = Map.of(
+            "eventType", eventType,
+            "orderId", orderId.toString(),
+            "orderData", orderData,
+            "timestamp", LocalDateTime.now(),
+            "source", "ecom-order-service"
+        );
+        
+        if (mode == PublishMode.OUTBOX) {
+            // Transactional outbox: commits or rolls back together with the order change.
+            // Failures propagate so the caller's transaction rolls back instead of losing the event.
             eventOutboxService.saveEvent(
                 orderId.toString(),
                 "Order",
@@ -64,14 +88,55 @@ public class OrderEventPublisher {
                 orderEventsTopic,
                 orderId.toString()
             );
-            
             logger.debug("Order event saved to outbox: {} for order: {}", eventType, orderId);
-                
+        } else {
+            runAfterCommit(() -> sendDirect(eventType, orderId, event));
+        }
+    }
+
+    PublishMode resolvePublishMode(String eventType) {
+        if (directEventTypes.contains(eventType)) {
+            return PublishMode.DIRECT;
+        }
+        if (outboxEventTypes.contains(eventType)) {
+            return PublishMode.OUTBOX;
+        }
+        return defaultPublishMode;
+    }
+
+    private void sendDirect(String eventType, UUID orderId, Map<String, Object> event) {
+        try {
+            CompletableFuture<SendResult<String, Object>> future =
+                kafkaTemplate.send(orderEventsTopic, orderId.toString(), event);
+            future.whenComplete((result, exception) -> {
+                if (exception != null) {
+                    logger.error("Failed to publish order event: {} for order: {} directly to Kafka", 
+                               eventType, orderId, exception);
+                } else {
+                    logger.debug("Order event published directly: {} for order: {}", eventType, orderId);
+                }
+            });
         } catch (Exception ex) {
             logger.error("Error publishing order event: {} for order: {}", eventType, orderId, ex);
         }
     }
 
+    /**
+     * Direct sends never happen for a transaction that later rolls back
+     */
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
     public void publishOrderCreated(UUID orderId, String userId, List<OrderItem> items, 
                                    String totalAmount, String status) {
         Map<String, Object> orderData = Map.of(
@@ -0,0 +1,77 @@
+package com.amar.kafka;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A payment event from payment-events, reduced to what order processing needs.
+ * The dedupe key is the producer's eventId, falling back to paymentId + eventType for older producers.
+ */
+public final class PaymentEvent {
+
+    private final String eventId;
+    private final String eventType;
+    private final String paymentId;
+    private final UUID orderId;
+    private final Map<String, Object> paymentData;
+
+    private PaymentEvent(String eventId, String eventType, String paymentId, UUID orderId,
+                         Map<String, Object> paymentData) {
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.paymentId = paymentId;
+        this.orderId = orderId;
+        this.paymentData = paymentData;
+    }
+
+    /**
+     * Parse a raw event; orderId is null when the event does not reference an order
+     */
+    @SuppressWarnings("unchecked")
+    public static PaymentEvent from(Map<String, Object> event) {
+        String eventType = (String) event.get("eventType");
+        String paymentId = (String) event.get("paymentId");
+        Map<String, Object> paymentData = event.get("paymentData") instanceof Map
+                ? (Map<String, Object>) event.get("paymentData")
+                : Collections.emptyMap();
+
+        UUID orderId = null;
+        Object rawOrderId = paymentData.get("orderId");
+        if (rawOrderId != null) {
+            orderId = UUID.fromString(rawOrderId.toString());
+        }
+
+        String eventId = (String) event.get("eventId");
+        if (eventId == null) {
+            eventId = paymentId + ":" + eventType;
+        }
+        return new PaymentEvent(eventId, eventType, paymentId, orderId, paymentData);
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public String getPaymentId() {
+        return paymentId;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public String getString(String field) {
+        Object value = paymentData.get(field);
+        return value != null ? value.toString() : null;
+    }
+
+    public Number getNumber(String field) {
+        Object value = paymentData.get(field);
+        return value instanceof Number ? (Number) value : null;
+    }
+}
@@ -1,19 +1,32 @@
 package com.amar.kafka;
 
 import com.amar.service.OrderService;
+import com.amar.service.OrderService.PaymentBatchResult;
 import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class PaymentEventListener {
@@ -23,17 +36,152 @@ public class PaymentEventListener {
     private final OrderService orderService;
     private final ObjectMapper objectMapper;
 
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+    private final Counter processedEvents;
+    private final Counter duplicateEvents;
+    private final Counter unhandledEvents;
+    private final Counter deferredEvents;
+
+    // Redelivery attempts per event id while its order is not visible yet
+    private final Map<String, Integer> deferrals = new ConcurrentHashMap<>();
+
+    @Value("${order.payment-events.batch.missing-order-retry-ms:500}")
+    private long missingOrderRetryMs;
+
+    @Value("${order.payment-events.batch.max-deferrals:20}")
+    private int maxDeferrals;
+
     @Autowired
-    public PaymentEventListener(OrderService orderService, ObjectMapper objectMapper) {
+    public PaymentEventListener(OrderService orderService, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
         this.orderService = orderService;
         this.objectMapper = objectMapper;
+        this.batchTimer = Timer.builder("order.payment.batch")
+            .description("Time to apply one poll of payment events")
+            .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("order.payment.batch.size")
+            .description("Payment events per poll")
+            .register(meterRegistry);
+        this.processedEvents = batchEventCounter(meterRegistry, "processed");
+        this.duplicateEvents = batchEventCounter(meterRegistry, "duplicate");
+        this.unhandledEvents = batchEventCounter(meterRegistry, "unhandled");
+        this.deferredEvents = batchEventCounter(meterRegistry, "deferred");
+    }
+
+    // =====================================================
+    // Payment Events - batch mode (default)
+    // =====================================================
+
+    /**
+     * Applies a whole poll in one transaction, skipping events already in processed_payment_events.
+     * Events for orders that are not visible yet are redelivered from the first such record;
+     * everything before it is acknowledged, and anything after it that was applied is deduped on replay.
+     * If the batch transaction fails, the poll is applied again one event per transaction so a single
+     * bad event cannot hold back the others; see {@link #applyEventByEvent}.
+     */
+    @KafkaListener(id = "payment-events-batch", topics = "payment-events",
+                   groupId = "${spring.kafka.consumer.group-id}",
+                   containerFactory = "paymentBatchListenerContainerFactory",
+                   autoStartup = "${order.payment-events.batch.enabled:true}")
+    public void handlePaymentEventBatch(@Payload List<Map<String, Object>> events, Acknowledgment acknowledgment) {
+        batchSize.record(events.size());
+        Timer.Sample sample = Timer.start();
+
+        List<PaymentEvent> parsed = new ArrayList<>(events.size());
+        List<Integer> positions = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                parsed.add(PaymentEvent.from(events.get(i)));
+                positions.add(i);
+            } catch (RuntimeException e) {
+                unhandledEvents.increment();
+                logger.error("Skipping malformed payment event: {}", e.getMessage());
+            }
+        }
+
+        PaymentBatchResult result;
+        try {
+            result = orderService.processPaymentEventBatch(parsed);
+        } catch (Exception ex) {
+            logger.warn("Failed to apply batch of {} payment events, applying them one at a time: {}",
+                       events.size(), ex.getMessage());
+            result = applyEventByEvent(parsed, positions);
+        } finally {
+            sample.stop(batchTimer);
+        }
+
+        processedEvents.increment(result.getProcessed());
+        duplicateEvents.increment(result.getDuplicates());
+        unhandledEvents.increment(result.getUnhandled());
+
+        int firstDeferred = -1;
+        for (int i = 0; i < parsed.size(); i++) {
+            if (result.getMissingOrders().contains(parsed.get(i).getOrderId())) {
+                firstDeferred = positions.get(i);
+                break;
+            }
+        }
+
+        if (firstDeferred < 0) {
+            if (!deferrals.isEmpty()) {
+                parsed.forEach(event -> deferrals.remove(event.getEventId()));
+            }
+            acknowledgment.acknowledge();
+            return;
+        }
+
+        String deferredEventId = parsed.get(positions.indexOf(firstDeferred)).getEventId();
+        int attempts = deferrals.merge(deferredEventId, 1, Integer::sum);
+        if (attempts > maxDeferrals) {
+            // The order never showed up - stop blocking the partition on it
+            deferrals.remove(deferredEventId);
+            unhandledEvents.increment(result.getMissingOrders().size());
+            logger.error("Giving up on payment events for unknown orders {} after {} redeliveries",
+                        result.getMissingOrders(), maxDeferrals);
+            acknowledgment.acknowledge();
+            return;
+        }
+
+        deferredEvents.increment(events.size() - firstDeferred);
+        logger.warn("Orders {} not found yet, redelivering payment events from batch index {} (attempt {})",
+                   result.getMissingOrders(), firstDeferred, attempts);
+        acknowledgment.nack(firstDeferred, Duration.ofMillis(missingOrderRetryMs));
+    }
+
+    /**
+     * Apply each event in its own transaction, stopping at the first one whose order is not visible yet
+     * (the caller redelivers from there). An event that fails on its own is reported by its index: the
+     * container's error handler commits everything before it, retries it and then dead-letters it.
+     */
+    private PaymentBatchResult applyEventByEvent(List<PaymentEvent> parsed, List<Integer> positions) {
+        PaymentBatchResult result = new PaymentBatchResult();
+        for (int i = 0; i < parsed.size(); i++) {
+            PaymentEvent event = parsed.get(i);
+            PaymentBatchResult single;
+            try {
+                single = orderService.processPaymentEventBatch(List.of(event));
+            } catch (Exception ex) {
+                processedEvents.increment(result.getProcessed());
+                duplicateEvents.increment(result.getDuplicates());
+                unhandledEvents.increment(result.getUnhandled());
+                logger.error("Failed to apply payment event {} for order {}", event.getEventId(), event.getOrderId(), ex);
+                throw new BatchListenerFailedException("Failed to apply payment event " + event.getEventId(),
+                                                       ex, positions.get(i));
+            }
+            result.add(single);
+            if (!single.getMissingOrders().isEmpty()) {
+                break;
+            }
+        }
+        return result;
     }
 
     // =====================================================
-    // Payment Events (for order payment status updates)
+    // Payment Events - per record (order.payment-events.batch.enabled=false)
     // =====================================================
 
-    @KafkaListener(topics = "payment-events", groupId = "${spring.kafka.consumer.group-id}")
+    @KafkaListener(id = "payment-events", topics = "payment-events", groupId = "${spring.kafka.consumer.group-id}",
+                   autoStartup = "#{!${order.payment-events.batch.enabled:true}}")
     public void handlePaymentEvents(@Payload Map<String, Object> event,
                                    @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
                                    @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
@@ -284,4 +432,11 @@ public class PaymentEventListener {
         
         throw new RuntimeException("Failed to update order " + orderId + " payment status after " + maxRetries + " attempts");
     }
+
+    private static Counter batchEventCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("order.payment.batch.events")
+            .description("Payment events handled by the batch listener")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
 }
\ No newline at end of file
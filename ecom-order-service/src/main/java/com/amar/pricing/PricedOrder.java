@@ -0,0 +1,60 @@
+package com.amar.pricing;
+
+import java.math.BigDecimal;
+
+/**
+ * Result of pricing an order. Line prices are indexed in the order of the request's items.
+ */
+public class PricedOrder {
+
+    private final BigDecimal[] unitPrices;
+    private final BigDecimal[] lineTotals;
+    private final BigDecimal subtotal;
+    private final BigDecimal taxAmount;
+    private final BigDecimal shippingCost;
+    private final BigDecimal discountAmount;
+    private final BigDecimal totalAmount;
+
+    PricedOrder(BigDecimal[] unitPrices, BigDecimal[] lineTotals, long subtotalCents, long taxCents,
+                long shippingCents, long discountCents) {
+        this.unitPrices = unitPrices;
+        this.lineTotals = lineTotals;
+        this.subtotal = BigDecimal.valueOf(subtotalCents, 2);
+        this.taxAmount = BigDecimal.valueOf(taxCents, 2);
+        this.shippingCost = BigDecimal.valueOf(shippingCents, 2);
+        this.discountAmount = BigDecimal.valueOf(discountCents, 2);
+        this.totalAmount = BigDecimal.valueOf(subtotalCents + taxCents + shippingCents - discountCents, 2);
+    }
+
+    public BigDecimal getUnitPrice(int line) {
+        return unitPrices[line];
+    }
+
+    public BigDecimal getLineTotal(int line) {
+        return lineTotals[line];
+    }
+
+    public int getLineCount() {
+        return unitPrices.length;
+    }
+
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+
+    public BigDecimal getTaxAmount() {
+        return taxAmount;
+    }
+
+    public BigDecimal getShippingCost() {
+        return shippingCost;
+    }
+
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+}
@@ -0,0 +1,121 @@
+package com.amar.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.amar.dto.CreateOrderItemRequest;
+import com.amar.dto.CreateOrderRequest;
+import com.amar.dto.ProductDto;
+
+/**
+ * Prices an order server-side: unit prices come from product service (fetched for all lines in one
+ * batch), tax/shipping/discount from the cached rule tables. Client-supplied prices are ignored.
+ *
+ * All arithmetic is done on long cents and parts-per-million rates with half-up rounding; BigDecimal
+ * is only created for the values handed back, one per line plus the order totals.
+ */
+@Component
+public class PricingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PricingEngine.class);
+    private static final BigDecimal PPM_DIVISOR = BigDecimal.valueOf(PricingRules.PPM);
+
+    private final Supplier<PricingRules> rules;
+
+    @Autowired
+    public PricingEngine(PricingRuleCache ruleCache) {
+        this(ruleCache::current);
+    }
+
+    PricingEngine(Supplier<PricingRules> rules) {
+        this.rules = rules;
+    }
+
+    public PricedOrder price(CreateOrderRequest request, Map<Long, ProductDto> products) {
+        boolean billingDestination = request.isSameAsBilling() || request.getShippingCountry() == null;
+        String country = billingDestination ? request.getBillingCountry() : request.getShippingCountry();
+        String state = billingDestination ? request.getBillingState() : request.getShippingState();
+
+        PricedOrder priced = price(rules.get(), request.getItems(), products, request.getShippingMethod(),
+                                   country, state, request.getCouponCode(), LocalDateTime.now());
+
+        if (request.getExpectedTotal() != null && request.getExpectedTotal().compareTo(priced.getTotalAmount()) != 0) {
+            logger.info("Client expected total {} but order prices at {} for user: {}",
+                       request.getExpectedTotal(), priced.getTotalAmount(), request.getUserId());
+        }
+        return priced;
+    }
+
+    PricedOrder price(PricingRules rules, List<CreateOrderItemRequest> items, Map<Long, ProductDto> products,
+                      String shippingMethod, String country, String state, String couponCode, LocalDateTime now) {
+        int lines = items.size();
+        BigDecimal[] unitPrices = new BigDecimal[lines];
+        BigDecimal[] lineTotals = new BigDecimal[lines];
+        long subtotalCents = 0;
+        long quantity = 0;
+
+        for (int i = 0; i < lines; i++) {
+            CreateOrderItemRequest item = items.get(i);
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Invalid quantity for product ID: " + item.getProductId());
+            }
+            ProductDto product = products.get(item.getProductId());
+            if (product == null || product.getPrice() == null) {
+                throw new RuntimeException("No price available for product ID: " + item.getProductId());
+            }
+
+            BigDecimal unitPrice = product.getPrice();
+            long unitCents = PricingRules.toCents(unitPrice);
+            long lineCents = Math.multiplyExact(unitCents, item.getQuantity().longValue());
+
+            unitPrices[i] = unitPrice.scale() == 2 ? unitPrice : BigDecimal.valueOf(unitCents, 2);
+            lineTotals[i] = BigDecimal.valueOf(lineCents, 2);
+            subtotalCents = Math.addExact(subtotalCents, lineCents);
+            quantity += item.getQuantity();
+        }
+
+        long taxCents = applyRate(subtotalCents, rules.taxPpm(country, state));
+        long shippingCents = shipping(rules.shipping(shippingMethod), subtotalCents, quantity);
+        long discountCents = discount(rules.coupon(couponCode), subtotalCents, now);
+
+        return new PricedOrder(unitPrices, lineTotals, subtotalCents, taxCents, shippingCents, discountCents);
+    }
+
+    private static long shipping(PricingRules.ShippingRule rule, long subtotalCents, long quantity) {
+        if (rule.freeOverCents >= 0 && subtotalCents >= rule.freeOverCents) {
+            return 0;
+        }
+        return rule.baseCents + rule.perItemCents * quantity;
+    }
+
+    private static long discount(PricingRules.CouponRule coupon, long subtotalCents, LocalDateTime now) {
+        if (coupon == null || !coupon.isValidAt(now) || subtotalCents < coupon.minSubtotalCents) {
+            return 0;
+        }
+        long discountCents = coupon.type == PricingRules.DiscountType.PERCENT
+            ? applyRate(subtotalCents, coupon.value)
+            : coupon.value;
+        return Math.min(Math.min(discountCents, coupon.maxDiscountCents), subtotalCents);
+    }
+
+    /**
+     * cents * ppm / 1,000,000 rounded half-up; both operands are non-negative
+     */
+    static long applyRate(long cents, long ppm) {
+        try {
+            return Math.addExact(Math.multiplyExact(cents, ppm), PricingRules.PPM / 2) / PricingRules.PPM;
+        } catch (ArithmeticException overflow) {
+            return BigDecimal.valueOf(cents).multiply(BigDecimal.valueOf(ppm))
+                .divide(PPM_DIVISOR, 0, RoundingMode.HALF_UP).longValueExact();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.amar.pricing;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.amar.repository.PricingRuleRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory copy of the pricing rule tables. Checkout reads the current snapshot without touching
+ * the database; a scheduled check compares a cheap version marker and reloads only when a rule row
+ * changed. If a reload fails the previous snapshot stays in use.
+ */
+@Component
+public class PricingRuleCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PricingRuleCache.class);
+
+    private final PricingRuleRepository ruleRepository;
+    private final Counter reloads;
+    private final Counter reloadFailures;
+
+    private volatile PricingRules current;
+    private volatile String version;
+
+    // Applied to destinations and shipping methods that have no rule row
+    @Value("${order.pricing.default-tax-rate:0.085}")
+    private BigDecimal defaultTaxRate;
+
+    @Value("${order.pricing.default-shipping-cost:9.99}")
+    private BigDecimal defaultShippingCost;
+
+    @Autowired
+    public PricingRuleCache(PricingRuleRepository ruleRepository, MeterRegistry meterRegistry) {
+        this.ruleRepository = ruleRepository;
+        this.reloads = reloadCounter(meterRegistry, "loaded");
+        this.reloadFailures = reloadCounter(meterRegistry, "failed");
+    }
+
+    public PricingRules current() {
+        PricingRules rules = current;
+        if (rules == null) {
+            refresh();
+            rules = current;
+        }
+        return rules;
+    }
+
+    @Scheduled(fixedDelayString = "${order.pricing.refresh-interval-ms:30000}")
+    public synchronized void refresh() {
+        try {
+            String latest = ruleRepository.currentVersion();
+            if (current != null && Objects.equals(latest, version)) {
+                return;
+            }
+            PricingRules loaded = PricingRules.of(
+                ruleRepository.findActiveTaxRates(),
+                ruleRepository.findActiveShippingRates(),
+                ruleRepository.findActiveCoupons(),
+                defaultTaxRate, defaultShippingCost);
+            current = loaded;
+            version = latest;
+            reloads.increment();
+            logger.info("Pricing rules loaded: {} rules (version {})", loaded.size(), latest);
+        } catch (Exception e) {
+            reloadFailures.increment();
+            if (current == null) {
+                logger.error("Failed to load pricing rules, pricing with defaults until the next refresh", e);
+                current = PricingRules.defaults(defaultTaxRate, defaultShippingCost);
+            } else {
+                logger.warn("Failed to refresh pricing rules, keeping version {}: {}", version, e.getMessage());
+            }
+        }
+    }
+
+    private static Counter reloadCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("order.pricing.rules.reload")
+            .description("Pricing rule table reloads")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
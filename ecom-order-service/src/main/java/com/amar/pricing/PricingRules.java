@@ -0,0 +1,236 @@
+package com.amar.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the tax, shipping and coupon rule tables, compiled into the form the
+ * pricing engine uses: money as long cents and rates as long parts-per-million, so pricing an order
+ * is plain long arithmetic. A new snapshot is built on every reload and swapped in whole.
+ */
+public final class PricingRules {
+
+    static final long PPM = 1_000_000L;
+
+    private final Map<String, Long> taxPpmByDestination;
+    private final long defaultTaxPpm;
+    private final Map<String, ShippingRule> shippingByMethod;
+    private final ShippingRule defaultShipping;
+    private final Map<String, CouponRule> couponsByCode;
+
+    private PricingRules(Map<String, Long> taxPpmByDestination, long defaultTaxPpm,
+                         Map<String, ShippingRule> shippingByMethod, ShippingRule defaultShipping,
+                         Map<String, CouponRule> couponsByCode) {
+        this.taxPpmByDestination = taxPpmByDestination;
+        this.defaultTaxPpm = defaultTaxPpm;
+        this.shippingByMethod = shippingByMethod;
+        this.defaultShipping = defaultShipping;
+        this.couponsByCode = couponsByCode;
+    }
+
+    /**
+     * Compile rule rows; destinations and methods without a row fall back to the given defaults
+     */
+    public static PricingRules of(List<TaxRate> taxRates, List<ShippingRate> shippingRates, List<Coupon> coupons,
+                                  BigDecimal defaultTaxRate, BigDecimal defaultShippingCost) {
+        Map<String, Long> taxes = new HashMap<>();
+        for (TaxRate rate : taxRates) {
+            taxes.put(destinationKey(rate.getCountry(), rate.getState()), toPpm(rate.getRate()));
+        }
+
+        Map<String, ShippingRule> shipping = new HashMap<>();
+        for (ShippingRate rate : shippingRates) {
+            shipping.put(normalize(rate.getShippingMethod()), new ShippingRule(
+                toCents(rate.getBaseCost()),
+                rate.getPerItemCost() != null ? toCents(rate.getPerItemCost()) : 0,
+                rate.getFreeOverSubtotal() != null ? toCents(rate.getFreeOverSubtotal()) : -1));
+        }
+
+        Map<String, CouponRule> couponRules = new HashMap<>();
+        for (Coupon coupon : coupons) {
+            couponRules.put(normalize(coupon.getCode()), new CouponRule(
+                coupon.getDiscountType(),
+                coupon.getDiscountType() == DiscountType.PERCENT ? toPpm(coupon.getValue()) : toCents(coupon.getValue()),
+                coupon.getMinSubtotal() != null ? toCents(coupon.getMinSubtotal()) : 0,
+                coupon.getMaxDiscount() != null ? toCents(coupon.getMaxDiscount()) : Long.MAX_VALUE,
+                coupon.getValidFrom(), coupon.getValidUntil()));
+        }
+
+        return new PricingRules(taxes, toPpm(defaultTaxRate), shipping,
+                                new ShippingRule(toCents(defaultShippingCost), 0, -1), couponRules);
+    }
+
+    /**
+     * Rules with no table rows at all, used until the first load succeeds
+     */
+    public static PricingRules defaults(BigDecimal defaultTaxRate, BigDecimal defaultShippingCost) {
+        return of(List.of(), List.of(), List.of(), defaultTaxRate, defaultShippingCost);
+    }
+
+    /**
+     * State rate, else country rate, else the default
+     */
+    long taxPpm(String country, String state) {
+        if (country != null) {
+            Long rate = state != null ? taxPpmByDestination.get(destinationKey(country, state)) : null;
+            if (rate == null) {
+                rate = taxPpmByDestination.get(destinationKey(country, null));
+            }
+            if (rate != null) {
+                return rate;
+            }
+        }
+        return defaultTaxPpm;
+    }
+
+    ShippingRule shipping(String shippingMethod) {
+        ShippingRule rule = shippingMethod != null ? shippingByMethod.get(normalize(shippingMethod)) : null;
+        return rule != null ? rule : defaultShipping;
+    }
+
+    CouponRule coupon(String code) {
+        return code != null && !code.isBlank() ? couponsByCode.get(normalize(code)) : null;
+    }
+
+    public int size() {
+        return taxPpmByDestination.size() + shippingByMethod.size() + couponsByCode.size();
+    }
+
+    // =====================================================
+    // Conversions
+    // =====================================================
+
+    static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static long toPpm(BigDecimal rate) {
+        return rate.movePointRight(6).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static String destinationKey(String country, String state) {
+        return normalize(country) + '|' + (state != null ? normalize(state) : "");
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    // =====================================================
+    // Compiled rules
+    // =====================================================
+
+    static final class ShippingRule {
+        final long baseCents;
+        final long perItemCents;
+        final long freeOverCents;   // -1 when shipping is never free
+
+        ShippingRule(long baseCents, long perItemCents, long freeOverCents) {
+            this.baseCents = baseCents;
+            this.perItemCents = perItemCents;
+            this.freeOverCents = freeOverCents;
+        }
+    }
+
+    static final class CouponRule {
+        final DiscountType type;
+        final long value;           // ppm for PERCENT, cents for FIXED
+        final long minSubtotalCents;
+        final long maxDiscountCents;
+        final LocalDateTime validFrom;
+        final LocalDateTime validUntil;
+
+        CouponRule(DiscountType type, long value, long minSubtotalCents, long maxDiscountCents,
+                   LocalDateTime validFrom, LocalDateTime validUntil) {
+            this.type = type;
+            this.value = value;
+            this.minSubtotalCents = minSubtotalCents;
+            this.maxDiscountCents = maxDiscountCents;
+            this.validFrom = validFrom;
+            this.validUntil = validUntil;
+        }
+
+        boolean isValidAt(LocalDateTime now) {
+            return (validFrom == null || !now.isBefore(validFrom)) && (validUntil == null || now.isBefore(validUntil));
+        }
+    }
+
+    // =====================================================
+    // Rule rows as stored
+    // =====================================================
+
+    public enum DiscountType {
+        PERCENT,
+        FIXED
+    }
+
+    public static class TaxRate {
+        private final String country;
+        private final String state;
+        private final BigDecimal rate;
+
+        public TaxRate(String country, String state, BigDecimal rate) {
+            this.country = country;
+            this.state = state;
+            this.rate = rate;
+        }
+
+        public String getCountry() { return country; }
+        public String getState() { return state; }
+        public BigDecimal getRate() { return rate; }
+    }
+
+    public static class ShippingRate {
+        private final String shippingMethod;
+        private final BigDecimal baseCost;
+        private final BigDecimal perItemCost;
+        private final BigDecimal freeOverSubtotal;
+
+        public ShippingRate(String shippingMethod, BigDecimal baseCost, BigDecimal perItemCost,
+                            BigDecimal freeOverSubtotal) {
+            this.shippingMethod = shippingMethod;
+            this.baseCost = baseCost;
+            this.perItemCost = perItemCost;
+            this.freeOverSubtotal = freeOverSubtotal;
+        }
+
+        public String getShippingMethod() { return shippingMethod; }
+        public BigDecimal getBaseCost() { return baseCost; }
+        public BigDecimal getPerItemCost() { return perItemCost; }
+        public BigDecimal getFreeOverSubtotal() { return freeOverSubtotal; }
+    }
+
+    public static class Coupon {
+        private final String code;
+        private final DiscountType discountType;
+        private final BigDecimal value;
+        private final BigDecimal minSubtotal;
+        private final BigDecimal maxDiscount;
+        private final LocalDateTime validFrom;
+        private final LocalDateTime validUntil;
+
+        public Coupon(String code, DiscountType discountType, BigDecimal value, BigDecimal minSubtotal,
+                      BigDecimal maxDiscount, LocalDateTime validFrom, LocalDateTime validUntil) {
+            this.code = code;
+            this.discountType = discountType;
+            this.value = value;
+            this.minSubtotal = minSubtotal;
+            this.maxDiscount = maxDiscount;
+            this.validFrom = validFrom;
+            this.validUntil = validUntil;
+        }
+
+        public String getCode() { return code; }
+        public DiscountType getDiscountType() { return discountType; }
+        public BigDecimal getValue() { return value; }
+        public BigDecimal getMinSubtotal() { return minSubtotal; }
+        public BigDecimal getMaxDiscount() { return maxDiscount; }
+        public LocalDateTime getValidFrom() { return validFrom; }
+        public LocalDateTime getValidUntil() { return validUntil; }
+    }
+}
@@ -0,0 +1,162 @@
+package com.amar.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import com.amar.service.CheckoutSagaState;
+
+/**
+ * JDBC access to order_service.checkout_sagas and its step log.
+ * State changes are conditional on the expected state and the lease owner, so two instances
+ * can never advance the same saga.
+ */
+@Repository
+public class CheckoutSagaRepository {
+
+    private static final RowMapper<SagaRecord> SAGA_MAPPER = (rs, rowNum) -> new SagaRecord(
+        rs.getObject("order_id", UUID.class),
+        CheckoutSagaState.valueOf(rs.getString("state")),
+        rs.getString("context"),
+        rs.getString("payment_transaction_id"),
+        rs.getString("failure_reason"),
+        rs.getInt("recovery_attempts"),
+        rs.getTimestamp("created_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public CheckoutSagaRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void create(UUID orderId, String context, String owner, long leaseMs) {
+        jdbcTemplate.update("""
+            INSERT INTO order_service.checkout_sagas (order_id, state, context, lease_owner, lease_until)
+            VALUES (?, 'STARTED', ?, ?, CURRENT_TIMESTAMP + (? * INTERVAL '1 millisecond'))
+            """, orderId, context, owner, leaseMs);
+    }
+
+    public Optional<SagaRecord> find(UUID orderId) {
+        return jdbcTemplate.query("SELECT * FROM order_service.checkout_sagas WHERE order_id = ?",
+                                  SAGA_MAPPER, orderId)
+            .stream().findFirst();
+    }
+
+    /**
+     * Move the saga from {@code from} to {@code to} and extend the lease; false if another
+     * instance owns it or it has already moved on
+     */
+    public boolean transition(UUID orderId, CheckoutSagaState from, CheckoutSagaState to, String owner,
+                              long leaseMs, String paymentTransactionId, String failureReason) {
+        return jdbcTemplate.update("""
+            UPDATE order_service.checkout_sagas
+            SET state = ?,
+                payment_transaction_id = COALESCE(?, payment_transaction_id),
+                failure_reason = COALESCE(?, failure_reason),
+                lease_until = CURRENT_TIMESTAMP + (? * INTERVAL '1 millisecond'),
+                updated_at = CURRENT_TIMESTAMP
+            WHERE order_id = ? AND state = ? AND lease_owner = ?
+            """, to.name(), paymentTransactionId, failureReason, leaseMs, orderId, from.name(), owner) == 1;
+    }
+
+    /**
+     * Give up the lease so the recovery worker can pick the saga up on its next pass
+     */
+    public void releaseLease(UUID orderId, String owner) {
+        jdbcTemplate.update("""
+            UPDATE order_service.checkout_sagas SET lease_until = CURRENT_TIMESTAMP
+            WHERE order_id = ? AND lease_owner = ?
+            """, orderId, owner);
+    }
+
+    /**
+     * Take over in-flight sagas whose lease expired (their instance died or gave up)
+     */
+    public List<UUID> claimExpired(String owner, long leaseMs, int limit) {
+        return jdbcTemplate.queryForList("""
+            UPDATE order_service.checkout_sagas s
+            SET lease_owner = ?,
+                lease_until = CURRENT_TIMESTAMP + (? * INTERVAL '1 millisecond'),
+                recovery_attempts = s.recovery_attempts + 1
+            WHERE s.order_id IN (
+                SELECT order_id FROM order_service.checkout_sagas
+                WHERE state NOT IN ('COMPLETED', 'FAILED', 'RECONCILIATION_REQUIRED') AND lease_until < CURRENT_TIMESTAMP
+                ORDER BY lease_until
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING s.order_id
+            """, UUID.class, owner, leaseMs, limit);
+    }
+
+    public void logStep(UUID orderId, String step, String outcome, String detail, String instanceId) {
+        jdbcTemplate.update("""
+            INSERT INTO order_service.checkout_saga_steps (order_id, step, outcome, detail, instance_id)
+            VALUES (?, ?, ?, ?, ?)
+            """, orderId, step, outcome, detail, instanceId);
+    }
+
+    public long countInFlight() {
+        Long count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM order_service.checkout_sagas "
+            + "WHERE state NOT IN ('COMPLETED', 'FAILED', 'RECONCILIATION_REQUIRED')",
+            Long.class);
+        return count != null ? count : 0;
+    }
+
+    public static class SagaRecord {
+        private final UUID orderId;
+        private final CheckoutSagaState state;
+        private final String context;
+        private final String paymentTransactionId;
+        private final String failureReason;
+        private final int recoveryAttempts;
+        private final LocalDateTime createdAt;
+
+        public SagaRecord(UUID orderId, CheckoutSagaState state, String context, String paymentTransactionId,
+                          String failureReason, int recoveryAttempts, LocalDateTime createdAt) {
+            this.orderId = orderId;
+            this.state = state;
+            this.context = context;
+            this.paymentTransactionId = paymentTransactionId;
+            this.failureReason = failureReason;
+            this.recoveryAttempts = recoveryAttempts;
+            this.createdAt = createdAt;
+        }
+
+        public UUID getOrderId() {
+            return orderId;
+        }
+
+        public CheckoutSagaState getState() {
+            return state;
+        }
+
+        public String getContext() {
+            return context;
+        }
+
+        public String getPaymentTransactionId() {
+            return paymentTransactionId;
+        }
+
+        public String getFailureReason() {
+            return failureReason;
+        }
+
+        public int getRecoveryAttempts() {
+            return recoveryAttempts;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+    }
+}
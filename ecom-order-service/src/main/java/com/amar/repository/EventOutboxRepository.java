@@ -2,6 +2,7 @@ package com.amar.repository;
 
 import com.amar.entity.order.EventOutbox;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -32,4 +33,16 @@ public interface EventOutboxRepository extends JpaRepository<EventOutbox, UUID>
     
     @Query("SELECT COUNT(e) FROM EventOutbox e WHERE e.processed = false")
     Long countUnprocessedEvents();
+    
+    // Claim a bounded batch of due events for this relay; rows locked by another instance are skipped, not
+    // waited on, and failed rows are left alone until their backoff has passed
+    @Query(value = "SELECT * FROM order_service.event_outbox " +
+                   "WHERE processed = false AND (next_attempt_at IS NULL OR next_attempt_at <= :now) " +
+                   "ORDER BY created_at ASC LIMIT :batchSize FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<EventOutbox> claimUnprocessedBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+    
+    @Modifying
+    @Query("UPDATE EventOutbox e SET e.processed = true, e.processedAt = :processedAt WHERE e.id IN :ids")
+    int markProcessed(@Param("ids") List<UUID> ids, @Param("processedAt") LocalDateTime processedAt);
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.amar.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.amar.dto.OrderDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+
+/**
+ * JDBC access to order_service.orders_archive. Archiving is a single statement per chunk that copies
+ * orders (with items and status history) into the archive and deletes them from the hot tables, so
+ * an order is always in exactly one place and never passes through the persistence context.
+ */
+@Repository
+public class OrderArchiveRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper archiveReader;
+
+    @Autowired
+    public OrderArchiveRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Archived documents are to_jsonb() of the rows, so keys are the snake_case column names
+        this.archiveReader = objectMapper.copy()
+            .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Move up to {@code chunkSize} delivered/cancelled orders last updated before the cutoff.
+     * Returns the user ids of the archived orders (one entry per order).
+     */
+    public List<String> archiveChunk(LocalDateTime cutoff, int chunkSize) {
+        String sql = """
+            WITH candidates AS (
+                SELECT id FROM order_service.orders
+                WHERE status IN ('DELIVERED', 'CANCELLED') AND updated_at < ?
+                ORDER BY updated_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ), archived AS (
+                INSERT INTO order_service.orders_archive
+                    (id, order_number, user_id, status, total_amount, created_at, order_data, status_history)
+                SELECT o.id, o.order_number, o.user_id, o.status, o.total_amount, o.created_at,
+                       to_jsonb(o) || jsonb_build_object('items', COALESCE(
+                           (SELECT jsonb_agg(to_jsonb(i) ORDER BY i.created_at)
+                            FROM order_service.order_items i WHERE i.order_id = o.id), '[]'::jsonb)),
+                       COALESCE(
+                           (SELECT jsonb_agg(to_jsonb(h) ORDER BY h.created_at)
+                            FROM order_service.order_status_history h WHERE h.order_id = o.id), '[]'::jsonb)
+                FROM order_service.orders o
+                JOIN candidates c ON c.id = o.id
+                ON CONFLICT (id) DO NOTHING
+                RETURNING id
+            )
+            DELETE FROM order_service.orders o
+            USING archived a
+            WHERE o.id = a.id
+            RETURNING o.user_id
+            """;
+        // Only orders whose archive insert went through are deleted; a conflicting id stays in the hot
+        // tables. Items and history go with the order through ON DELETE CASCADE
+        return jdbcTemplate.queryForList(sql, String.class, cutoff, chunkSize);
+    }
+
+    public Optional<OrderDto> findById(UUID orderId) {
+        return jdbcTemplate.queryForList(
+                "SELECT order_data::text FROM order_service.orders_archive WHERE id = ?", String.class, orderId)
+            .stream().findFirst().map(this::readOrder);
+    }
+
+    public Optional<OrderDto> findByOrderNumber(String orderNumber) {
+        return jdbcTemplate.queryForList(
+                "SELECT order_data::text FROM order_service.orders_archive WHERE order_number = ?",
+                String.class, orderNumber)
+            .stream().findFirst().map(this::readOrder);
+    }
+
+    private OrderDto readOrder(String orderData) {
+        try {
+            return archiveReader.readValue(orderData, OrderDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable archived order document", e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.amar.repository;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Forward-only cursor over order_service.orders for bulk export. Rows are handed to the callback one
+ * at a time and never collected, so memory does not grow with the range.
+ *
+ * The PostgreSQL driver only streams with a fetch size when autocommit is off, so callers must run
+ * {@link #streamOrders} inside a (read-only) transaction; otherwise the whole result is buffered.
+ */
+@Repository
+public class OrderExportRepository {
+
+    /**
+     * Export columns, in output order
+     */
+    public static final String[] COLUMNS = {
+        "id", "order_number", "user_id", "status", "payment_status", "payment_method",
+        "subtotal", "tax_amount", "shipping_cost", "discount_amount", "total_amount",
+        "customer_email", "shipping_method", "shipping_country", "created_at", "updated_at",
+        "shipped_at", "delivered_at", "cancelled_at"
+    };
+
+    private final JdbcTemplate exportJdbcTemplate;
+
+    @Autowired
+    public OrderExportRepository(DataSource dataSource,
+                                 @Value("${order.export.fetch-size:1000}") int fetchSize) {
+        // Own template so the large fetch size does not apply to regular queries
+        this.exportJdbcTemplate = new JdbcTemplate(dataSource);
+        this.exportJdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Stream orders created in [from, to) in (created_at, id) order; served by idx_orders_created_id read backwards
+     */
+    public void streamOrders(LocalDateTime from, LocalDateTime to, RowCallbackHandler handler) {
+        exportJdbcTemplate.query(con -> {
+            var statement = con.prepareStatement("""
+                SELECT %s
+                FROM order_service.orders
+                WHERE created_at >= ? AND created_at < ?
+                ORDER BY created_at, id
+                """.formatted(String.join(", ", COLUMNS)),
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setObject(1, from);
+            statement.setObject(2, to);
+            return statement;
+        }, handler);
+    }
+}
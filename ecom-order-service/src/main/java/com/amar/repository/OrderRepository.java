@@ -2,6 +2,7 @@ package com.amar.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,6 +12,7 @@ import com.amar.entity.order.Order;
 import com.amar.entity.order.OrderStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -88,4 +90,86 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
                             @Param("customerEmail") String customerEmail,
                             @Param("orderNumber") String orderNumber,
                             Pageable pageable);
-}
\ No newline at end of file
+    
+    // =====================================================
+    // Listing read path (two-phase: page over ids, then fetch that page with items)
+    // =====================================================
+    
+    @Query(value = "SELECT o.id FROM Order o WHERE o.userId = :userId ORDER BY o.createdAt DESC, o.id DESC",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.userId = :userId")
+    Page<UUID> findIdsByUserId(@Param("userId") String userId, Pageable pageable);
+    
+    @Query(value = "SELECT o.id FROM Order o WHERE o.status = :status ORDER BY o.createdAt DESC, o.id DESC",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.status = :status")
+    Page<UUID> findIdsByStatus(@Param("status") OrderStatus status, Pageable pageable);
+    
+    @Query(value = "SELECT o.id FROM Order o WHERE " +
+           "(:userId IS NULL OR o.userId = :userId) AND " +
+           "(:status IS NULL OR o.status = :status) AND " +
+           "(:customerEmail IS NULL OR LOWER(o.customerEmail) LIKE LOWER(CONCAT('%', :customerEmail, '%'))) AND " +
+           "(:orderNumber IS NULL OR LOWER(o.orderNumber) LIKE LOWER(CONCAT('%', :orderNumber, '%'))) " +
+           "ORDER BY o.createdAt DESC, o.id DESC",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE " +
+           "(:userId IS NULL OR o.userId = :userId) AND " +
+           "(:status IS NULL OR o.status = :status) AND " +
+           "(:customerEmail IS NULL OR LOWER(o.customerEmail) LIKE LOWER(CONCAT('%', :customerEmail, '%'))) AND " +
+           "(:orderNumber IS NULL OR LOWER(o.orderNumber) LIKE LOWER(CONCAT('%', :orderNumber, '%')))")
+    Page<UUID> searchOrderIds(@Param("userId") String userId,
+                             @Param("status") OrderStatus status,
+                             @Param("customerEmail") String customerEmail,
+                             @Param("orderNumber") String orderNumber,
+                             Pageable pageable);
+    
+    // Fetch a page worth of orders and their items in a single query
+    @EntityGraph(attributePaths = "items")
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<UUID> ids);
+    
+    // =====================================================
+    // Keyset (seek) pagination on (created_at, id), newest first
+    // =====================================================
+    
+    @Query(value = "SELECT o.id FROM order_service.orders o WHERE o.user_id = :userId " +
+                   "AND (o.created_at, o.id) < (:createdAt, :id) " +
+                   "ORDER BY o.created_at DESC, o.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<UUID> findIdsByUserIdBefore(@Param("userId") String userId,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") UUID id,
+                                    @Param("limit") int limit);
+    
+    @Query(value = "SELECT o.id FROM order_service.orders o WHERE o.status = :status " +
+                   "AND (o.created_at, o.id) < (:createdAt, :id) " +
+                   "ORDER BY o.created_at DESC, o.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<UUID> findIdsByStatusBefore(@Param("status") String status,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") UUID id,
+                                    @Param("limit") int limit);
+    
+    @Query(value = "SELECT o.id FROM order_service.orders o WHERE " +
+                   "(CAST(:userId AS TEXT) IS NULL OR o.user_id = CAST(:userId AS TEXT)) AND " +
+                   "(CAST(:status AS TEXT) IS NULL OR o.status = CAST(:status AS TEXT)) AND " +
+                   "(CAST(:customerEmail AS TEXT) IS NULL OR LOWER(o.customer_email) LIKE LOWER(CONCAT('%', CAST(:customerEmail AS TEXT), '%'))) AND " +
+                   "(CAST(:orderNumber AS TEXT) IS NULL OR LOWER(o.order_number) LIKE LOWER(CONCAT('%', CAST(:orderNumber AS TEXT), '%'))) AND " +
+                   "(o.created_at, o.id) < (:createdAt, :id) " +
+                   "ORDER BY o.created_at DESC, o.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<UUID> searchOrderIdsBefore(@Param("userId") String userId,
+                                   @Param("status") String status,
+                                   @Param("customerEmail") String customerEmail,
+                                   @Param("orderNumber") String orderNumber,
+                                   @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") UUID id,
+                                   @Param("limit") int limit);
+    
+    @Query("SELECT COUNT(o) FROM Order o WHERE " +
+           "(:userId IS NULL OR o.userId = :userId) AND " +
+           "(:status IS NULL OR o.status = :status) AND " +
+           "(:customerEmail IS NULL OR LOWER(o.customerEmail) LIKE LOWER(CONCAT('%', :customerEmail, '%'))) AND " +
+           "(:orderNumber IS NULL OR LOWER(o.orderNumber) LIKE LOWER(CONCAT('%', :orderNumber, '%')))")
+    long countSearchOrders(@Param("userId") String userId,
+                          @Param("status") OrderStatus status,
+                          @Param("customerEmail") String customerEmail,
+                          @Param("orderNumber") String orderNumber);
+}
@@ -0,0 +1,101 @@
+package com.amar.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC-level retention operations on order_service.event_outbox.
+ * Works on ids and sizes only so old events are never loaded into the persistence context.
+ */
+@Repository
+public class OutboxRetentionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public OutboxRetentionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Delete up to {@code chunkSize} processed events older than the cutoff in one statement.
+     * Returns {deletedRows, deletedBytes}; bytes is the on-disk tuple size of the removed rows.
+     */
+    public long[] deleteProcessedChunk(LocalDateTime cutoff, int chunkSize) {
+        String sql = """
+            WITH doomed AS (
+                SELECT id FROM order_service.event_outbox
+                WHERE processed = true AND processed_at < ?
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ), deleted AS (
+                DELETE FROM order_service.event_outbox e
+                USING doomed
+                WHERE e.id = doomed.id
+                RETURNING pg_column_size(e.*) AS bytes
+            )
+            SELECT COUNT(*), COALESCE(SUM(bytes), 0) FROM deleted
+            """;
+
+        return jdbcTemplate.queryForObject(sql,
+            (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)},
+            cutoff, chunkSize);
+    }
+
+    public boolean isPartitioned() {
+        Boolean partitioned = jdbcTemplate.queryForObject("""
+            SELECT EXISTS (
+                SELECT 1 FROM pg_partitioned_table pt
+                JOIN pg_class c ON c.oid = pt.partrelid
+                JOIN pg_namespace n ON n.oid = c.relnamespace
+                WHERE n.nspname = 'order_service' AND c.relname = 'event_outbox'
+            )
+            """, Boolean.class);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    /**
+     * Make sure daily partitions exist from {@code from} through {@code daysAhead} days after today
+     */
+    public void ensurePartitions(LocalDate from, int daysAhead) {
+        jdbcTemplate.queryForObject("SELECT order_service.ensure_event_outbox_partitions(?, ?)",
+            Integer.class, from, daysAhead);
+    }
+
+    /**
+     * Daily partitions named event_outbox_pYYYYMMDD, oldest first
+     */
+    public List<String> findDailyPartitions() {
+        return jdbcTemplate.queryForList("""
+            SELECT c.relname FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            JOIN pg_namespace n ON n.oid = p.relnamespace
+            WHERE n.nspname = 'order_service' AND p.relname = 'event_outbox'
+              AND c.relname ~ '^event_outbox_p[0-9]{8}$'
+            ORDER BY c.relname
+            """, String.class);
+    }
+
+    public boolean hasPendingEvents(String partition) {
+        Boolean pending = jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM order_service." + partition + " WHERE processed = false)", Boolean.class);
+        return Boolean.TRUE.equals(pending);
+    }
+
+    /**
+     * Drop one partition and return {rows, bytes} it held
+     */
+    public long[] dropPartition(String partition) {
+        long[] reclaimed = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*), pg_total_relation_size('order_service." + partition + "') FROM order_service." + partition,
+            (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        jdbcTemplate.execute("DROP TABLE IF EXISTS order_service." + partition);
+        return reclaimed;
+    }
+}
@@ -0,0 +1,69 @@
+package com.amar.repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.amar.pricing.PricingRules;
+
+/**
+ * JDBC access to the pricing rule tables (tax_rates, shipping_rates, coupons)
+ */
+@Repository
+public class PricingRuleRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public PricingRuleRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Change marker: the counter in pricing_rules_version, bumped by a trigger on every statement
+     * that writes to one of the three rule tables
+     */
+    public String currentVersion() {
+        return jdbcTemplate.queryForObject(
+            "SELECT version::text FROM order_service.pricing_rules_version WHERE id = 1", String.class);
+    }
+
+    public List<PricingRules.TaxRate> findActiveTaxRates() {
+        return jdbcTemplate.query(
+            "SELECT country, state, rate FROM order_service.tax_rates WHERE active",
+            (rs, rowNum) -> new PricingRules.TaxRate(
+                rs.getString("country"), rs.getString("state"), rs.getBigDecimal("rate")));
+    }
+
+    public List<PricingRules.ShippingRate> findActiveShippingRates() {
+        return jdbcTemplate.query("""
+            SELECT shipping_method, base_cost, per_item_cost, free_over_subtotal
+            FROM order_service.shipping_rates WHERE active
+            """,
+            (rs, rowNum) -> new PricingRules.ShippingRate(
+                rs.getString("shipping_method"), rs.getBigDecimal("base_cost"),
+                rs.getBigDecimal("per_item_cost"), rs.getBigDecimal("free_over_subtotal")));
+    }
+
+    public List<PricingRules.Coupon> findActiveCoupons() {
+        return jdbcTemplate.query("""
+            SELECT code, discount_type, value, min_subtotal, max_discount, valid_from, valid_until
+            FROM order_service.coupons WHERE active
+            """,
+            (rs, rowNum) -> {
+                Timestamp validFrom = rs.getTimestamp("valid_from");
+                Timestamp validUntil = rs.getTimestamp("valid_until");
+                return new PricingRules.Coupon(
+                    rs.getString("code"),
+                    PricingRules.DiscountType.valueOf(rs.getString("discount_type")),
+                    rs.getBigDecimal("value"),
+                    rs.getBigDecimal("min_subtotal"),
+                    rs.getBigDecimal("max_discount"),
+                    validFrom != null ? validFrom.toLocalDateTime() : null,
+                    validUntil != null ? validUntil.toLocalDateTime() : null);
+            });
+    }
+}
@@ -0,0 +1,53 @@
+package com.amar.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.amar.kafka.PaymentEvent;
+
+/**
+ * Dedupe ledger for payment events, order_service.processed_payment_events
+ */
+@Repository
+public class ProcessedPaymentEventRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ProcessedPaymentEventRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Record the events in one statement and return the ids that were not seen before.
+     * Must run in the transaction that applies the events: a rollback releases the claims, and a
+     * concurrent consumer claiming the same id waits on the primary key until this one commits.
+     */
+    public Set<String> claim(List<PaymentEvent> events) {
+        if (events.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        StringBuilder sql = new StringBuilder(
+            "INSERT INTO order_service.processed_payment_events (event_id, event_type, payment_id, order_id) VALUES ");
+        List<Object> params = new ArrayList<>(events.size() * 4);
+        for (int i = 0; i < events.size(); i++) {
+            PaymentEvent event = events.get(i);
+            sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+            params.add(event.getEventId());
+            params.add(event.getEventType());
+            params.add(event.getPaymentId());
+            params.add(event.getOrderId());
+        }
+        sql.append(" ON CONFLICT (event_id) DO NOTHING RETURNING event_id");
+
+        return new HashSet<>(jdbcTemplate.queryForList(sql.toString(), String.class, params.toArray()));
+    }
+}
@@ -0,0 +1,129 @@
+package com.amar.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs checkout stages either inline or concurrently on the checkout executor,
+ * recording a per-stage timer ({@code order.checkout.stage}) tagged with stage and outcome
+ */
+@Component
+public class CheckoutPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutPipeline.class);
+    private static final String STAGE_TIMER = "order.checkout.stage";
+
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${order.checkout.stage-timeout-ms:20000}")
+    private long stageTimeoutMs;
+
+    @Autowired
+    public CheckoutPipeline(@Qualifier("checkoutExecutor") Executor executor,
+                            MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Run a stage on the calling thread
+     */
+    public <T> T run(String stage, Supplier<T> work) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            T result = work.get();
+            sample.stop(timer(stage, "success"));
+            return result;
+        } catch (RuntimeException ex) {
+            sample.stop(timer(stage, "failure"));
+            throw ex;
+        }
+    }
+
+    /**
+     * Start a stage on the checkout executor; combine with {@link #join(CompletableFuture)}
+     */
+    public <T> CompletableFuture<T> fork(String stage, Supplier<T> work) {
+        return CompletableFuture.supplyAsync(() -> run(stage, work), executor);
+    }
+
+    /**
+     * Wait for a forked stage, bounded by the stage timeout, rethrowing the stage failure as-is
+     */
+    public <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.get(stageTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            throw new RuntimeException("Checkout stage timed out after " + stageTimeoutMs + "ms");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for checkout stage", ex);
+        } catch (ExecutionException ex) {
+            throw unwrap(ex.getCause());
+        }
+    }
+
+    /**
+     * Run a fire-and-forget stage once the surrounding transaction commits,
+     * or immediately when no transaction is active
+     */
+    public void afterCommit(String stage, Runnable work) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(stage, work);
+                }
+            });
+        } else {
+            dispatch(stage, work);
+        }
+    }
+
+    private void dispatch(String stage, Runnable work) {
+        fork(stage, () -> {
+            work.run();
+            return null;
+        }).exceptionally(ex -> {
+            logger.error("Post-commit checkout stage {} failed", stage, ex);
+            return null;
+        });
+    }
+
+    private Timer timer(String stage, String outcome) {
+        return Timer.builder(STAGE_TIMER)
+                .description("Latency of individual checkout stages")
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private RuntimeException unwrap(Throwable cause) {
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new RuntimeException(cause);
+    }
+}
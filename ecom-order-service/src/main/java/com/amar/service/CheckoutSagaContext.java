@@ -0,0 +1,60 @@
+package com.amar.service;
+
+import java.util.List;
+
+import com.amar.client.InventoryServiceClient.StockReservationItem;
+import com.amar.client.PaymentServiceClient.PaymentRequest;
+
+/**
+ * Everything the remaining checkout steps need, stored with the saga so they can run after a restart.
+ * Card details are never part of it.
+ */
+public class CheckoutSagaContext {
+
+    private String userId;
+    private String cartId;
+    private List<StockReservationItem> reservationItems;
+    private PaymentRequest paymentRequest;
+
+    public CheckoutSagaContext() {}
+
+    public CheckoutSagaContext(String userId, String cartId, List<StockReservationItem> reservationItems,
+                               PaymentRequest paymentRequest) {
+        this.userId = userId;
+        this.cartId = cartId;
+        this.reservationItems = reservationItems;
+        this.paymentRequest = paymentRequest;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getCartId() {
+        return cartId;
+    }
+
+    public void setCartId(String cartId) {
+        this.cartId = cartId;
+    }
+
+    public List<StockReservationItem> getReservationItems() {
+        return reservationItems;
+    }
+
+    public void setReservationItems(List<StockReservationItem> reservationItems) {
+        this.reservationItems = reservationItems;
+    }
+
+    public PaymentRequest getPaymentRequest() {
+        return paymentRequest;
+    }
+
+    public void setPaymentRequest(PaymentRequest paymentRequest) {
+        this.paymentRequest = paymentRequest;
+    }
+}
@@ -0,0 +1,459 @@
+package com.amar.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amar.client.InventoryServiceClient;
+import com.amar.client.InventoryServiceClient.StockReservationResponse;
+import com.amar.client.PaymentServiceClient;
+import com.amar.client.PaymentServiceClient.PaymentResponse;
+import com.amar.client.PaymentServiceClient.RefundResponse;
+import com.amar.dto.OrderDto;
+import com.amar.dto.OrderStatusUpdate;
+import com.amar.repository.CheckoutSagaRepository;
+import com.amar.repository.CheckoutSagaRepository.SagaRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Drives the checkout saga: reserve inventory, take payment, confirm the order.
+ * Every transition is persisted in order_service.checkout_sagas (with a step log) before the next
+ * remote call, so a checkout interrupted by a crash is resumed or compensated by the recovery worker
+ * instead of leaking reservations or payments. Steps run on the checkout executor, never on the
+ * request thread.
+ */
+@Component
+public class CheckoutSagaOrchestrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutSagaOrchestrator.class);
+
+    private final CheckoutSagaRepository sagaRepository;
+    private final InventoryServiceClient inventoryServiceClient;
+    private final PaymentServiceClient paymentServiceClient;
+    private final CheckoutPipeline checkoutPipeline;
+    private final OrderService orderService;
+    private final OrderUpdateFanout updateFanout;
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Counter completed;
+    private final Counter failed;
+    private final Counter recovered;
+    private final Counter reconciliationRequired;
+
+    @Value("${order.checkout.saga.lease-ms:120000}")
+    private long leaseMs;
+
+    // How long to wait for a payment event before giving up on a payment whose outcome was lost
+    @Value("${order.checkout.saga.payment-grace-ms:600000}")
+    private long paymentGraceMs;
+
+    @Autowired
+    public CheckoutSagaOrchestrator(CheckoutSagaRepository sagaRepository,
+                                    InventoryServiceClient inventoryServiceClient,
+                                    PaymentServiceClient paymentServiceClient,
+                                    CheckoutPipeline checkoutPipeline,
+                                    @Lazy OrderService orderService,
+                                    OrderUpdateFanout updateFanout,
+                                    ObjectMapper objectMapper,
+                                    @Qualifier("checkoutExecutor") Executor executor,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.sagaRepository = sagaRepository;
+        this.inventoryServiceClient = inventoryServiceClient;
+        this.paymentServiceClient = paymentServiceClient;
+        this.checkoutPipeline = checkoutPipeline;
+        this.orderService = orderService;
+        this.updateFanout = updateFanout;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.completed = sagaCounter(meterRegistry, "completed");
+        this.failed = sagaCounter(meterRegistry, "failed");
+        this.recovered = sagaCounter(meterRegistry, "recovered");
+        this.reconciliationRequired = sagaCounter(meterRegistry, "reconciliation_required");
+        Gauge.builder("order.checkout.saga.in_flight", sagaRepository, CheckoutSagaRepository::countInFlight)
+            .description("Checkout sagas not yet completed or failed")
+            .register(meterRegistry);
+    }
+
+    // =====================================================
+    // Starting and driving
+    // =====================================================
+
+    /**
+     * Record a new saga; call inside the transaction that persists the PENDING order
+     */
+    public void register(UUID orderId, CheckoutSagaContext context) {
+        sagaRepository.create(orderId, writeContext(context), instanceId, leaseMs);
+        sagaRepository.logStep(orderId, "order-persisted", "SUCCEEDED", null, instanceId);
+    }
+
+    /**
+     * Run the remaining steps on the checkout executor. Completes with the confirmed order,
+     * or exceptionally with the failure reason once compensation has finished.
+     */
+    public CompletableFuture<OrderDto> start(UUID orderId) {
+        return CompletableFuture.supplyAsync(() -> drive(orderId, false), executor);
+    }
+
+    /**
+     * Continue a saga claimed by the recovery worker
+     */
+    public void recover(UUID orderId) {
+        try {
+            drive(orderId, true);
+            recovered.increment();
+        } catch (CheckoutPendingException e) {
+            logger.debug("Payment outcome for order {} still unknown, retrying on a later pass", orderId);
+        } catch (Exception e) {
+            logger.warn("Recovered checkout saga for order {} ended in failure: {}", orderId, e.getMessage());
+        }
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    private OrderDto drive(UUID orderId, boolean recovering) {
+        while (true) {
+            SagaRecord saga = sagaRepository.find(orderId)
+                .orElseThrow(() -> new IllegalStateException("No checkout saga for order: " + orderId));
+
+            switch (saga.getState()) {
+                case STARTED:
+                    if (recovering) {
+                        // The reservation may or may not have gone through - undo rather than risk reserving twice
+                        fail(saga, "Checkout interrupted before inventory reservation completed");
+                    } else {
+                        reserveInventory(saga);
+                    }
+                    break;
+                case INVENTORY_RESERVED:
+                    requestPayment(saga);
+                    break;
+                case PAYMENT_PENDING:
+                    if (!reconcilePayment(saga)) {
+                        // Outcome still unknown; leave it for a later recovery pass
+                        sagaRepository.releaseLease(orderId, instanceId);
+                        throw new CheckoutPendingException(orderId);
+                    }
+                    break;
+                case PAYMENT_COMPLETED:
+                    confirmOrder(saga);
+                    break;
+                case COMPENSATING:
+                    compensate(saga);
+                    break;
+                case COMPLETED:
+                    return orderService.getOrderById(orderId)
+                        .orElseThrow(() -> new IllegalStateException("Order not found: " + orderId));
+                case FAILED:
+                    throw new CheckoutFailedException("Failed to create order: " + saga.getFailureReason());
+                case RECONCILIATION_REQUIRED:
+                    throw new CheckoutFailedException("Failed to create order: " + saga.getFailureReason()
+                                                      + " - held for manual reconciliation");
+                default:
+                    throw new IllegalStateException("Unknown checkout saga state: " + saga.getState());
+            }
+        }
+    }
+
+    // =====================================================
+    // Steps
+    // =====================================================
+
+    private void reserveInventory(SagaRecord saga) {
+        CheckoutSagaContext context = readContext(saga);
+        UUID orderId = saga.getOrderId();
+        logStep(orderId, "inventory-reservation", "STARTED", null);
+
+        StockReservationResponse response;
+        try {
+            response = checkoutPipeline.run("inventory-reservation",
+                () -> inventoryServiceClient.reserveStock(orderId, context.getReservationItems(), context.getUserId()));
+        } catch (Exception e) {
+            fail(saga, "Failed to reserve inventory: " + e.getMessage());
+            return;
+        }
+
+        if (!response.isSuccess()) {
+            fail(saga, "Failed to reserve inventory: " + response.getMessage());
+            return;
+        }
+        logStep(orderId, "inventory-reservation", "SUCCEEDED", null);
+        advance(saga, CheckoutSagaState.INVENTORY_RESERVED, null, null);
+        logger.info("Inventory reserved successfully for order: {}", orderId);
+    }
+
+    private void requestPayment(SagaRecord saga) {
+        CheckoutSagaContext context = readContext(saga);
+        UUID orderId = saga.getOrderId();
+
+        // Written before the call: a crash from here on leaves PAYMENT_PENDING for reconciliation
+        advance(saga, CheckoutSagaState.PAYMENT_PENDING, null, null);
+        logStep(orderId, "payment", "STARTED", null);
+
+        PaymentResponse response;
+        try {
+            response = checkoutPipeline.run("payment", () -> paymentServiceClient.processPayment(context.getPaymentRequest()));
+        } catch (Exception e) {
+            awaitPaymentOutcome(orderId, e.getMessage());
+            return;
+        }
+
+        if (response.isOutcomeUnknown()) {
+            awaitPaymentOutcome(orderId, response.getMessage());
+            return;
+        }
+        if (!response.isSuccess()) {
+            // An actual reply from payment-service: the payment was declined and nothing was captured
+            failFrom(orderId, CheckoutSagaState.PAYMENT_PENDING, "Payment failed: " + response.getMessage());
+            return;
+        }
+        logStep(orderId, "payment", "SUCCEEDED", response.getTransactionId());
+        transition(orderId, CheckoutSagaState.PAYMENT_PENDING, CheckoutSagaState.PAYMENT_COMPLETED,
+                   response.getTransactionId(), null);
+        logger.info("Payment processed successfully for order: {} - Transaction ID: {}",
+                   orderId, response.getTransactionId());
+    }
+
+    /**
+     * The payment call failed without a reply, so the charge may still have gone through. Leave the
+     * saga in PAYMENT_PENDING and hand it to the recovery worker, which settles it in reconcilePayment
+     * once the payment events arrive (or the grace period runs out).
+     */
+    private void awaitPaymentOutcome(UUID orderId, String detail) {
+        logger.warn("Payment outcome for order {} unknown ({}), leaving it for reconciliation", orderId, detail);
+        logStep(orderId, "payment", "UNKNOWN", detail);
+        sagaRepository.releaseLease(orderId, instanceId);
+        throw new CheckoutPendingException(orderId);
+    }
+
+    /**
+     * The payment call's result was lost; use what the payment events have recorded on the order.
+     * If nothing has arrived within the grace period the charge may still have been captured, and
+     * without a transaction id it cannot be refunded: the saga stops in RECONCILIATION_REQUIRED with
+     * the order left PENDING rather than cancelling an order that may have been paid for.
+     */
+    private boolean reconcilePayment(SagaRecord saga) {
+        UUID orderId = saga.getOrderId();
+        Optional<OrderDto> order = orderService.getOrderById(orderId);
+        String paymentStatus = order.map(OrderDto::getPaymentStatus).orElse(null);
+
+        if ("PAID".equals(paymentStatus)) {
+            logStep(orderId, "payment", "RECONCILED", "paid");
+            transition(orderId, CheckoutSagaState.PAYMENT_PENDING, CheckoutSagaState.PAYMENT_COMPLETED,
+                       order.get().getPaymentTransactionId(), null);
+            return true;
+        }
+        if ("FAILED".equals(paymentStatus) || order.isEmpty()) {
+            failFrom(orderId, CheckoutSagaState.PAYMENT_PENDING, "Payment failed");
+            return true;
+        }
+        if (saga.getCreatedAt().plus(Duration.ofMillis(paymentGraceMs)).isBefore(LocalDateTime.now())) {
+            String reason = "Payment outcome unknown after " + Duration.ofMillis(paymentGraceMs).toMinutes() + " minutes";
+            logger.error("Checkout saga for order {}: {}; order left PENDING for manual reconciliation", orderId, reason);
+            logStep(orderId, "payment", "UNKNOWN", reason);
+            transition(orderId, CheckoutSagaState.PAYMENT_PENDING, CheckoutSagaState.RECONCILIATION_REQUIRED, null, reason);
+            reconciliationRequired.increment();
+            return true;
+        }
+        return false;
+    }
+
+    private void confirmOrder(SagaRecord saga) {
+        CheckoutSagaContext context = readContext(saga);
+        UUID orderId = saga.getOrderId();
+        try {
+            OrderDto confirmed = checkoutPipeline.run("confirm-order", () -> transactionTemplate.execute(status -> {
+                OrderDto order = orderService.confirmCheckout(orderId, saga.getPaymentTransactionId(),
+                                                              context.getCartId(), context.getUserId());
+                // Same transaction as the order update: the saga can never say COMPLETED for an unconfirmed order
+                transition(orderId, CheckoutSagaState.PAYMENT_COMPLETED, CheckoutSagaState.COMPLETED, null, null);
+                logStep(orderId, "confirm-order", "SUCCEEDED", null);
+                return order;
+            }));
+            completed.increment();
+            publishOutcome(orderId, confirmed.getOrderNumber(), context.getUserId(), "CONFIRMED",
+                           confirmed.getPaymentStatus(), "Order confirmed");
+        } catch (SagaOwnershipException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Failed to confirm order {} after payment", orderId, e);
+            fail(saga, "Order confirmation failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Undo whatever may have happened: refund a captured payment, release the reservation, cancel the order.
+     * Every action tolerates having been done already, so a crash mid-compensation is simply repeated.
+     * A charge that cannot be refunded stops the saga in RECONCILIATION_REQUIRED with the reservation
+     * and the order untouched, so a paid order is never cancelled behind the customer's back.
+     */
+    private void compensate(SagaRecord saga) {
+        UUID orderId = saga.getOrderId();
+
+        if (saga.getPaymentTransactionId() != null) {
+            CheckoutSagaContext context = readContext(saga);
+            RefundResponse refund = paymentServiceClient.refundPayment(orderId, saga.getPaymentTransactionId(),
+                context.getPaymentRequest().getAmount(), "Checkout failed: " + saga.getFailureReason());
+            if (!refund.isSuccess()) {
+                String reason = "Refund of payment " + saga.getPaymentTransactionId() + " failed: " + refund.getMessage();
+                logger.error("Checkout saga for order {}: {}; held for manual reconciliation", orderId, reason);
+                logStep(orderId, "refund", "FAILED", refund.getMessage());
+                transition(orderId, CheckoutSagaState.COMPENSATING, CheckoutSagaState.RECONCILIATION_REQUIRED, null, reason);
+                reconciliationRequired.increment();
+                throw new CheckoutFailedException("Failed to create order: " + saga.getFailureReason()
+                                                  + " - payment held for manual reconciliation");
+            }
+            logStep(orderId, "refund", "SUCCEEDED", refund.getMessage());
+        }
+
+        logger.warn("Rolling back inventory reservation for failed order: {}", orderId);
+        boolean released = inventoryServiceClient.releaseReservation(orderId);
+        logStep(orderId, "inventory-release", released ? "SUCCEEDED" : "FAILED", null);
+
+        if (!orderService.markOrderFailed(orderId, saga.getFailureReason())) {
+            // Stay in COMPENSATING; the recovery worker repeats the compensation
+            logStep(orderId, "order-cancelled", "FAILED", saga.getFailureReason());
+            sagaRepository.releaseLease(orderId, instanceId);
+            throw new IllegalStateException("Could not cancel order " + orderId + ", compensation will be retried");
+        }
+        logStep(orderId, "order-cancelled", "SUCCEEDED", saga.getFailureReason());
+
+        transition(orderId, CheckoutSagaState.COMPENSATING, CheckoutSagaState.FAILED, null, null);
+        failed.increment();
+        publishOutcome(orderId, null, readContext(saga).getUserId(), "CANCELLED",
+                       saga.getPaymentTransactionId() != null ? "REFUNDED" : "FAILED", saga.getFailureReason());
+    }
+
+    // =====================================================
+    // Helper Methods
+    // =====================================================
+
+    private void fail(SagaRecord saga, String reason) {
+        failFrom(saga.getOrderId(), saga.getState(), reason);
+    }
+
+    private void failFrom(UUID orderId, CheckoutSagaState from, String reason) {
+        logger.error("Checkout saga for order {} failed in {}: {}", orderId, from, reason);
+        logStep(orderId, from.name().toLowerCase(), "FAILED", reason);
+        transition(orderId, from, CheckoutSagaState.COMPENSATING, null, reason);
+    }
+
+    private void advance(SagaRecord saga, CheckoutSagaState to, String paymentTransactionId, String failureReason) {
+        transition(saga.getOrderId(), saga.getState(), to, paymentTransactionId, failureReason);
+    }
+
+    private void transition(UUID orderId, CheckoutSagaState from, CheckoutSagaState to,
+                            String paymentTransactionId, String failureReason) {
+        if (!sagaRepository.transition(orderId, from, to, instanceId, leaseMs, paymentTransactionId, failureReason)) {
+            throw new SagaOwnershipException("Checkout saga for order " + orderId + " is no longer owned by "
+                                             + instanceId + " in state " + from);
+        }
+    }
+
+    /**
+     * Push the checkout outcome to the order and user topics; callers that got a 202 learn the result here.
+     * Clients subscribing late still get the current status from the subscription handler.
+     */
+    private void publishOutcome(UUID orderId, String orderNumber, String userId, String status,
+                                String paymentStatus, String reason) {
+        try {
+            OrderStatusUpdate update = new OrderStatusUpdate(orderId, orderNumber, userId,
+                                                             "PENDING", status, reason);
+            update.setPaymentStatus(paymentStatus);
+            updateFanout.publish(update);
+        } catch (Exception e) {
+            logger.warn("Failed to push checkout outcome for order {}: {}", orderId, e.getMessage());
+        }
+    }
+
+    private void logStep(UUID orderId, String step, String outcome, String detail) {
+        sagaRepository.logStep(orderId, step, outcome, detail, instanceId);
+    }
+
+    private String writeContext(CheckoutSagaContext context) {
+        try {
+            return objectMapper.writeValueAsString(context);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize checkout saga context", e);
+        }
+    }
+
+    private CheckoutSagaContext readContext(SagaRecord saga) {
+        try {
+            return objectMapper.readValue(saga.getContext(), CheckoutSagaContext.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable checkout saga context for order: " + saga.getOrderId(), e);
+        }
+    }
+
+    private static Counter sagaCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("order.checkout.saga")
+            .description("Checkout sagas by final outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    /**
+     * The checkout ended without a confirmed order; the message says why
+     */
+    public static class CheckoutFailedException extends RuntimeException {
+        public CheckoutFailedException(String message) {
+            super(message);
+        }
+
+        public CheckoutFailedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * The checkout is still running, or waiting for the payment outcome, when the caller stops
+     * waiting; the saga finishes in the background and its outcome is published like an accepted order's
+     */
+    public static class CheckoutPendingException extends RuntimeException {
+        private final UUID orderId;
+
+        public CheckoutPendingException(UUID orderId) {
+            super("Checkout for order " + orderId + " is still in progress");
+            this.orderId = orderId;
+        }
+
+        public UUID getOrderId() {
+            return orderId;
+        }
+    }
+
+    /**
+     * Another instance took over the saga (our lease expired); stop driving it
+     */
+    static class SagaOwnershipException extends IllegalStateException {
+        SagaOwnershipException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.amar.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.amar.repository.CheckoutSagaRepository;
+
+/**
+ * Picks up checkout sagas whose lease ran out - the instance driving them crashed, was redeployed,
+ * or is waiting on a payment outcome - and resumes or compensates them. Claims use SKIP LOCKED,
+ * so every instance can run the worker without two of them taking the same saga.
+ */
+@Service
+public class CheckoutSagaRecoveryWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutSagaRecoveryWorker.class);
+
+    private final CheckoutSagaRepository sagaRepository;
+    private final CheckoutSagaOrchestrator orchestrator;
+
+    @Value("${order.checkout.saga.lease-ms:120000}")
+    private long leaseMs;
+
+    @Value("${order.checkout.saga.recovery.batch-size:20}")
+    private int batchSize;
+
+    @Autowired
+    public CheckoutSagaRecoveryWorker(CheckoutSagaRepository sagaRepository, CheckoutSagaOrchestrator orchestrator) {
+        this.sagaRepository = sagaRepository;
+        this.orchestrator = orchestrator;
+    }
+
+    @Scheduled(fixedDelayString = "${order.checkout.saga.recovery.interval-ms:30000}")
+    public void recoverExpiredSagas() {
+        try {
+            List<UUID> claimed = sagaRepository.claimExpired(orchestrator.getInstanceId(), leaseMs, batchSize);
+            if (claimed.isEmpty()) {
+                return;
+            }
+            logger.info("Recovering {} interrupted checkout sagas", claimed.size());
+            claimed.forEach(orchestrator::recover);
+        } catch (Exception e) {
+            logger.error("Checkout saga recovery run failed", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.amar.service;
+
+/**
+ * Checkout saga states. Each non-terminal state names the last step known to have finished,
+ * except PAYMENT_PENDING which is written before the payment call so a crash mid-call is detectable.
+ */
+public enum CheckoutSagaState {
+    STARTED,              // order persisted as PENDING, inventory not yet (known to be) reserved
+    INVENTORY_RESERVED,
+    PAYMENT_PENDING,      // payment requested, outcome unknown
+    PAYMENT_COMPLETED,
+    COMPLETED,
+    COMPENSATING,
+    FAILED,
+    RECONCILIATION_REQUIRED;  // payment outcome never learned, or refund failed; order left for manual follow-up
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED || this == RECONCILIATION_REQUIRED;
+    }
+}
@@ -7,16 +7,31 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @Transactional
@@ -28,14 +43,68 @@ public class EventOutboxService {
     private final EventOutboxRepository outboxRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final OutboxDispatcher outboxDispatcher;
+    private final JdbcTemplate jdbcTemplate;
+    
+    private final AtomicLong relayLagMillis = new AtomicLong();
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    
+    @Value("${order.outbox.relay.batch-size:200}")
+    private int batchSize;
+    
+    @Value("${order.outbox.relay.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+    
+    @Value("${order.outbox.relay.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+    
+    @Value("${order.outbox.relay.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+    
+    @Value("${order.outbox.relay.max-retry-backoff-ms:300000}")
+    private long maxRetryBackoffMs;
+    
+    @Value("${order.outbox.notify.enabled:true}")
+    private boolean notifyEnabled;
+    
+    @Value("${order.outbox.notify.channel:order_outbox}")
+    private String notifyChannel;
     
     @Autowired
     public EventOutboxService(EventOutboxRepository outboxRepository, 
                              KafkaTemplate<String, Object> kafkaTemplate,
-                             ObjectMapper objectMapper) {
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             OutboxDispatcher outboxDispatcher,
+                             JdbcTemplate jdbcTemplate) {
         this.outboxRepository = outboxRepository;
         this.kafkaTemplate = kafkaTemplate;
         this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.outboxDispatcher = outboxDispatcher;
+        this.jdbcTemplate = jdbcTemplate;
+        
+        Gauge.builder("outbox.relay.lag", relayLagMillis, lag -> lag.get() / 1000.0)
+            .description("Age in seconds of the oldest event in the last claimed outbox batch")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        this.publishedCounter = Counter.builder("outbox.relay.events")
+            .description("Outbox events relayed to Kafka")
+            .tag("outcome", "published")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.relay.events")
+            .description("Outbox events relayed to Kafka")
+            .tag("outcome", "failed")
+            .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+            .description("Time to claim, send and mark one outbox batch")
+            .register(meterRegistry);
     }
     
     /**
@@ -58,6 +127,8 @@ public class EventOutboxService {
             outboxRepository.save(outboxEvent);
             logger.debug("Saved event to outbox: {} for aggregate: {}", eventType, aggregateId);
             
+            signalNewEvents();
+            
         } catch (JsonProcessingException e) {
             logger.error("Failed to serialize event data for outbox: {} - {}", eventType, e.getMessage());
             throw new RuntimeException("Failed to save event to outbox", e);
@@ -65,112 +136,135 @@ public class EventOutboxService {
     }
     
     /**
-     * Process unprocessed events from outbox - scheduled task
+     * Wake the relay in this instance after commit and, via NOTIFY, in every other instance.
+     * NOTIFY is transactional in PostgreSQL: it is only delivered if the outbox insert commits,
+     * and repeated notifications within one transaction collapse into one. A failing pg_notify aborts
+     * the surrounding transaction, so it is not caught here: the outbox insert could not commit anyway.
      */
-    @Scheduled(fixedDelay = 5000) // Every 5 seconds
-    @Transactional
-    public void processOutboxEvents() {
-        List<EventOutbox> unprocessedEvents = outboxRepository.findUnprocessedEvents();
-        
-        if (unprocessedEvents.isEmpty()) {
-            return;
-        }
-        
-        logger.debug("Processing {} unprocessed outbox events", unprocessedEvents.size());
-        
-        for (EventOutbox event : unprocessedEvents) {
-            try {
-                publishEventToKafka(event);
-            } catch (Exception e) {
-                logger.error("Failed to publish event {} to Kafka: {}", event.getId(), e.getMessage());
-                handleFailedEvent(event, e.getMessage());
-            }
+    private void signalNewEvents() {
+        outboxDispatcher.wakeAfterCommit();
+        if (notifyEnabled) {
+            jdbcTemplate.queryForList("SELECT pg_notify(?, '')", notifyChannel);
         }
     }
     
     /**
-     * Process retry-able failed events
+     * Relay unprocessed events from outbox - scheduled task.
+     * Normally woken right after commit by {@link OutboxDispatcher}; the poll is only a safety net.
+     * Drains bounded batches until the outbox is empty or the per-run batch limit is reached;
+     * each batch is claimed, sent and marked in its own short transaction.
      */
-    @Scheduled(fixedDelay = 30000) // Every 30 seconds
-    @Transactional
-    public void processFailedEvents() {
-        List<EventOutbox> retryableEvents = outboxRepository.findEventsForRetry(MAX_RETRY_COUNT);
-        
-        if (retryableEvents.isEmpty()) {
-            return;
-        }
-        
-        logger.debug("Retrying {} failed outbox events", retryableEvents.size());
-        
-        for (EventOutbox event : retryableEvents) {
-            try {
-                publishEventToKafka(event);
-            } catch (Exception e) {
-                logger.warn("Retry failed for event {}: {}", event.getId(), e.getMessage());
-                handleFailedEvent(event, e.getMessage());
+    @Scheduled(fixedDelayString = "${order.outbox.relay.poll-interval-ms:30000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void processOutboxEvents() {
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer claimed = transactionTemplate.execute(status -> relayBatch());
+            if (claimed == null || claimed < batchSize) {
+                return;
             }
         }
     }
     
     /**
-     * Cleanup old processed events
+     * Claim one batch with SKIP LOCKED so several instances can relay concurrently, send every record
+     * without waiting in between, then mark the successful ones processed with a single UPDATE
      */
-    @Scheduled(fixedDelay = 3600000) // Every hour
-    @Transactional
-    public void cleanupOldEvents() {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(7); // Keep events for 7 days
-        List<EventOutbox> oldEvents = outboxRepository.findOldProcessedEvents(cutoffDate);
+    private int relayBatch() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<EventOutbox> events = outboxRepository.claimUnprocessedBatch(LocalDateTime.now(), batchSize);
         
-        if (!oldEvents.isEmpty()) {
-            outboxRepository.deleteAll(oldEvents);
-            logger.info("Cleaned up {} old processed outbox events", oldEvents.size());
+        if (events.isEmpty()) {
+            relayLagMillis.set(0);
+            return 0;
         }
-    }
-    
-    private void publishEventToKafka(EventOutbox event) throws JsonProcessingException {
-        // Deserialize the event data
-        @SuppressWarnings("unchecked")
-        Map<String, Object> eventData = objectMapper.readValue(event.getEventData(), Map.class);
         
-        CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(
-            event.getTopic(), 
-            event.getKafkaKey(), 
-            eventData
-        );
+        relayLagMillis.set(Duration.between(events.get(0).getCreatedAt(), LocalDateTime.now()).toMillis());
+        logger.debug("Relaying batch of {} outbox events", events.size());
+        
+        List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(events.size());
+        for (EventOutbox event : events) {
+            futures.add(sendEvent(event));
+        }
+        
+        // Wait for the whole batch once rather than per record
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Outbox batch completed with failures: {}", e.getMessage());
+        }
         
-        future.whenComplete((result, exception) -> {
-            if (exception == null) {
-                // Mark as processed
-                event.markAsProcessed();
-                outboxRepository.save(event);
-                
-                logger.debug("Successfully published event {} to Kafka: {}", 
-                           event.getId(), event.getEventType());
+        List<UUID> publishedIds = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            EventOutbox event = events.get(i);
+            CompletableFuture<SendResult<String, Object>> future = futures.get(i);
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                publishedIds.add(event.getId());
             } else {
-                logger.error("Failed to publish event {} to Kafka: {}", 
-                           event.getId(), exception.getMessage());
-                handleFailedEvent(event, exception.getMessage());
+                String error = failureMessage(future);
+                logger.error("Failed to publish event {} to Kafka: {}", event.getId(), error);
+                handleFailedEvent(event, error);
             }
-        });
+        }
         
-        // Wait for completion to handle the result synchronously
+        if (!publishedIds.isEmpty()) {
+            outboxRepository.markProcessed(publishedIds, LocalDateTime.now());
+        }
+        
+        publishedCounter.increment(publishedIds.size());
+        failedCounter.increment(events.size() - publishedIds.size());
+        sample.stop(batchTimer);
+        return events.size();
+    }
+    
+    private CompletableFuture<SendResult<String, Object>> sendEvent(EventOutbox event) {
         try {
-            future.get(); // This will throw exception if publishing failed
+            // Deserialize the event data
+            @SuppressWarnings("unchecked")
+            Map<String, Object> eventData = objectMapper.readValue(event.getEventData(), Map.class);
+            return kafkaTemplate.send(event.getTopic(), event.getKafkaKey(), eventData);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to publish event to Kafka", e);
+            return CompletableFuture.failedFuture(e);
         }
     }
     
+    private String failureMessage(CompletableFuture<?> future) {
+        if (!future.isDone()) {
+            future.cancel(false);
+            return "Timed out waiting for Kafka acknowledgement";
+        }
+        try {
+            future.join();
+            return "Unknown error";
+        } catch (Exception e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return cause.getMessage();
+        }
+    }
+    
+    /**
+     * Push the next attempt out with exponential backoff so a failed row is not re-claimed by the next
+     * batch or wake-up. Events are retried until they go through, as before; past MAX_RETRY_COUNT the
+     * retries continue at the capped interval and each failure is logged as an error.
+     */
     private void handleFailedEvent(EventOutbox event, String errorMessage) {
         event.incrementRetryCount(errorMessage);
+        event.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(retryBackoff(event.getRetryCount()))));
         outboxRepository.save(event);
         
         if (event.getRetryCount() >= MAX_RETRY_COUNT) {
-            logger.error("Event {} exceeded max retry count ({}). Manual intervention required.", 
-                       event.getId(), MAX_RETRY_COUNT);
+            logger.error("Event {} failed {} times, next attempt at {}. Manual intervention may be required.", 
+                       event.getId(), event.getRetryCount(), event.getNextAttemptAt());
         }
     }
     
+    private long retryBackoff(int retryCount) {
+        int exponent = Math.min(retryCount - 1, 20);
+        return Math.min(retryBackoffMs << exponent, maxRetryBackoffMs);
+    }
+    
     /**
      * Get outbox statistics
      */
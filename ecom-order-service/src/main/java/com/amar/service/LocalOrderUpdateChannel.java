@@ -0,0 +1,30 @@
+package com.amar.service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.amar.dto.OrderStatusUpdate;
+
+/**
+ * Single-instance channel: updates are only delivered to clients connected to this instance
+ */
+@Component
+@ConditionalOnProperty(name = "order.websocket.fanout.mode", havingValue = "local")
+public class LocalOrderUpdateChannel implements OrderUpdateChannel {
+
+    private final List<BiConsumer<OrderStatusUpdate, byte[]>> handlers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(OrderStatusUpdate update, byte[] payload) {
+        handlers.forEach(handler -> handler.accept(update, payload));
+    }
+
+    @Override
+    public void subscribe(BiConsumer<OrderStatusUpdate, byte[]> handler) {
+        handlers.add(handler);
+    }
+}
@@ -0,0 +1,86 @@
+package com.amar.service;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.amar.repository.OrderArchiveRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Moves delivered and cancelled orders past the archive age out of the hot order tables into
+ * order_service.orders_archive, in bounded chunks of one statement each. Single-order lookups
+ * fall back to the archive; history and admin listings only cover live orders.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    private final OrderArchiveRepository archiveRepository;
+    private final OrderSummaryCache orderSummaryCache;
+    private final Counter ordersArchived;
+
+    @Value("${order.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.archive.after-days:365}")
+    private int afterDays;
+
+    @Value("${order.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${order.archive.max-chunks-per-run:100}")
+    private int maxChunksPerRun;
+
+    @Autowired
+    public OrderArchiveService(OrderArchiveRepository archiveRepository,
+                               OrderSummaryCache orderSummaryCache,
+                               MeterRegistry meterRegistry) {
+        this.archiveRepository = archiveRepository;
+        this.orderSummaryCache = orderSummaryCache;
+        this.ordersArchived = Counter.builder("order.archive.orders")
+            .description("Orders moved from the hot tables to the archive")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${order.archive.interval-ms:3600000}")
+    public void archiveCompletedOrders() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+            long archived = 0;
+
+            for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+                List<String> userIds = archiveRepository.archiveChunk(cutoff, chunkSize);
+                archived += userIds.size();
+                ordersArchived.increment(userIds.size());
+
+                // Cached recent-order lists may still hold the archived orders
+                Set<String> affectedUsers = new HashSet<>(userIds);
+                affectedUsers.forEach(orderSummaryCache::evict);
+
+                if (userIds.size() < chunkSize) {
+                    break;
+                }
+            }
+            if (archived > 0) {
+                logger.info("Archived {} orders completed before {}", archived, cutoff);
+            }
+        } catch (Exception e) {
+            logger.error("Order archive run failed", e);
+        }
+    }
+}
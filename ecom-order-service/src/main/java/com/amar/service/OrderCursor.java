@@ -0,0 +1,53 @@
+package com.amar.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset cursor over (created_at, id), ordered newest first.
+ * Encoded as URL-safe base64 of "createdAt|id".
+ */
+public final class OrderCursor {
+
+    // Sorts after every real order, so the first page uses the same query as later pages
+    static final OrderCursor START = new OrderCursor(
+            LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+            UUID.fromString("ffffffff-ffff-ffff-ffff-ffffffffffff"));
+
+    private final LocalDateTime createdAt;
+    private final UUID id;
+
+    OrderCursor(LocalDateTime createdAt, UUID id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static OrderCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                                   UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid order cursor: " + cursor);
+        }
+    }
+
+    public static String encode(LocalDateTime createdAt, UUID id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
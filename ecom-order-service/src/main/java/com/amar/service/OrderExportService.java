@@ -0,0 +1,255 @@
+package com.amar.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amar.repository.OrderExportRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Writes orders in a created_at range straight from a JDBC cursor to the response stream, one row
+ * at a time, so memory use is the same for a day of orders as for a year.
+ */
+@Service
+public class OrderExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderExportService.class);
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    private final OrderExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public OrderExportService(OrderExportRepository exportRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
+        // The PostgreSQL driver honours the fetch size only with autocommit off
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Stream orders created in [from, to) to {@code out}. Returns the number of rows written.
+     * The stream is flushed but not closed.
+     */
+    public long export(LocalDateTime from, LocalDateTime to, Format format, OutputStream out) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Export range is empty: from must be before to");
+        }
+        long startNanos = System.nanoTime();
+        Counter rows = exportedRowsCounter(meterRegistry, format);
+
+        Long written = readOnlyTransaction.execute(status -> {
+            try {
+                RowWriter writer = format == Format.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+                long[] count = {0};
+                writer.begin();
+                // RowCallbackHandler cannot throw IOException; a client disconnect aborts the cursor
+                exportRepository.streamOrders(from, to, rs -> {
+                    try {
+                        writer.write(rs);
+                        count[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.finish();
+                return count[0];
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        long count = written != null ? written : 0;
+        rows.increment(count);
+        logger.info("Exported {} orders created in [{}, {}) as {} in {} ms",
+                count, from, to, format, (System.nanoTime() - startNanos) / 1_000_000);
+        return count;
+    }
+
+    private static Counter exportedRowsCounter(MeterRegistry meterRegistry, Format format) {
+        return Counter.builder("order.export.rows")
+            .description("Order rows written by the streaming export")
+            .tag("format", format.name().toLowerCase(Locale.ROOT))
+            .register(meterRegistry);
+    }
+
+    // =====================================================
+    // Row Writers
+    // =====================================================
+
+    private interface RowWriter {
+        void begin() throws IOException;
+
+        void write(ResultSet rs) throws IOException, SQLException;
+
+        void finish() throws IOException;
+    }
+
+    /**
+     * Column values as export-friendly objects: numerics as BigDecimal, timestamps as ISO-8601.
+     * Order timestamps are TIMESTAMP WITHOUT TIME ZONE holding the application's local time
+     * (LocalDateTime.now()); read them as such and attach this JVM's offset, rather than letting
+     * the driver label them UTC
+     */
+    private static Object columnValue(ResultSet rs, int column) throws SQLException {
+        return switch (rs.getMetaData().getColumnType(column)) {
+            case Types.NUMERIC, Types.DECIMAL -> rs.getBigDecimal(column);
+            case Types.TIMESTAMP -> {
+                LocalDateTime local = rs.getObject(column, LocalDateTime.class);
+                yield local != null ? local.atZone(ZoneId.systemDefault()).toOffsetDateTime() : null;
+            }
+            case Types.TIMESTAMP_WITH_TIMEZONE -> rs.getObject(column, OffsetDateTime.class);
+            default -> rs.getString(column);
+        };
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            writer.write(String.join(",", OrderExportRepository.COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws IOException, SQLException {
+            for (int i = 1; i <= OrderExportRepository.COLUMNS.length; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object value = columnValue(rs, i);
+                if (value instanceof BigDecimal decimal) {
+                    writer.write(decimal.toPlainString());
+                } else if (value != null) {
+                    writeField(value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        // RFC 4180: quote fields containing separators, quotes or line breaks; double embedded quotes
+        private void writeField(String field) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < field.length() && !quote; i++) {
+                char c = field.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(field);
+                return;
+            }
+            writer.write('"');
+            writer.write(field.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            // One object per line, and the response stream stays open for the container
+            this.generator.setRootValueSeparator(null);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void write(ResultSet rs) throws IOException, SQLException {
+            generator.writeStartObject();
+            for (int i = 1; i <= OrderExportRepository.COLUMNS.length; i++) {
+                Object value = columnValue(rs, i);
+                generator.writeFieldName(OrderExportRepository.COLUMNS[i - 1]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+}
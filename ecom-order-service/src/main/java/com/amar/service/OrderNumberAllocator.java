@@ -0,0 +1,80 @@
+package com.amar.service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Allocates order numbers in the format ORD-yyyyMMdd-NNNNN without touching the orders table.
+ *
+ * Each instance reserves a block of numbers per day from {@code order_service.order_number_blocks}
+ * with a single upsert (hi) and hands them out from memory (lo). A new day starts a new counter,
+ * so numbering resets daily. Numbers left in a block when an instance stops are simply skipped.
+ */
+@Component
+public class OrderNumberAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderNumberAllocator.class);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final String RESERVE_BLOCK_SQL =
+            "INSERT INTO order_service.order_number_blocks (order_date, last_value) VALUES (?, ?) " +
+            "ON CONFLICT (order_date) DO UPDATE " +
+            "SET last_value = order_service.order_number_blocks.last_value + EXCLUDED.last_value, " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "RETURNING last_value";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    @Value("${order.number.block-size:50}")
+    private int blockSize = 50;
+
+    private LocalDate currentDate;
+    private long nextValue;
+    private long blockLimit;
+
+    @Autowired
+    public OrderNumberAllocator(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, Clock.systemDefaultZone());
+    }
+
+    OrderNumberAllocator(JdbcTemplate jdbcTemplate, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+    }
+
+    public synchronized String nextOrderNumber() {
+        LocalDate today = LocalDate.now(clock);
+        if (!today.equals(currentDate) || nextValue > blockLimit) {
+            long limit = reserveBlock(today, blockSize);
+            currentDate = today;
+            blockLimit = limit;
+            nextValue = limit - blockSize + 1;
+            logger.debug("Reserved order number block {}-{} for {}", nextValue, blockLimit, today);
+        }
+        return String.format("ORD-%s-%05d", currentDate.format(DATE_FORMAT), nextValue++);
+    }
+
+    /**
+     * Reserve {@code size} numbers for the given day and return the highest one in the block
+     */
+    protected long reserveBlock(LocalDate date, int size) {
+        Long limit = jdbcTemplate.queryForObject(RESERVE_BLOCK_SQL, Long.class, date, size);
+        if (limit == null) {
+            throw new IllegalStateException("Failed to reserve order number block for " + date);
+        }
+        return limit;
+    }
+
+    void setBlockSize(int blockSize) {
+        this.blockSize = blockSize;
+    }
+}
@@ -1,21 +1,34 @@
 package com.amar.service;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -24,13 +37,11 @@ import com.amar.client.CartServiceClient;
 import com.amar.client.CartServiceClient.CartValidationResponse;
 import com.amar.client.InventoryServiceClient;
 import com.amar.client.InventoryServiceClient.StockReservationItem;
-import com.amar.client.InventoryServiceClient.StockReservationResponse;
-import com.amar.client.PaymentServiceClient;
 import com.amar.client.PaymentServiceClient.PaymentRequest;
-import com.amar.client.PaymentServiceClient.PaymentResponse;
 import com.amar.client.ProductServiceClient;
 import com.amar.dto.CreateOrderItemRequest;
 import com.amar.dto.CreateOrderRequest;
+import com.amar.dto.OrderCursorPage;
 import com.amar.dto.OrderDto;
 import com.amar.dto.OrderItemDto;
 import com.amar.dto.ProductDto;
@@ -42,49 +53,143 @@ import com.amar.entity.order.OrderStatus;
 import com.amar.entity.order.OrderStatusHistory;
 import com.amar.entity.order.PaymentStatus;
 import com.amar.kafka.OrderEventPublisher;
+import com.amar.kafka.PaymentEvent;
+import com.amar.pricing.PricedOrder;
+import com.amar.pricing.PricingEngine;
+import com.amar.repository.OrderArchiveRepository;
 import com.amar.repository.OrderRepository;
 import com.amar.repository.OrderStatusHistoryRepository;
+import com.amar.repository.ProcessedPaymentEventRepository;
+import com.amar.service.CheckoutSagaOrchestrator.CheckoutFailedException;
+import com.amar.service.CheckoutSagaOrchestrator.CheckoutPendingException;
 
 @Service
 @Transactional
 public class OrderService {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+    private static final Set<String> PAYMENT_EVENT_TYPES = Set.of(
+        "payment.initiated", "payment.completed", "payment.failed", "payment.refunded", "payment.cancelled");
 
     private final OrderRepository orderRepository;
     private final OrderStatusHistoryRepository statusHistoryRepository;
     private final OrderEventPublisher eventPublisher;
     private final InventoryServiceClient inventoryServiceClient;
-    private final PaymentServiceClient paymentServiceClient;
     private final CartServiceClient cartServiceClient;
     private final ProductServiceClient productServiceClient;
+    private final CheckoutPipeline checkoutPipeline;
+    private final OrderNumberAllocator orderNumberAllocator;
+    private final OrderSummaryCache orderSummaryCache;
+    private final PricingEngine pricingEngine;
+    private final ProcessedPaymentEventRepository processedPaymentEventRepository;
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final CheckoutSagaOrchestrator sagaOrchestrator;
+    private final TransactionTemplate transactionTemplate;
     
     @PersistenceContext
     private EntityManager entityManager;
 
+    // Longest a synchronous checkout waits for its saga before handing back the still-pending order
+    @Value("${order.checkout.sync-timeout-ms:60000}")
+    private long syncCheckoutTimeoutMs;
+
     @Autowired
     public OrderService(OrderRepository orderRepository,
                        OrderStatusHistoryRepository statusHistoryRepository,
                        OrderEventPublisher eventPublisher,
                        InventoryServiceClient inventoryServiceClient,
-                       PaymentServiceClient paymentServiceClient,
                        CartServiceClient cartServiceClient,
-                       ProductServiceClient productServiceClient) {
+                       ProductServiceClient productServiceClient,
+                       CheckoutPipeline checkoutPipeline,
+                       OrderNumberAllocator orderNumberAllocator,
+                       OrderSummaryCache orderSummaryCache,
+                       PricingEngine pricingEngine,
+                       ProcessedPaymentEventRepository processedPaymentEventRepository,
+                       OrderArchiveRepository orderArchiveRepository,
+                       CheckoutSagaOrchestrator sagaOrchestrator,
+                       PlatformTransactionManager transactionManager) {
         this.orderRepository = orderRepository;
         this.statusHistoryRepository = statusHistoryRepository;
         this.eventPublisher = eventPublisher;
         this.inventoryServiceClient = inventoryServiceClient;
-        this.paymentServiceClient = paymentServiceClient;
         this.cartServiceClient = cartServiceClient;
         this.productServiceClient = productServiceClient;
+        this.checkoutPipeline = checkoutPipeline;
+        this.orderNumberAllocator = orderNumberAllocator;
+        this.orderSummaryCache = orderSummaryCache;
+        this.pricingEngine = pricingEngine;
+        this.processedPaymentEventRepository = processedPaymentEventRepository;
+        this.orderArchiveRepository = orderArchiveRepository;
+        this.sagaOrchestrator = sagaOrchestrator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     // =====================================================
     // Order Creation
     // =====================================================
 
-    @Transactional
+    /**
+     * Checkout runs as a pipeline of stages instead of one long transaction: independent remote
+     * reads (cart, availability, product details) are fanned out in parallel and the order is
+     * persisted as PENDING together with its checkout saga. Reservation, payment and confirmation
+     * are then driven by {@link CheckoutSagaOrchestrator}, which records every step so a checkout
+     * interrupted by a crash is resumed or compensated rather than left half-done.
+     * The caller waits at most order.checkout.sync-timeout-ms; past that the saga carries on in the
+     * background and {@link CheckoutPendingException} is thrown.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OrderDto createOrder(CreateOrderRequest request) {
+        UUID orderId = beginCheckout(request);
+        try {
+            return sagaOrchestrator.start(orderId).get(syncCheckoutTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Checkout for order {} still running after {} ms, completing in the background",
+                       orderId, syncCheckoutTimeoutMs);
+            throw new CheckoutPendingException(orderId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CheckoutPendingException(orderId);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof CheckoutPendingException pending) {
+                throw pending;
+            }
+            logger.error("Failed to create order {} for user: {}", orderId, request.getUserId(), cause);
+            if (cause instanceof CheckoutFailedException checkoutFailed) {
+                throw checkoutFailed;
+            }
+            throw new CheckoutFailedException("Failed to create order: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Accepted-then-confirmed checkout: validate and persist the order as PENDING, then return it
+     * straight away while reservation, payment and confirmation finish on the checkout executor.
+     * The outcome is pushed to the order and user WebSocket topics when the saga completes or fails.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OrderDto acceptOrder(CreateOrderRequest request) {
+        UUID orderId = beginCheckout(request);
+        OrderDto accepted = getOrderById(orderId)
+                .orElseThrow(() -> new IllegalStateException("Order not found after persisting: " + orderId));
+
+        sagaOrchestrator.start(orderId).whenComplete((order, ex) -> {
+            if (ex != null) {
+                logger.warn("Accepted order {} for user {} did not complete: {}", orderId, request.getUserId(),
+                           ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage());
+            }
+        });
+        logger.info("Order {} accepted for user: {}, completing in the background",
+                   accepted.getOrderNumber(), request.getUserId());
+        return accepted;
+    }
+
+    /**
+     * Validate the request and persist the order as PENDING along with its checkout saga.
+     * Nothing remote has been changed when this returns; the saga takes it from here.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UUID beginCheckout(CreateOrderRequest request) {
         logger.info("Creating order for user: {} with {} items", request.getUserId(), request.getItems().size());
         
         // Step 0: Validate user authentication - reject anonymous users
@@ -98,224 +203,165 @@ public class OrderService {
         
         logger.info("Order creation validated for authenticated user: {}", request.getUserId());
         
-        Order order = null;
-        boolean inventoryReserved = false;
-        boolean paymentProcessed = false;
+        boolean hasCart = request.getCartId() != null && !request.getCartId().trim().isEmpty();
 
         try {
-            // Step 1: Validate cart if cartId is provided
-            if (request.getCartId() != null && !request.getCartId().trim().isEmpty()) {
-                logger.debug("Validating cart for checkout: {}", request.getCartId());
-                CartValidationResponse cartValidation = cartServiceClient.validateCartForCheckout(request.getCartId());
-                
-                if (!cartValidation.isValid()) {
-                    throw new RuntimeException("Cart validation failed: " + cartValidation.getMessage());
-                }
-                logger.info("Cart validation successful for: {}", request.getCartId());
-            }
-
-            // Step 2: Check inventory availability for all items
-            logger.debug("Checking inventory availability for {} items", request.getItems().size());
+            // Step 1: Fan out the independent read-only checks in parallel
             Map<Long, Integer> productQuantities = request.getItems().stream()
                 .collect(Collectors.toMap(
                     CreateOrderItemRequest::getProductId,
                     CreateOrderItemRequest::getQuantity,
                     Integer::sum  // Handle duplicate products by summing quantities
                 ));
-            
-            Map<Long, Boolean> availabilityCheck = inventoryServiceClient.checkBulkStockAvailability(productQuantities);
-            
-            // Validate all items are available
+
+            CompletableFuture<CartValidationResponse> cartFuture = hasCart
+                ? checkoutPipeline.fork("cart-validation",
+                    () -> cartServiceClient.validateCartForCheckout(request.getCartId()))
+                : CompletableFuture.completedFuture(null);
+
+            CompletableFuture<Map<Long, Boolean>> availabilityFuture = checkoutPipeline.fork("inventory-availability",
+                    () -> inventoryServiceClient.checkBulkStockAvailability(productQuantities));
+
+            // One batch call for every line's product details and authoritative price
+            CompletableFuture<Map<Long, ProductDto>> productsFuture = checkoutPipeline.fork("product-lookup",
+                    () -> productServiceClient.getProducts(productQuantities.keySet()));
+
+            // Step 2: Validate cart if cartId is provided
+            CartValidationResponse cartValidation = checkoutPipeline.join(cartFuture);
+            if (cartValidation != null) {
+                if (!cartValidation.isValid()) {
+                    throw new RuntimeException("Cart validation failed: " + cartValidation.getMessage());
+                }
+                logger.info("Cart validation successful for: {}", request.getCartId());
+            }
+
+            // Step 3: Validate all items are available
+            Map<Long, Boolean> availabilityCheck = checkoutPipeline.join(availabilityFuture);
             for (CreateOrderItemRequest item : request.getItems()) {
                 Boolean available = availabilityCheck.get(item.getProductId());
                 if (available == null || !available) {
                     throw new RuntimeException("Insufficient stock for product ID: " + item.getProductId() + " - " + item.getProductName());
                 }
             }
-            
-            // Step 3: Generate order number and calculate totals
+
+            Map<Long, ProductDto> products = checkoutPipeline.join(productsFuture);
+
+            // Step 4: Generate order number and price the order server-side
             String orderNumber = generateOrderNumber();
-            BigDecimal subtotal = calculateSubtotal(request.getItems());
-            BigDecimal taxAmount = calculateTax(subtotal);
-            BigDecimal shippingCost = calculateShipping(request);
-            BigDecimal discountAmount = calculateDiscount(request.getCouponCode(), subtotal);
-            BigDecimal totalAmount = subtotal.add(taxAmount).add(shippingCost).subtract(discountAmount);
-
-            // Step 4: Create order entity (but don't set status to confirmed yet)
-            order = new Order();
-            order.setUserId(request.getUserId());
-            order.setOrderNumber(orderNumber);
-            order.setStatus(OrderStatus.PENDING);
-            order.setTotalAmount(totalAmount);
-            order.setSubtotal(subtotal);
-            order.setTaxAmount(taxAmount);
-            order.setShippingCost(shippingCost);
-            order.setDiscountAmount(discountAmount);
-            order.setPaymentMethod(request.getPaymentMethod());
-            order.setPaymentStatus(PaymentStatus.PENDING);
-            order.setCustomerEmail(request.getCustomerEmail());
-            order.setCustomerPhone(request.getCustomerPhone());
-            order.setShippingMethod(request.getShippingMethod());
-            order.setNotes(request.getNotes());
-
-            // Set addresses
-            setBillingAddress(order, request);
-            setShippingAddress(order, request);
-
-            // Save order first to get ID
-            order = orderRepository.save(order);
-            logger.debug("Order saved with ID: {}", order.getId());
+            PricedOrder pricing = checkoutPipeline.run("pricing", () -> pricingEngine.price(request, products));
+
+            // Step 5: Build order entity (but don't set status to confirmed yet)
+            Order pendingOrder = new Order();
+            pendingOrder.setUserId(request.getUserId());
+            pendingOrder.setOrderNumber(orderNumber);
+            pendingOrder.setStatus(OrderStatus.PENDING);
+            pendingOrder.setTotalAmount(pricing.getTotalAmount());
+            pendingOrder.setSubtotal(pricing.getSubtotal());
+            pendingOrder.setTaxAmount(pricing.getTaxAmount());
+            pendingOrder.setShippingCost(pricing.getShippingCost());
+            pendingOrder.setDiscountAmount(pricing.getDiscountAmount());
+            pendingOrder.setPaymentMethod(request.getPaymentMethod());
+            pendingOrder.setPaymentStatus(PaymentStatus.PENDING);
+            pendingOrder.setCustomerEmail(request.getCustomerEmail());
+            pendingOrder.setCustomerPhone(request.getCustomerPhone());
+            pendingOrder.setShippingMethod(request.getShippingMethod());
+            pendingOrder.setNotes(request.getNotes());
+
+            // Set addresses and items
+            setBillingAddress(pendingOrder, request);
+            setShippingAddress(pendingOrder, request);
+            pendingOrder.setItems(createOrderItems(pendingOrder, request.getItems(), products, pricing));
 
-            // Step 5: Reserve inventory for the order
-            logger.debug("Reserving inventory for order: {}", order.getId());
             List<StockReservationItem> reservationItems = request.getItems().stream()
                 .map(item -> new StockReservationItem(item.getProductId(), item.getQuantity()))
                 .collect(Collectors.toList());
-            
-            StockReservationResponse reservationResponse = inventoryServiceClient.reserveStock(
-                order.getId(), reservationItems, request.getUserId());
-            
-            if (!reservationResponse.isSuccess()) {
-                throw new RuntimeException("Failed to reserve inventory: " + reservationResponse.getMessage());
-            }
-            
-            inventoryReserved = true;
-            logger.info("Inventory reserved successfully for order: {}", order.getId());
-
-            // Step 6: Process payment
-            logger.debug("Processing payment for order: {} amount: {}", order.getId(), totalAmount);
-            PaymentRequest paymentRequest = createPaymentRequest(order, request);
-            PaymentResponse paymentResponse = paymentServiceClient.processPayment(paymentRequest);
-            
-            if (!paymentResponse.isSuccess()) {
-                throw new RuntimeException("Payment failed: " + paymentResponse.getMessage());
-            }
-            
-            paymentProcessed = true;
-            
-            // Update order with payment information
-            order.setPaymentStatus(PaymentStatus.PAID);
-            order.setPaymentTransactionId(paymentResponse.getTransactionId());
-            order.setStatus(OrderStatus.CONFIRMED);  // Move to confirmed after successful payment
-            
-            logger.info("Payment processed successfully for order: {} - Transaction ID: {}", 
-                       order.getId(), paymentResponse.getTransactionId());
-
-            // Step 7: Create order items
-            List<OrderItem> orderItems = createOrderItems(order, request.getItems());
-            order.setItems(orderItems);
-
-            // Step 8: Publish cart conversion event BEFORE clearing cart
-            if (request.getCartId() != null && !request.getCartId().trim().isEmpty()) {
-                // Step 8a: Publish cart conversion event first (while cart still has items)
-                try {
-                    String sessionId = extractSessionFromCartId(request.getCartId());
-                    boolean eventPublished = cartServiceClient.publishCartConversionEvent(
-                        request.getUserId(), 
-                        sessionId, 
-                        order.getId().toString()
-                    );
-                    
-                    if (eventPublished) {
-                        logger.info("Cart conversion event published for order: {} (cart: {})", 
-                                   order.getId(), request.getCartId());
-                    } else {
-                        logger.warn("Failed to publish cart conversion event for order: {} (cart: {})", 
-                                   order.getId(), request.getCartId());
-                    }
-                } catch (Exception ex) {
-                    logger.error("Error publishing cart conversion event for order: {} (cart: {})", 
-                               order.getId(), request.getCartId(), ex);
-                    // Don't fail the order creation if event publishing fails
-                }
-                
-                // Step 8b: Clear cart AFTER publishing conversion event
-                boolean cartCleared = cartServiceClient.clearCart(request.getCartId());
-                if (cartCleared) {
-                    logger.info("Cart cleared successfully after order: {}", request.getCartId());
-                } else {
-                    logger.warn("Failed to clear cart after order: {}", request.getCartId());
-                }
-            }
-
-            // Step 9: Create status history
-            createStatusHistory(order, null, OrderStatus.PENDING.name(), "Order created", "SYSTEM");
-            createStatusHistory(order, OrderStatus.PENDING.name(), OrderStatus.CONFIRMED.name(), 
-                              "Order confirmed with successful payment", "SYSTEM");
 
-            // Step 10: Save updated order and flush to database
-            order = orderRepository.save(order);
-            
-            // Step 10a: Flush to ensure order is committed before events are published
-            entityManager.flush();
-            logger.debug("Order flushed to database: {}", order.getId());
-
-            // Step 11: Publish order events
-            eventPublisher.publishOrderCreated(
-                order.getId(),
-                order.getUserId(),
-                convertOrderItemsToEventItems(orderItems),
-                order.getTotalAmount().toString(),
-                order.getStatus().name()
-            );
-
-            eventPublisher.publishOrderConfirmed(order.getId(), order.getOrderNumber());
-
-            logger.info("Order created and confirmed successfully: {} for user: {}", orderNumber, request.getUserId());
-            return convertToDto(order);
+            // Step 6: Persist the pending order and its saga in one short local transaction
+            Order order = checkoutPipeline.run("persist-order", () -> transactionTemplate.execute(status -> {
+                Order saved = orderRepository.save(pendingOrder);
+                orderSummaryCache.evict(saved.getUserId());
+                createStatusHistory(saved, null, OrderStatus.PENDING.name(), "Order created", "SYSTEM");
+                sagaOrchestrator.register(saved.getId(), new CheckoutSagaContext(
+                    request.getUserId(), hasCart ? request.getCartId() : null,
+                    reservationItems, createPaymentRequest(saved, request)));
+                return saved;
+            }));
+            logger.debug("Order saved with ID: {}", order.getId());
+            return order.getId();
 
         } catch (Exception e) {
             logger.error("Failed to create order for user: {}", request.getUserId(), e);
-            
-            // Rollback operations if something went wrong
-            if (order != null && inventoryReserved && !paymentProcessed) {
-                // Release inventory reservation if payment failed
-                logger.warn("Rolling back inventory reservation for failed order: {}", order.getId());
-                inventoryServiceClient.releaseReservation(order.getId());
-            }
-            
-            if (order != null) {
-                // Mark order as failed
-                order.setStatus(OrderStatus.CANCELLED);
-                order.setCancellationReason("Order creation failed: " + e.getMessage());
-                order.setCancelledAt(LocalDateTime.now());
-                orderRepository.save(order);
-            }
-            
             throw new RuntimeException("Failed to create order: " + e.getMessage());
         }
     }
 
+    /**
+     * Final checkout step, run by the saga inside its transaction once payment has succeeded:
+     * confirm the order and record history and outbox events. Cart conversion and clearing
+     * only run once that transaction has committed.
+     */
+    public OrderDto confirmCheckout(UUID orderId, String paymentTransactionId, String cartId, String userId) {
+        Order confirmed = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+        confirmed.setPaymentStatus(PaymentStatus.PAID);
+        confirmed.setPaymentTransactionId(paymentTransactionId);
+        confirmed.setStatus(OrderStatus.CONFIRMED);  // Move to confirmed after successful payment
+        confirmed = orderRepository.save(confirmed);
+        orderSummaryCache.evict(confirmed.getUserId());
+
+        createStatusHistory(confirmed, OrderStatus.PENDING.name(), OrderStatus.CONFIRMED.name(), 
+                          "Order confirmed with successful payment", "SYSTEM");
+
+        eventPublisher.publishOrderCreated(
+            confirmed.getId(),
+            confirmed.getUserId(),
+            convertOrderItemsToEventItems(confirmed.getItems()),
+            confirmed.getTotalAmount().toString(),
+            confirmed.getStatus().name()
+        );
+        eventPublisher.publishOrderConfirmed(confirmed.getId(), confirmed.getOrderNumber());
+
+        if (cartId != null) {
+            checkoutPipeline.afterCommit("cart-handoff", () -> handOffCart(cartId, userId, orderId));
+        }
+
+        logger.info("Order created and confirmed successfully: {} for user: {}", confirmed.getOrderNumber(), userId);
+        return convertToDto(confirmed);
+    }
+
     // =====================================================
     // Order Retrieval
     // =====================================================
 
+    /**
+     * Live order, or the archived copy once it has been moved to cold storage
+     */
     @Transactional(readOnly = true)
     public Optional<OrderDto> getOrderById(UUID orderId) {
         logger.debug("Retrieving order by ID: {}", orderId);
         return orderRepository.findByIdWithItems(orderId)
-                .map(this::convertToDto);
+                .map(this::convertToDto)
+                .or(() -> orderArchiveRepository.findById(orderId));
     }
 
     @Transactional(readOnly = true)
     public Optional<OrderDto> getOrderByNumber(String orderNumber) {
         logger.debug("Retrieving order by number: {}", orderNumber);
         return orderRepository.findByOrderNumberWithItems(orderNumber)
-                .map(this::convertToDto);
+                .map(this::convertToDto)
+                .or(() -> orderArchiveRepository.findByOrderNumber(orderNumber));
     }
 
     @Transactional(readOnly = true)
     public Page<OrderDto> getOrdersByUserId(String userId, Pageable pageable) {
         logger.debug("Retrieving orders for user: {}", userId);
-        return orderRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable)
-                .map(this::convertToDto);
+        return loadOrderPage(orderRepository.findIdsByUserId(userId, pageable));
     }
 
     @Transactional(readOnly = true)
     public Page<OrderDto> getOrdersByStatus(OrderStatus status, Pageable pageable) {
         logger.debug("Retrieving orders by status: {}", status);
-        return orderRepository.findByStatusOrderByCreatedAtDesc(status, pageable)
-                .map(this::convertToDto);
+        return loadOrderPage(orderRepository.findIdsByStatus(status, pageable));
     }
 
     @Transactional(readOnly = true)
@@ -323,8 +369,109 @@ public class OrderService {
                                       String orderNumber, Pageable pageable) {
         logger.debug("Searching orders with filters - userId: {}, status: {}, email: {}, orderNumber: {}", 
                     userId, status, customerEmail, orderNumber);
-        return orderRepository.searchOrders(userId, status, customerEmail, orderNumber, pageable)
-                .map(this::convertToDto);
+        return loadOrderPage(orderRepository.searchOrderIds(userId, status, customerEmail, orderNumber, pageable));
+    }
+
+    /**
+     * Second phase of the listing read path: load the page's orders with their items in one query
+     * and return them in the order of the id page, so a list page costs a fixed number of queries
+     */
+    private Page<OrderDto> loadOrderPage(Page<UUID> idPage) {
+        if (idPage.isEmpty()) {
+            return idPage.map(id -> null);
+        }
+        Map<UUID, Order> ordersById = loadOrdersWithItems(idPage.getContent());
+        return idPage.map(id -> convertToDto(ordersById.get(id)));
+    }
+
+    private Map<UUID, Order> loadOrdersWithItems(List<UUID> ids) {
+        return orderRepository.findWithItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Order::getId, order -> order));
+    }
+
+    // =====================================================
+    // Keyset Pagination (cursor over created_at, id)
+    // =====================================================
+
+    /**
+     * Most recent orders for a user, served from the per-user summary cache
+     */
+    @Transactional(readOnly = true)
+    public List<OrderDto> getRecentOrdersForUser(String userId, int limit) {
+        List<OrderDto> recent = orderSummaryCache.getRecentOrders(userId, () -> {
+            List<UUID> ids = orderRepository.findIdsByUserIdBefore(userId, OrderCursor.START.getCreatedAt(),
+                    OrderCursor.START.getId(), orderSummaryCache.capacity() + 1);
+            return loadCursorPage(ids, orderSummaryCache.capacity() + 1, null).getContent();
+        });
+        return recent.size() > limit ? recent.subList(0, limit) : recent;
+    }
+
+    @Transactional(readOnly = true)
+    public OrderCursorPage getOrdersByUserId(String userId, String cursor, int size, boolean includeTotal) {
+        // First page of history is the hot path (refreshes, resubscribes) - answer it from the cache
+        if ((cursor == null || cursor.isBlank()) && !includeTotal
+                && orderSummaryCache.isEnabled() && size <= orderSummaryCache.capacity()) {
+            List<OrderDto> recent = getRecentOrdersForUser(userId, size + 1);
+            boolean hasNext = recent.size() > size;
+            List<OrderDto> content = hasNext ? recent.subList(0, size) : recent;
+            String nextCursor = null;
+            if (hasNext) {
+                OrderDto last = content.get(content.size() - 1);
+                nextCursor = OrderCursor.encode(last.getCreatedAt(), last.getId());
+            }
+            return new OrderCursorPage(content, size, hasNext, nextCursor, null);
+        }
+
+        OrderCursor position = OrderCursor.decode(cursor);
+        List<UUID> ids = orderRepository.findIdsByUserIdBefore(
+                userId, position.getCreatedAt(), position.getId(), size + 1);
+        return loadCursorPage(ids, size, includeTotal ? orderRepository.countByUserId(userId) : null);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderCursorPage getOrdersByStatus(OrderStatus status, String cursor, int size, boolean includeTotal) {
+        OrderCursor position = OrderCursor.decode(cursor);
+        List<UUID> ids = orderRepository.findIdsByStatusBefore(
+                status.name(), position.getCreatedAt(), position.getId(), size + 1);
+        return loadCursorPage(ids, size, includeTotal ? orderRepository.countByStatus(status) : null);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderCursorPage searchOrders(String userId, OrderStatus status, String customerEmail, String orderNumber,
+                                        String cursor, int size, boolean includeTotal) {
+        OrderCursor position = OrderCursor.decode(cursor);
+        List<UUID> ids = orderRepository.searchOrderIdsBefore(
+                userId, status != null ? status.name() : null, customerEmail, orderNumber,
+                position.getCreatedAt(), position.getId(), size + 1);
+        Long total = includeTotal
+                ? orderRepository.countSearchOrders(userId, status, customerEmail, orderNumber)
+                : null;
+        return loadCursorPage(ids, size, total);
+    }
+
+    /**
+     * ids holds up to size + 1 entries; the extra one only signals that another page exists
+     */
+    private OrderCursorPage loadCursorPage(List<UUID> ids, int size, Long total) {
+        boolean hasNext = ids.size() > size;
+        List<UUID> pageIds = hasNext ? ids.subList(0, size) : ids;
+        if (pageIds.isEmpty()) {
+            return new OrderCursorPage(List.of(), size, false, null, total);
+        }
+
+        Map<UUID, Order> ordersById = loadOrdersWithItems(pageIds);
+        List<OrderDto> content = pageIds.stream()
+                .map(ordersById::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasNext && !content.isEmpty()) {
+            OrderDto last = content.get(content.size() - 1);
+            nextCursor = OrderCursor.encode(last.getCreatedAt(), last.getId());
+        }
+        return new OrderCursorPage(content, size, hasNext, nextCursor, total);
     }
 
     // =====================================================
@@ -356,6 +503,7 @@ public class OrderService {
                           request.getReason(), "ADMIN");
 
         order = orderRepository.save(order);
+        orderSummaryCache.evict(order.getUserId());
 
         // Publish status update event
         eventPublisher.publishOrderUpdated(orderId, newStatus.name(), 
@@ -401,6 +549,7 @@ public class OrderService {
                           reason + " (Inventory released)", "SYSTEM");
 
         order = orderRepository.save(order);
+        orderSummaryCache.evict(order.getUserId());
 
         // Publish cancellation event
         eventPublisher.publishOrderCancelled(orderId, reason, "SYSTEM");
@@ -442,6 +591,7 @@ public class OrderService {
                           "Order confirmed with stock commitment", "SYSTEM");
 
         order = orderRepository.save(order);
+        orderSummaryCache.evict(order.getUserId());
 
         // Publish confirmation event
         eventPublisher.publishOrderConfirmed(orderId, order.getOrderNumber());
@@ -455,33 +605,7 @@ public class OrderService {
     // =====================================================
 
     private String generateOrderNumber() {
-        String dateTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long count = orderRepository.count() + 1;
-        return String.format("ORD-%s-%05d", dateTime, count);
-    }
-
-    private BigDecimal calculateSubtotal(List<CreateOrderItemRequest> items) {
-        return items.stream()
-                .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    private BigDecimal calculateTax(BigDecimal subtotal) {
-        // Simple tax calculation - 8.5%
-        return subtotal.multiply(new BigDecimal("0.085"));
-    }
-
-    private BigDecimal calculateShipping(CreateOrderRequest request) {
-        // Simple shipping calculation
-        return new BigDecimal("9.99");
-    }
-
-    private BigDecimal calculateDiscount(String couponCode, BigDecimal subtotal) {
-        // Simple discount logic
-        if ("SAVE10".equals(couponCode)) {
-            return subtotal.multiply(new BigDecimal("0.10"));
-        }
-        return BigDecimal.ZERO;
+        return orderNumberAllocator.nextOrderNumber();
     }
 
     private PaymentRequest createPaymentRequest(Order order, CreateOrderRequest request) {
@@ -547,43 +671,50 @@ public class OrderService {
         }
     }
 
-    private List<OrderItem> createOrderItems(Order order, List<CreateOrderItemRequest> itemRequests) {
-        return itemRequests.stream()
-                .map(itemRequest -> {
-                    OrderItem orderItem = new OrderItem();
-                    orderItem.setOrder(order);
-                    orderItem.setProductId(itemRequest.getProductId());
-                    orderItem.setQuantity(itemRequest.getQuantity());
-                    orderItem.setUnitPrice(itemRequest.getUnitPrice());
-                    orderItem.setTotalPrice(itemRequest.getTotalPrice());
-                    orderItem.setFulfillmentStatus(ItemFulfillmentStatus.PENDING);
-                    
-                    // Fetch product details from Product Service
-                    try {
-                        Optional<ProductDto> productOpt = productServiceClient.getProduct(itemRequest.getProductId());
-                        if (productOpt.isPresent()) {
-                            ProductDto product = productOpt.get();
-                            orderItem.setProductName(product.getName() != null ? product.getName() : "Unknown Product");
-                            orderItem.setProductSku(product.getSku());
-                            orderItem.setProductImageUrl(product.getImageUrl());
-                            orderItem.setProductBrand(product.getBrand());
-                            orderItem.setProductDescription(product.getDescription());
-                        } else {
-                            // Fallback if product not found
-                            logger.warn("Product not found for ID: {}, using fallback values", itemRequest.getProductId());
-                            orderItem.setProductName("Product ID: " + itemRequest.getProductId());
-                            orderItem.setProductSku("UNKNOWN");
-                        }
-                    } catch (Exception e) {
-                        // Fallback in case of service failure
-                        logger.error("Failed to fetch product details for ID: {}, using fallback", itemRequest.getProductId(), e);
-                        orderItem.setProductName("Product ID: " + itemRequest.getProductId());
-                        orderItem.setProductSku("UNKNOWN");
-                    }
-                    
-                    return orderItem;
-                })
-                .collect(Collectors.toList());
+    private List<OrderItem> createOrderItems(Order order, List<CreateOrderItemRequest> itemRequests,
+                                             Map<Long, ProductDto> products, PricedOrder pricing) {
+        List<OrderItem> orderItems = new ArrayList<>(itemRequests.size());
+        for (int line = 0; line < itemRequests.size(); line++) {
+            CreateOrderItemRequest itemRequest = itemRequests.get(line);
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrder(order);
+            orderItem.setProductId(itemRequest.getProductId());
+            orderItem.setQuantity(itemRequest.getQuantity());
+            orderItem.setUnitPrice(pricing.getUnitPrice(line));
+            orderItem.setTotalPrice(pricing.getLineTotal(line));
+            orderItem.setFulfillmentStatus(ItemFulfillmentStatus.PENDING);
+            
+            // Product details were fetched up front from Product Service (pricing guarantees they exist)
+            ProductDto product = products.get(itemRequest.getProductId());
+            orderItem.setProductName(product.getName() != null ? product.getName() : "Unknown Product");
+            orderItem.setProductSku(product.getSku());
+            orderItem.setProductImageUrl(product.getImageUrl());
+            orderItem.setProductBrand(product.getBrand());
+            orderItem.setProductDescription(product.getDescription());
+            
+            orderItems.add(orderItem);
+        }
+        return orderItems;
+    }
+
+    /**
+     * Cancel an order whose checkout could not complete; never throws. Returns false if the order
+     * could not be updated.
+     */
+    public boolean markOrderFailed(UUID orderId, String reason) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> orderRepository.findById(orderId).ifPresent(failed -> {
+                failed.setStatus(OrderStatus.CANCELLED);
+                failed.setCancellationReason("Order creation failed: " + reason);
+                failed.setCancelledAt(LocalDateTime.now());
+                orderRepository.save(failed);
+                orderSummaryCache.evict(failed.getUserId());
+            }));
+            return true;
+        } catch (Exception ex) {
+            logger.error("Failed to mark order {} as cancelled after checkout failure", orderId, ex);
+            return false;
+        }
     }
 
     private void createStatusHistory(Order order, String previousStatus, String newStatus, 
@@ -739,41 +870,7 @@ public class OrderService {
             throw new RuntimeException("Order not found: " + orderId);
         }
         
-        Order order = orderOpt.get();
-        String previousPaymentStatus = order.getPaymentStatus() != null ? order.getPaymentStatus().name() : "NONE";
-        
-        // Update payment status based on event
-        switch (paymentStatus) {
-            case "PAYMENT_INITIATED":
-                order.setPaymentStatus(PaymentStatus.PENDING);
-                break;
-            case "PAYMENT_COMPLETED":
-                order.setPaymentStatus(PaymentStatus.PAID);
-                order.setPaymentTransactionId(paymentId);
-                break;
-            case "PAYMENT_FAILED":
-                order.setPaymentStatus(PaymentStatus.FAILED);
-                break;
-            case "PAYMENT_REFUNDED":
-                order.setPaymentStatus(PaymentStatus.REFUNDED);
-                break;
-            case "PAYMENT_CANCELLED":
-                order.setPaymentStatus(PaymentStatus.FAILED); // Use FAILED for cancelled payments
-                break;
-            default:
-                logger.warn("Unknown payment status: {}", paymentStatus);
-                return;
-        }
-        
-        order.setUpdatedAt(LocalDateTime.now());
-        orderRepository.save(order);
-        
-        // Create status history
-        createStatusHistory(order, previousPaymentStatus, paymentStatus, 
-                          "Payment status updated via Kafka event", "SYSTEM");
-        
-        logger.info("Successfully updated payment status for order: {} from {} to {}", 
-                   orderId, previousPaymentStatus, paymentStatus);
+        applyPaymentStatus(orderOpt.get(), paymentStatus, paymentId);
     }
 
     @Transactional
@@ -787,39 +884,9 @@ public class OrderService {
             throw new RuntimeException("Order not found: " + orderId);
         }
         
-        Order order = orderOpt.get();
-        
         try {
-            // Update order status to CONFIRMED (ready for fulfillment)
-            OrderStatus previousStatus = order.getStatus();
-            order.setStatus(OrderStatus.CONFIRMED);
-            // Note: paymentCompletedAt field doesn't exist in Order entity
-            order.setPaymentTransactionId(transactionId);
-            order.setUpdatedAt(LocalDateTime.now());
-            
-            orderRepository.save(order);
-            
-            // Create status history
-            createStatusHistory(order, previousStatus.name(), OrderStatus.CONFIRMED.name(), 
-                              "Order confirmed after successful payment", "SYSTEM");
-            
-            // Publish order confirmed event
-            List<OrderEventPublisher.OrderItem> eventItems = convertOrderItemsToEventItems(order.getItems());
-            eventPublisher.publishOrderConfirmed(orderId, order.getOrderNumber());
-            
-            // Commit inventory reservation (finalize the stock allocation)
-            try {
-                boolean committed = inventoryServiceClient.commitStock(orderId);
-                if (!committed) {
-                    logger.error("Failed to commit inventory reservation for order: {}", orderId);
-                    // Don't fail the entire order, but log for manual intervention
-                }
-                
-            } catch (Exception ex) {
-                logger.error("Error committing inventory reservation for order: {}", orderId, ex);
-                // Continue processing - payment is completed, inventory issue shouldn't block order
-            }
-            
+            applyPaymentCompleted(orderOpt.get(), transactionId);
+            commitInventoryReservation(orderId);
             logger.info("Successfully processed payment completed order: {}", orderId);
             
         } catch (Exception ex) {
@@ -839,38 +906,9 @@ public class OrderService {
             throw new RuntimeException("Order not found: " + orderId);
         }
         
-        Order order = orderOpt.get();
-        
         try {
-            // Update order status to CANCELLED (no PAYMENT_FAILED status exists)
-            OrderStatus previousStatus = order.getStatus();
-            order.setStatus(OrderStatus.CANCELLED);
-            order.setCancelledAt(LocalDateTime.now());
-            order.setCancellationReason("Payment failed: " + errorCode + " - " + errorMessage);
-            order.setUpdatedAt(LocalDateTime.now());
-            
-            orderRepository.save(order);
-            
-            // Create status history
-            createStatusHistory(order, previousStatus.name(), OrderStatus.CANCELLED.name(), 
-                              "Payment failed: " + errorMessage, "SYSTEM");
-            
-            // Publish payment failed event
-            eventPublisher.publishPaymentFailed(orderId, paymentId, errorMessage, errorCode);
-            
-            // Release inventory reservation
-            try {
-                boolean released = inventoryServiceClient.releaseReservation(orderId);
-                if (!released) {
-                    logger.error("Failed to release inventory reservation for failed payment order: {}", orderId);
-                    // Log for manual intervention
-                }
-                
-            } catch (Exception ex) {
-                logger.error("Error releasing inventory reservation for failed payment order: {}", orderId, ex);
-                // Continue processing - order status is updated, inventory cleanup can be manual
-            }
-            
+            applyPaymentFailed(orderOpt.get(), paymentId, errorCode, errorMessage);
+            releaseInventoryReservation(orderId, "failed payment");
             logger.info("Successfully processed payment failed order: {}", orderId);
             
         } catch (Exception ex) {
@@ -890,38 +928,8 @@ public class OrderService {
             throw new RuntimeException("Order not found: " + orderId);
         }
         
-        Order order = orderOpt.get();
-        
         try {
-            // Update order status based on current status
-            OrderStatus previousStatus = order.getStatus();
-            OrderStatus newStatus;
-            
-            if (refundAmount.doubleValue() >= order.getTotalAmount().doubleValue()) {
-                // Full refund - use RETURNED status as REFUNDED doesn't exist
-                newStatus = OrderStatus.RETURNED;
-                order.setStatus(newStatus);
-            } else {
-                // Partial refund - keep current status but note the refund
-                newStatus = previousStatus;
-            }
-            
-            order.setUpdatedAt(LocalDateTime.now());
-            // Could add refund tracking fields to Order entity if needed
-            
-            orderRepository.save(order);
-            
-            // Create status history
-            String reason = String.format("Refund processed: %s (amount: %s)", refundId, refundAmount);
-            createStatusHistory(order, previousStatus.name(), newStatus.name(), reason, "SYSTEM");
-            
-            // If full refund, might need to restore inventory depending on business rules
-            if (refundAmount.doubleValue() >= order.getTotalAmount().doubleValue()) {
-                // Business decision: restore inventory on full refund?
-                // This depends on whether items are returned or not
-                logger.info("Full refund processed for order: {} - inventory restoration may be needed", orderId);
-            }
-            
+            applyRefund(orderOpt.get(), refundId, refundAmount);
             logger.info("Successfully processed refunded order: {}", orderId);
             
         } catch (Exception ex) {
@@ -941,43 +949,307 @@ public class OrderService {
             throw new RuntimeException("Order not found: " + orderId);
         }
         
-        Order order = orderOpt.get();
-        
         try {
-            // Update order status to CANCELLED
-            OrderStatus previousStatus = order.getStatus();
-            order.setStatus(OrderStatus.CANCELLED);
-            order.setCancelledAt(LocalDateTime.now());
-            order.setCancellationReason("Payment cancelled: " + reason);
-            order.setUpdatedAt(LocalDateTime.now());
-            
-            orderRepository.save(order);
-            
-            // Create status history
-            createStatusHistory(order, previousStatus.name(), OrderStatus.CANCELLED.name(), 
-                              "Payment cancelled: " + reason, "SYSTEM");
-            
-            // Publish order cancelled event
-            eventPublisher.publishOrderCancelled(orderId, reason, "PAYMENT_SYSTEM");
+            applyPaymentCancelled(orderOpt.get(), reason);
+            releaseInventoryReservation(orderId, "cancelled payment");
+            logger.info("Successfully processed cancelled payment order: {}", orderId);
             
-            // Release inventory reservation
-            try {
-                boolean released = inventoryServiceClient.releaseReservation(orderId);
-                if (!released) {
-                    logger.error("Failed to release inventory reservation for cancelled payment order: {}", orderId);
-                    // Log for manual intervention
+        } catch (Exception ex) {
+            logger.error("Failed to process cancelled payment order: {}", orderId, ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Apply a poll's worth of payment events in one transaction.
+     * Events already recorded in processed_payment_events are skipped, all referenced orders are
+     * loaded with a single query, and inventory calls run only after the batch has committed.
+     * Events whose order does not exist yet are left unclaimed and reported back so the caller
+     * can have them redelivered.
+     */
+    @Transactional
+    public PaymentBatchResult processPaymentEventBatch(List<PaymentEvent> events) {
+        PaymentBatchResult result = new PaymentBatchResult();
+
+        // Redelivery within the same poll is common after a rebalance - keep the first copy
+        Map<String, PaymentEvent> unique = new LinkedHashMap<>();
+        for (PaymentEvent event : events) {
+            if (event.getOrderId() == null || !PAYMENT_EVENT_TYPES.contains(event.getEventType())) {
+                result.unhandled++;
+            } else if (unique.putIfAbsent(event.getEventId(), event) != null) {
+                result.duplicates++;
+            }
+        }
+        if (unique.isEmpty()) {
+            return result;
+        }
+
+        Map<UUID, Order> ordersById = orderRepository.findAllById(
+                unique.values().stream().map(PaymentEvent::getOrderId).collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.toMap(Order::getId, order -> order));
+
+        List<PaymentEvent> applicable = new ArrayList<>();
+        for (PaymentEvent event : unique.values()) {
+            if (ordersById.containsKey(event.getOrderId())) {
+                applicable.add(event);
+            } else {
+                result.missingOrders.add(event.getOrderId());
+            }
+        }
+
+        Set<String> claimed = processedPaymentEventRepository.claim(applicable);
+        List<Runnable> afterCommit = new ArrayList<>();
+        for (PaymentEvent event : applicable) {
+            if (!claimed.contains(event.getEventId())) {
+                result.duplicates++;
+                continue;
+            }
+            applyPaymentEvent(ordersById.get(event.getOrderId()), event, afterCommit);
+            result.processed++;
+        }
+
+        if (!afterCommit.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    afterCommit.forEach(Runnable::run);
                 }
-                
-            } catch (Exception ex) {
-                logger.error("Error releasing inventory reservation for cancelled payment order: {}", orderId, ex);
-                // Continue processing - order status is updated, inventory cleanup can be manual
+            });
+        }
+
+        logger.info("Applied payment event batch: {} processed, {} duplicates, {} unhandled, {} waiting for order",
+                   result.processed, result.duplicates, result.unhandled, result.missingOrders.size());
+        return result;
+    }
+
+    /**
+     * Same transitions as the per-event handlers above, in the order PaymentEventListener applies them
+     */
+    private void applyPaymentEvent(Order order, PaymentEvent event, List<Runnable> afterCommit) {
+        UUID orderId = order.getId();
+        switch (event.getEventType()) {
+            case "payment.initiated":
+                applyPaymentStatus(order, "PAYMENT_INITIATED", event.getPaymentId());
+                break;
+            case "payment.completed":
+                applyPaymentStatus(order, "PAYMENT_COMPLETED", event.getPaymentId());
+                applyPaymentCompleted(order, event.getString("transactionId"));
+                afterCommit.add(() -> commitInventoryReservation(orderId));
+                break;
+            case "payment.failed":
+                applyPaymentStatus(order, "PAYMENT_FAILED", event.getPaymentId());
+                applyPaymentFailed(order, event.getPaymentId(),
+                                   event.getString("errorCode"), event.getString("errorMessage"));
+                afterCommit.add(() -> releaseInventoryReservation(orderId, "failed payment"));
+                break;
+            case "payment.refunded":
+                applyPaymentStatus(order, "PAYMENT_REFUNDED", event.getPaymentId());
+                Number refundAmount = event.getNumber("refundAmount");
+                applyRefund(order, event.getString("refundId"), refundAmount != null ? refundAmount : 0);
+                break;
+            case "payment.cancelled":
+                applyPaymentStatus(order, "PAYMENT_CANCELLED", event.getPaymentId());
+                applyPaymentCancelled(order, event.getString("reason"));
+                afterCommit.add(() -> releaseInventoryReservation(orderId, "cancelled payment"));
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported payment event type: " + event.getEventType());
+        }
+    }
+
+    private void applyPaymentStatus(Order order, String paymentStatus, String paymentId) {
+        String previousPaymentStatus = order.getPaymentStatus() != null ? order.getPaymentStatus().name() : "NONE";
+        
+        // Update payment status based on event
+        switch (paymentStatus) {
+            case "PAYMENT_INITIATED":
+                order.setPaymentStatus(PaymentStatus.PENDING);
+                break;
+            case "PAYMENT_COMPLETED":
+                order.setPaymentStatus(PaymentStatus.PAID);
+                order.setPaymentTransactionId(paymentId);
+                break;
+            case "PAYMENT_FAILED":
+                order.setPaymentStatus(PaymentStatus.FAILED);
+                break;
+            case "PAYMENT_REFUNDED":
+                order.setPaymentStatus(PaymentStatus.REFUNDED);
+                break;
+            case "PAYMENT_CANCELLED":
+                order.setPaymentStatus(PaymentStatus.FAILED); // Use FAILED for cancelled payments
+                break;
+            default:
+                logger.warn("Unknown payment status: {}", paymentStatus);
+                return;
+        }
+        
+        order.setUpdatedAt(LocalDateTime.now());
+        orderRepository.save(order);
+        orderSummaryCache.evict(order.getUserId());
+        
+        // Create status history
+        createStatusHistory(order, previousPaymentStatus, paymentStatus, 
+                          "Payment status updated via Kafka event", "SYSTEM");
+        
+        logger.info("Successfully updated payment status for order: {} from {} to {}", 
+                   order.getId(), previousPaymentStatus, paymentStatus);
+    }
+
+    private void applyPaymentCompleted(Order order, String transactionId) {
+        // Update order status to CONFIRMED (ready for fulfillment)
+        OrderStatus previousStatus = order.getStatus();
+        order.setStatus(OrderStatus.CONFIRMED);
+        // Note: paymentCompletedAt field doesn't exist in Order entity
+        order.setPaymentTransactionId(transactionId);
+        order.setUpdatedAt(LocalDateTime.now());
+        
+        orderRepository.save(order);
+        orderSummaryCache.evict(order.getUserId());
+        
+        // Create status history
+        createStatusHistory(order, previousStatus.name(), OrderStatus.CONFIRMED.name(), 
+                          "Order confirmed after successful payment", "SYSTEM");
+        
+        // Publish order confirmed event
+        eventPublisher.publishOrderConfirmed(order.getId(), order.getOrderNumber());
+    }
+
+    private void applyPaymentFailed(Order order, String paymentId, String errorCode, String errorMessage) {
+        // Update order status to CANCELLED (no PAYMENT_FAILED status exists)
+        OrderStatus previousStatus = order.getStatus();
+        order.setStatus(OrderStatus.CANCELLED);
+        order.setCancelledAt(LocalDateTime.now());
+        order.setCancellationReason("Payment failed: " + errorCode + " - " + errorMessage);
+        order.setUpdatedAt(LocalDateTime.now());
+        
+        orderRepository.save(order);
+        orderSummaryCache.evict(order.getUserId());
+        
+        // Create status history
+        createStatusHistory(order, previousStatus.name(), OrderStatus.CANCELLED.name(), 
+                          "Payment failed: " + errorMessage, "SYSTEM");
+        
+        // Publish payment failed event
+        eventPublisher.publishPaymentFailed(order.getId(), paymentId, errorMessage, errorCode);
+    }
+
+    private void applyRefund(Order order, String refundId, Number refundAmount) {
+        // Update order status based on current status
+        OrderStatus previousStatus = order.getStatus();
+        OrderStatus newStatus;
+        boolean fullRefund = refundAmount.doubleValue() >= order.getTotalAmount().doubleValue();
+        
+        if (fullRefund) {
+            // Full refund - use RETURNED status as REFUNDED doesn't exist
+            newStatus = OrderStatus.RETURNED;
+            order.setStatus(newStatus);
+        } else {
+            // Partial refund - keep current status but note the refund
+            newStatus = previousStatus;
+        }
+        
+        order.setUpdatedAt(LocalDateTime.now());
+        // Could add refund tracking fields to Order entity if needed
+        
+        orderRepository.save(order);
+        orderSummaryCache.evict(order.getUserId());
+        
+        // Create status history
+        String reason = String.format("Refund processed: %s (amount: %s)", refundId, refundAmount);
+        createStatusHistory(order, previousStatus.name(), newStatus.name(), reason, "SYSTEM");
+        
+        // If full refund, might need to restore inventory depending on business rules
+        if (fullRefund) {
+            // Business decision: restore inventory on full refund?
+            // This depends on whether items are returned or not
+            logger.info("Full refund processed for order: {} - inventory restoration may be needed", order.getId());
+        }
+    }
+
+    private void applyPaymentCancelled(Order order, String reason) {
+        // Update order status to CANCELLED
+        OrderStatus previousStatus = order.getStatus();
+        order.setStatus(OrderStatus.CANCELLED);
+        order.setCancelledAt(LocalDateTime.now());
+        order.setCancellationReason("Payment cancelled: " + reason);
+        order.setUpdatedAt(LocalDateTime.now());
+        
+        orderRepository.save(order);
+        orderSummaryCache.evict(order.getUserId());
+        
+        // Create status history
+        createStatusHistory(order, previousStatus.name(), OrderStatus.CANCELLED.name(), 
+                          "Payment cancelled: " + reason, "SYSTEM");
+        
+        // Publish order cancelled event
+        eventPublisher.publishOrderCancelled(order.getId(), reason, "PAYMENT_SYSTEM");
+    }
+
+    /**
+     * Commit inventory reservation (finalize the stock allocation)
+     */
+    private void commitInventoryReservation(UUID orderId) {
+        try {
+            boolean committed = inventoryServiceClient.commitStock(orderId);
+            if (!committed) {
+                logger.error("Failed to commit inventory reservation for order: {}", orderId);
+                // Don't fail the entire order, but log for manual intervention
             }
             
-            logger.info("Successfully processed cancelled payment order: {}", orderId);
+        } catch (Exception ex) {
+            logger.error("Error committing inventory reservation for order: {}", orderId, ex);
+            // Continue processing - payment is completed, inventory issue shouldn't block order
+        }
+    }
+
+    private void releaseInventoryReservation(UUID orderId, String context) {
+        try {
+            boolean released = inventoryServiceClient.releaseReservation(orderId);
+            if (!released) {
+                logger.error("Failed to release inventory reservation for {} order: {}", context, orderId);
+                // Log for manual intervention
+            }
             
         } catch (Exception ex) {
-            logger.error("Failed to process cancelled payment order: {}", orderId, ex);
-            throw ex;
+            logger.error("Error releasing inventory reservation for {} order: {}", context, orderId, ex);
+            // Continue processing - order status is updated, inventory cleanup can be manual
+        }
+    }
+
+    /**
+     * Outcome of {@link #processPaymentEventBatch(List)}
+     */
+    public static class PaymentBatchResult {
+        private int processed;
+        private int duplicates;
+        private int unhandled;
+        private final Set<UUID> missingOrders = new HashSet<>();
+
+        public int getProcessed() {
+            return processed;
+        }
+
+        public int getDuplicates() {
+            return duplicates;
+        }
+
+        public int getUnhandled() {
+            return unhandled;
+        }
+
+        public Set<UUID> getMissingOrders() {
+            return missingOrders;
+        }
+
+        /**
+         * Fold in the outcome of applying part of a poll separately
+         */
+        public void add(PaymentBatchResult other) {
+            processed += other.processed;
+            duplicates += other.duplicates;
+            unhandled += other.unhandled;
+            missingOrders.addAll(other.missingOrders);
         }
     }
 
@@ -985,6 +1257,32 @@ public class OrderService {
     // Helper Methods for Cart Integration
     // =====================================================
 
+    /**
+     * Publish the cart conversion event BEFORE clearing the cart (while it still has items).
+     * Runs after the order has committed, so a slow or failing cart service never affects checkout.
+     */
+    private void handOffCart(String cartId, String userId, UUID orderId) {
+        try {
+            String sessionId = extractSessionFromCartId(cartId);
+            boolean eventPublished = cartServiceClient.publishCartConversionEvent(userId, sessionId, orderId.toString());
+            
+            if (eventPublished) {
+                logger.info("Cart conversion event published for order: {} (cart: {})", orderId, cartId);
+            } else {
+                logger.warn("Failed to publish cart conversion event for order: {} (cart: {})", orderId, cartId);
+            }
+        } catch (Exception ex) {
+            logger.error("Error publishing cart conversion event for order: {} (cart: {})", orderId, cartId, ex);
+        }
+        
+        boolean cartCleared = cartServiceClient.clearCart(cartId);
+        if (cartCleared) {
+            logger.info("Cart cleared successfully after order: {}", cartId);
+        } else {
+            logger.warn("Failed to clear cart after order: {}", cartId);
+        }
+    }
+
     private String extractSessionFromCartId(String cartId) {
         if (cartId == null) return null;
         
@@ -0,0 +1,246 @@
+package com.amar.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Tracks which STOMP sessions are subscribed to which order and user topics, driven by the
+ * broker's session events. Reference counts per order/user let the broadcast stage skip updates
+ * nobody on this instance is listening for. Sessions whose disconnect was never observed are
+ * evicted once they have been silent for longer than the idle timeout.
+ */
+@Component
+public class OrderSubscriptionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderSubscriptionRegistry.class);
+    private static final String ORDER_TOPIC_PREFIX = "/topic/orders/";
+    private static final String USER_TOPIC_PREFIX = "/topic/orders/user/";
+
+    private final ConcurrentMap<String, SessionState> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, Integer> orderSubscribers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> userSubscribers = new ConcurrentHashMap<>();
+
+    @Value("${order.websocket.subscriptions.idle-timeout-ms:300000}")
+    private long idleTimeoutMs;
+
+    @Autowired
+    public OrderSubscriptionRegistry(MeterRegistry meterRegistry) {
+        Gauge.builder("order.websocket.sessions", sessions, Map::size)
+            .description("STOMP sessions connected to this instance")
+            .register(meterRegistry);
+        Gauge.builder("order.websocket.subscriptions", orderSubscribers, Map::size)
+            .description("Orders / users with at least one live subscriber")
+            .tag("type", "order")
+            .register(meterRegistry);
+        Gauge.builder("order.websocket.subscriptions", userSubscribers, Map::size)
+            .description("Orders / users with at least one live subscriber")
+            .tag("type", "user")
+            .register(meterRegistry);
+    }
+
+    // =====================================================
+    // STOMP session events
+    // =====================================================
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = sessionId(event.getMessage());
+        if (sessionId != null) {
+            session(sessionId);
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        if (headers.getSessionId() == null || headers.getSubscriptionId() == null) {
+            return;
+        }
+        Subscription subscription = parse(headers.getDestination());
+        SessionState state = session(headers.getSessionId());
+        synchronized (state) {
+            Subscription replaced = state.subscriptions.put(headers.getSubscriptionId(), subscription);
+            if (replaced != null) {
+                release(replaced);
+            }
+            acquire(subscription);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        SessionState state = headers.getSessionId() != null ? sessions.get(headers.getSessionId()) : null;
+        if (state == null) {
+            return;
+        }
+        Subscription removed;
+        synchronized (state) {
+            state.lastSeenMillis = System.currentTimeMillis();
+            removed = state.subscriptions.remove(headers.getSubscriptionId());
+        }
+        release(removed);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        removeSession(event.getSessionId());
+    }
+
+    /**
+     * Record activity for a session (any inbound frame, including heartbeats)
+     */
+    public void touch(String sessionId) {
+        SessionState state = sessionId != null ? sessions.get(sessionId) : null;
+        if (state != null) {
+            state.lastSeenMillis = System.currentTimeMillis();
+        }
+    }
+
+    // =====================================================
+    // Queries used by the broadcast stage
+    // =====================================================
+
+    public boolean hasOrderSubscribers(UUID orderId) {
+        return orderId != null && orderSubscribers.containsKey(orderId);
+    }
+
+    public boolean hasUserSubscribers(String userId) {
+        return userId != null && userSubscribers.containsKey(userId);
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public int getOrderSubscriptionCount() {
+        return orderSubscribers.size();
+    }
+
+    public int getUserSubscriptionCount() {
+        return userSubscribers.size();
+    }
+
+    // =====================================================
+    // Idle eviction
+    // =====================================================
+
+    /**
+     * Drop sessions that have been silent for longer than the idle timeout
+     */
+    @Scheduled(fixedDelayString = "${order.websocket.subscriptions.eviction-interval-ms:60000}")
+    public void evictIdleSessions() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMs;
+        int evicted = 0;
+        for (Map.Entry<String, SessionState> entry : sessions.entrySet()) {
+            if (entry.getValue().lastSeenMillis < cutoff && removeSession(entry.getKey())) {
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            logger.info("Evicted {} idle WebSocket sessions (active: {}, orders: {}, users: {})",
+                       evicted, sessions.size(), orderSubscribers.size(), userSubscribers.size());
+        }
+    }
+
+    // =====================================================
+    // Helper Methods
+    // =====================================================
+
+    private SessionState session(String sessionId) {
+        SessionState state = sessions.computeIfAbsent(sessionId, id -> new SessionState());
+        state.lastSeenMillis = System.currentTimeMillis();
+        return state;
+    }
+
+    private boolean removeSession(String sessionId) {
+        SessionState state = sessionId != null ? sessions.remove(sessionId) : null;
+        if (state == null) {
+            return false;
+        }
+        synchronized (state) {
+            state.subscriptions.values().forEach(this::release);
+            state.subscriptions.clear();
+        }
+        return true;
+    }
+
+    private void acquire(Subscription subscription) {
+        if (subscription.orderId != null) {
+            orderSubscribers.merge(subscription.orderId, 1, Integer::sum);
+        } else if (subscription.userId != null) {
+            userSubscribers.merge(subscription.userId, 1, Integer::sum);
+        }
+    }
+
+    private void release(Subscription subscription) {
+        if (subscription == null) {
+            return;
+        }
+        if (subscription.orderId != null) {
+            orderSubscribers.computeIfPresent(subscription.orderId, (id, count) -> count > 1 ? count - 1 : null);
+        } else if (subscription.userId != null) {
+            userSubscribers.computeIfPresent(subscription.userId, (id, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    /**
+     * Only /topic/orders/{orderId} and /topic/orders/user/{userId} carry status updates;
+     * anything else is tracked for the session but does not count as an order or user subscriber
+     */
+    static Subscription parse(String destination) {
+        if (destination == null || !destination.startsWith(ORDER_TOPIC_PREFIX)) {
+            return Subscription.OTHER;
+        }
+        if (destination.startsWith(USER_TOPIC_PREFIX)) {
+            String userId = destination.substring(USER_TOPIC_PREFIX.length());
+            return userId.isEmpty() || userId.contains("/") ? Subscription.OTHER : new Subscription(null, userId);
+        }
+        try {
+            return new Subscription(UUID.fromString(destination.substring(ORDER_TOPIC_PREFIX.length())), null);
+        } catch (IllegalArgumentException e) {
+            return Subscription.OTHER;
+        }
+    }
+
+    private static String sessionId(Message<?> message) {
+        return SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+    }
+
+    private static final class SessionState {
+        private volatile long lastSeenMillis;
+        private final Map<String, Subscription> subscriptions = new HashMap<>();
+    }
+
+    static final class Subscription {
+        static final Subscription OTHER = new Subscription(null, null);
+
+        final UUID orderId;
+        final String userId;
+
+        Subscription(UUID orderId, String userId) {
+            this.orderId = orderId;
+            this.userId = userId;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.amar.service;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.amar.dto.OrderDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Two-level cache of each user's most recent orders: a bounded in-process Caffeine cache in front
+ * of Redis. Evictions are published on a Redis channel so every instance drops its local copy.
+ * Redis problems degrade to a cache miss; the database stays the source of truth.
+ *
+ * Evictions requested inside a transaction are collected per user and applied once after commit;
+ * the Redis DEL and PUBLISH run on a background thread so order writes never wait on Redis.
+ *
+ * Each eviction also bumps a per-user generation key. A miss remembers the generation it saw and
+ * only stores what it loaded if the generation is unchanged, so a load that raced an order change
+ * cannot put the old list back after the eviction.
+ */
+@Component
+public class OrderSummaryCache implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderSummaryCache.class);
+    private static final String KEY_PREFIX = "order:summary:";
+    private static final String GENERATION_PREFIX = "order:summary:gen:";
+    private static final RedisScript<Long> SET_IF_GENERATION = new DefaultRedisScript<>(
+        "if (redis.call('GET', KEYS[2]) or '') == ARGV[1] then "
+            + "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) return 1 end return 0",
+        Long.class);
+    public static final String INVALIDATION_CHANNEL = "order-summary-invalidation";
+    private static final TypeReference<List<OrderDto>> ORDER_LIST = new TypeReference<>() {};
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, List<OrderDto>> localCache;
+    private final Duration redisTtl;
+    private final Set<String> pendingRemoteEvictions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService evictionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-summary-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+
+    @Value("${order.summary-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.summary-cache.orders-per-user:20}")
+    private int ordersPerUser;
+
+    @Autowired
+    public OrderSummaryCache(StringRedisTemplate redisTemplate,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${order.summary-cache.local-max-users:10000}") long localMaxUsers,
+                             @Value("${order.summary-cache.local-ttl-seconds:30}") long localTtlSeconds,
+                             @Value("${order.summary-cache.redis-ttl-seconds:300}") long redisTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.redisTtl = Duration.ofSeconds(redisTtlSeconds);
+        this.localCache = Caffeine.newBuilder()
+            .maximumSize(localMaxUsers)
+            .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+            .build();
+
+        this.localHits = lookupCounter(meterRegistry, "local", "hit");
+        this.redisHits = lookupCounter(meterRegistry, "redis", "hit");
+        this.misses = lookupCounter(meterRegistry, "database", "miss");
+        meterRegistry.gauge("order.summary.cache.local.size", localCache, Cache::estimatedSize);
+    }
+
+    /**
+     * Number of recent orders cached per user
+     */
+    public int capacity() {
+        return ordersPerUser;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Recent orders for the user, newest first, loading from the database on a miss in both levels
+     */
+    public List<OrderDto> getRecentOrders(String userId, Supplier<List<OrderDto>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        List<OrderDto> local = localCache.getIfPresent(userId);
+        if (local != null) {
+            localHits.increment();
+            return local;
+        }
+
+        RedisLookup remote = readRedis(userId);
+        if (remote.orders != null) {
+            redisHits.increment();
+            localCache.put(userId, remote.orders);
+            return remote.orders;
+        }
+
+        misses.increment();
+        List<OrderDto> loaded = List.copyOf(loader.get());
+        if (remote.available) {
+            // Local copy first: an eviction landing after the generation check below also clears it
+            localCache.put(userId, loaded);
+            if (!writeRedisIfUnchanged(userId, loaded, remote.generation)) {
+                localCache.invalidate(userId);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drop the user's summary once the current transaction commits (immediately when there is none).
+     * Any number of evictions for the same user within one transaction result in a single eviction.
+     */
+    public void evict(String userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictEverywhere(userId);
+            return;
+        }
+        PendingEvictions pending = (PendingEvictions) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEvictions();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.userIds.add(userId);
+    }
+
+    /**
+     * Invalidation broadcast from any instance (including this one)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        localCache.invalidate(new String(message.getBody()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        evictionExecutor.shutdown();
+    }
+
+    /**
+     * Drop the local copy right away; queue the Redis eviction unless one is already pending for the user
+     */
+    private void evictEverywhere(String userId) {
+        localCache.invalidate(userId);
+        if (!pendingRemoteEvictions.add(userId)) {
+            return;
+        }
+        try {
+            evictionExecutor.execute(() -> {
+                // Clear before evicting so a write committed meanwhile queues another eviction
+                pendingRemoteEvictions.remove(userId);
+                evictRemote(userId);
+            });
+        } catch (Exception e) {
+            pendingRemoteEvictions.remove(userId);
+            evictRemote(userId);
+        }
+    }
+
+    private void evictRemote(String userId) {
+        try {
+            String generationKey = GENERATION_PREFIX + userId;
+            redisTemplate.opsForValue().increment(generationKey);
+            // Only has to outlive a load in progress; twice the summary TTL is plenty
+            redisTemplate.expire(generationKey, redisTtl.multipliedBy(2));
+            redisTemplate.delete(KEY_PREFIX + userId);
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, userId);
+        } catch (Exception e) {
+            logger.warn("Failed to invalidate order summary for user {} in Redis: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * The cached summary and the user's current generation, read together
+     */
+    private RedisLookup readRedis(String userId) {
+        try {
+            List<String> values = redisTemplate.opsForValue()
+                .multiGet(List.of(KEY_PREFIX + userId, GENERATION_PREFIX + userId));
+            String json = values != null ? values.get(0) : null;
+            String generation = values != null && values.get(1) != null ? values.get(1) : "";
+            return new RedisLookup(true, json != null ? objectMapper.readValue(json, ORDER_LIST) : null, generation);
+        } catch (Exception e) {
+            logger.warn("Failed to read order summary for user {} from Redis: {}", userId, e.getMessage());
+            return new RedisLookup(false, null, null);
+        }
+    }
+
+    /**
+     * Store the summary unless the user's generation moved since {@code generation} was read.
+     * Returns false when it was not stored.
+     */
+    private boolean writeRedisIfUnchanged(String userId, List<OrderDto> orders, String generation) {
+        try {
+            Long stored = redisTemplate.execute(SET_IF_GENERATION,
+                List.of(KEY_PREFIX + userId, GENERATION_PREFIX + userId),
+                generation, objectMapper.writeValueAsString(orders), String.valueOf(redisTtl.toMillis()));
+            return stored != null && stored == 1L;
+        } catch (Exception e) {
+            logger.warn("Failed to write order summary for user {} to Redis: {}", userId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Users whose summaries the current transaction changed; bound to the transaction until it completes
+     */
+    private class PendingEvictions implements TransactionSynchronization {
+
+        private final Set<String> userIds = new LinkedHashSet<>();
+
+        @Override
+        public void afterCommit() {
+            userIds.forEach(OrderSummaryCache.this::evictEverywhere);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OrderSummaryCache.this);
+        }
+    }
+
+    private static final class RedisLookup {
+
+        private final boolean available;
+        private final List<OrderDto> orders;
+        private final String generation;
+
+        private RedisLookup(boolean available, List<OrderDto> orders, String generation) {
+            this.available = available;
+            this.orders = orders;
+            this.generation = generation;
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String level, String result) {
+        return Counter.builder("order.summary.cache")
+            .description("Per-user order summary cache lookups")
+            .tag("level", level)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,283 @@
+package com.amar.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import com.amar.dto.OrderStatusUpdate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Asynchronous stage between order status changes and the STOMP broker.
+ * Updates are parked per order for a short window so a burst for one order is sent once with its
+ * latest state; each payload is serialized once and reused for the order and user topics.
+ * The pending set is bounded - updates for new orders are dropped when it is full.
+ *
+ * Outgoing updates take the same path: they are coalesced, serialized on the broadcast thread and
+ * published to the {@link OrderUpdateChannel} from there, so callers never wait on the channel.
+ * Updates received from the channel carry that payload and are sent to the broker as is.
+ */
+@Component
+public class OrderUpdateBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderUpdateBroadcaster.class);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final OrderSubscriptionRegistry subscriptionRegistry;
+    private final OrderUpdateChannel channel;
+    private final Map<UUID, OrderStatusUpdate> outbound = new LinkedHashMap<>();
+    private final Map<UUID, PendingUpdate> pending = new LinkedHashMap<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-ws-broadcast");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter sent;
+    private final Counter coalesced;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Counter skipped;
+    private final Counter published;
+    private final Counter publishFailures;
+
+    @Value("${order.websocket.broadcast.window-ms:100}")
+    private long windowMs;
+
+    @Value("${order.websocket.broadcast.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Autowired
+    public OrderUpdateBroadcaster(SimpMessagingTemplate messagingTemplate,
+                                  OrderSubscriptionRegistry subscriptionRegistry,
+                                  OrderUpdateChannel channel,
+                                  MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.subscriptionRegistry = subscriptionRegistry;
+        this.channel = channel;
+        this.sent = broadcastCounter(meterRegistry, "sent");
+        this.coalesced = broadcastCounter(meterRegistry, "coalesced");
+        this.dropped = broadcastCounter(meterRegistry, "dropped");
+        this.failed = broadcastCounter(meterRegistry, "failed");
+        this.skipped = broadcastCounter(meterRegistry, "skipped");
+        this.published = fanoutCounter(meterRegistry, "published");
+        this.publishFailures = fanoutCounter(meterRegistry, "publish_failed");
+        meterRegistry.gauge("order.websocket.broadcast.queue.depth", this, OrderUpdateBroadcaster::depth);
+    }
+
+    @PostConstruct
+    public void start() {
+        executor.scheduleWithFixedDelay(this::flush, windowMs, windowMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queue an update for every instance; it is published to the channel on the next flush.
+     * Never blocks the caller. Returns false when the update was dropped.
+     */
+    public boolean publish(OrderStatusUpdate update) {
+        synchronized (outbound) {
+            OrderStatusUpdate previous = outbound.get(update.getOrderId());
+            if (previous != null) {
+                update.setPreviousStatus(previous.getPreviousStatus());
+                outbound.put(update.getOrderId(), update);
+                coalesced.increment();
+                return true;
+            }
+            if (outbound.size() >= queueCapacity) {
+                dropped.increment();
+                logger.warn("WebSocket publish queue full ({}), dropping update for orderId: {}",
+                           queueCapacity, update.getOrderId());
+                return false;
+            }
+            outbound.put(update.getOrderId(), update);
+            return true;
+        }
+    }
+
+    /**
+     * Queue an update for this instance's clients; never blocks the caller. {@code payload} is the
+     * update as already serialized by the publisher, or null. Returns false when the update was dropped.
+     */
+    public boolean submit(OrderStatusUpdate update, byte[] payload) {
+        // Nobody on this instance is listening - nothing to queue or serialize
+        if (!subscriptionRegistry.hasOrderSubscribers(update.getOrderId())
+                && !subscriptionRegistry.hasUserSubscribers(update.getUserId())) {
+            skipped.increment();
+            return true;
+        }
+        synchronized (pending) {
+            PendingUpdate previous = pending.get(update.getOrderId());
+            if (previous != null) {
+                // Keep the transition the client has not seen yet: earliest previous status, latest state.
+                // That changes the update, so its payload has to be serialized again.
+                update.setPreviousStatus(previous.update.getPreviousStatus());
+                pending.put(update.getOrderId(), new PendingUpdate(update, null));
+                coalesced.increment();
+                return true;
+            }
+            if (pending.size() >= queueCapacity) {
+                dropped.increment();
+                logger.warn("WebSocket broadcast queue full ({}), dropping update for orderId: {}",
+                           queueCapacity, update.getOrderId());
+                return false;
+            }
+            pending.put(update.getOrderId(), new PendingUpdate(update, payload));
+            return true;
+        }
+    }
+
+    public int depth() {
+        int depth;
+        synchronized (outbound) {
+            depth = outbound.size();
+        }
+        synchronized (pending) {
+            return depth + pending.size();
+        }
+    }
+
+    /**
+     * Publish and send everything parked so far; runs on the broadcast thread every window
+     */
+    void flush() {
+        publishOutbound();
+
+        List<PendingUpdate> batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+
+        for (PendingUpdate entry : batch) {
+            try {
+                deliver(entry.update, entry.payload);
+                sent.increment();
+            } catch (Exception e) {
+                failed.increment();
+                logger.error("Failed to broadcast order status update for orderId: {}", entry.update.getOrderId(), e);
+            }
+        }
+    }
+
+    /**
+     * Serialize each outgoing update once and hand it to the channel. If the channel is unavailable the
+     * update is still delivered to this instance's clients, reusing the same payload.
+     */
+    private void publishOutbound() {
+        List<OrderStatusUpdate> batch;
+        synchronized (outbound) {
+            if (outbound.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(outbound.values());
+            outbound.clear();
+        }
+
+        for (OrderStatusUpdate update : batch) {
+            byte[] payload = null;
+            try {
+                payload = serialize(update);
+                channel.publish(update, payload);
+                published.increment();
+            } catch (Exception e) {
+                publishFailures.increment();
+                logger.warn("Failed to fan out order status update for orderId: {}, delivering locally only: {}",
+                           update.getOrderId(), e.getMessage());
+                submit(update, payload);
+            }
+        }
+    }
+
+    private void deliver(OrderStatusUpdate update, byte[] payload) {
+        if (payload == null) {
+            payload = serialize(update);
+        }
+        if (subscriptionRegistry.hasOrderSubscribers(update.getOrderId())) {
+            send("/topic/orders/" + update.getOrderId(), payload, MimeTypeUtils.APPLICATION_JSON);
+        }
+        if (subscriptionRegistry.hasUserSubscribers(update.getUserId())) {
+            send("/topic/orders/user/" + update.getUserId(), payload, MimeTypeUtils.APPLICATION_JSON);
+        }
+    }
+
+    /**
+     * JSON payload as the broker's message converter would produce it
+     */
+    private byte[] serialize(OrderStatusUpdate update) {
+        Message<?> serialized = messagingTemplate.getMessageConverter()
+            .toMessage(update, new MessageHeaders(null));
+        if (serialized == null) {
+            throw new IllegalStateException("No message converter for " + update.getClass().getName());
+        }
+        Object payload = serialized.getPayload();
+        return payload instanceof byte[] bytes ? bytes : payload.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void send(String destination, Object payload, MimeType contentType) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        if (contentType != null) {
+            accessor.setContentType(contentType);
+        }
+        messagingTemplate.send(destination, MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+        logger.debug("Sent order status update to topic: {}", destination);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        flush();
+    }
+
+    private static Counter fanoutCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("order.websocket.fanout")
+            .description("Order status updates crossing the inter-instance channel")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static Counter broadcastCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("order.websocket.broadcast")
+            .description("Order status updates handled by the WebSocket broadcast stage")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static final class PendingUpdate {
+
+        private final OrderStatusUpdate update;
+        private final byte[] payload;
+
+        private PendingUpdate(OrderStatusUpdate update, byte[] payload) {
+            this.update = update;
+            this.payload = payload;
+        }
+    }
+}
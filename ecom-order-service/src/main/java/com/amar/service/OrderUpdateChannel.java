@@ -0,0 +1,23 @@
+package com.amar.service;
+
+import java.util.function.BiConsumer;
+
+import com.amar.dto.OrderStatusUpdate;
+
+/**
+ * Shared channel that carries order status updates to every order-service instance,
+ * so each one can deliver to the WebSocket clients connected to it
+ */
+public interface OrderUpdateChannel {
+
+    /**
+     * Publish an update to all instances, including this one. {@code payload} is the update already
+     * serialized as JSON; it is what travels on the channel.
+     */
+    void publish(OrderStatusUpdate update, byte[] payload);
+
+    /**
+     * Register the handler invoked for every update received from the channel, with its JSON payload
+     */
+    void subscribe(BiConsumer<OrderStatusUpdate, byte[]> handler);
+}
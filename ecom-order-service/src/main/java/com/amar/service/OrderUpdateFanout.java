@@ -0,0 +1,45 @@
+package com.amar.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.amar.dto.OrderStatusUpdate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Routes order status updates through the shared {@link OrderUpdateChannel} and hands whatever
+ * arrives from it to the local broadcast stage. Publishing is queued on the broadcast stage, which
+ * serializes each update once and falls back to local delivery if the channel is unavailable.
+ */
+@Component
+public class OrderUpdateFanout {
+
+    private final OrderUpdateBroadcaster broadcaster;
+    private final Counter received;
+
+    @Autowired
+    public OrderUpdateFanout(OrderUpdateChannel channel,
+                             OrderUpdateBroadcaster broadcaster,
+                             MeterRegistry meterRegistry) {
+        this.broadcaster = broadcaster;
+        this.received = Counter.builder("order.websocket.fanout")
+            .description("Order status updates crossing the inter-instance channel")
+            .tag("outcome", "received")
+            .register(meterRegistry);
+        channel.subscribe(this::deliverLocally);
+    }
+
+    /**
+     * Queue an update for every instance; never blocks the caller
+     */
+    public void publish(OrderStatusUpdate update) {
+        broadcaster.publish(update);
+    }
+
+    private void deliverLocally(OrderStatusUpdate update, byte[] payload) {
+        received.increment();
+        broadcaster.submit(update, payload);
+    }
+}
@@ -1,16 +1,13 @@
 package com.amar.service;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
@@ -31,18 +28,20 @@ public class OrderWebSocketService {
     private final SimpMessagingTemplate messagingTemplate;
     private final OrderRepository orderRepository;
     private final OrderService orderService;
-
-    // Track active subscriptions for connection management
-    private final ConcurrentMap<UUID, Long> activeOrderSubscriptions = new ConcurrentHashMap<>();
-    private final ConcurrentMap<String, Long> activeUserSubscriptions = new ConcurrentHashMap<>();
+    private final OrderUpdateFanout updateFanout;
+    private final OrderSubscriptionRegistry subscriptionRegistry;
 
     @Autowired
     public OrderWebSocketService(SimpMessagingTemplate messagingTemplate,
                                 OrderRepository orderRepository,
-                                @Lazy OrderService orderService) {
+                                @Lazy OrderService orderService,
+                                OrderUpdateFanout updateFanout,
+                                OrderSubscriptionRegistry subscriptionRegistry) {
         this.messagingTemplate = messagingTemplate;
         this.orderRepository = orderRepository;
         this.orderService = orderService;
+        this.updateFanout = updateFanout;
+        this.subscriptionRegistry = subscriptionRegistry;
     }
 
     // =====================================================
@@ -53,9 +52,8 @@ public class OrderWebSocketService {
      * Handle new subscription to order updates
      */
     public void handleOrderSubscription(UUID orderId) {
-        activeOrderSubscriptions.put(orderId, System.currentTimeMillis());
-        logger.debug("Added order subscription for orderId: {} (Total active: {})", 
-                    orderId, activeOrderSubscriptions.size());
+        // Session bookkeeping happens in OrderSubscriptionRegistry from the broker's subscribe events
+        logger.debug("Handling order subscription for orderId: {}", orderId);
         
         // Send current order status immediately upon subscription
         sendCurrentOrderStatus(orderId);
@@ -65,9 +63,7 @@ public class OrderWebSocketService {
      * Handle new subscription to user orders
      */
     public void handleUserOrdersSubscription(String userId) {
-        activeUserSubscriptions.put(userId, System.currentTimeMillis());
-        logger.debug("Added user orders subscription for userId: {} (Total active: {})", 
-                    userId, activeUserSubscriptions.size());
+        logger.debug("Handling user orders subscription for userId: {}", userId);
         
         // Send current user orders immediately upon subscription
         sendCurrentUserOrders(userId);
@@ -90,23 +86,9 @@ public class OrderWebSocketService {
      * Broadcast order status update to all subscribed clients
      */
     public void broadcastOrderStatusUpdate(OrderStatusUpdate update) {
-        try {
-            // Send to order-specific topic
-            String orderTopic = "/topic/orders/" + update.getOrderId();
-            messagingTemplate.convertAndSend(orderTopic, update);
-            logger.debug("Sent order status update to topic: {}", orderTopic);
-
-            // Send to user-specific topic if userId is available
-            if (update.getUserId() != null) {
-                String userTopic = "/topic/orders/user/" + update.getUserId();
-                messagingTemplate.convertAndSend(userTopic, update);
-                logger.debug("Sent order status update to user topic: {}", userTopic);
-            }
-
-        } catch (Exception e) {
-            logger.error("Failed to broadcast order status update for orderId: {}", 
-                        update.getOrderId(), e);
-        }
+        // Every instance receives it from the shared channel and hands it to its own broadcast stage,
+        // so clients see the update whichever instance they are connected to
+        updateFanout.publish(update);
     }
 
     /**
@@ -188,16 +170,16 @@ public class OrderWebSocketService {
      */
     private void sendCurrentUserOrders(String userId) {
         try {
-            Page<OrderDto> orders = orderService.getOrdersByUserId(userId, PageRequest.of(0, 10));
+            List<OrderDto> orders = orderService.getRecentOrdersForUser(userId, 10);
             
-            for (OrderDto order : orders.getContent()) {
+            for (OrderDto order : orders) {
                 OrderStatusUpdate update = createOrderStatusUpdate(order);
                 String userTopic = "/topic/orders/user/" + userId;
                 messagingTemplate.convertAndSend(userTopic, update);
             }
             
             logger.debug("Sent {} current orders to user topic for userId: {}", 
-                        orders.getContent().size(), userId);
+                        orders.size(), userId);
             
         } catch (Exception e) {
             logger.error("Failed to send current user orders for userId: {}", userId, e);
@@ -298,39 +280,19 @@ public class OrderWebSocketService {
     // =====================================================
 
     /**
-     * Clean up inactive subscriptions (can be called periodically)
+     * Clean up inactive subscriptions (also runs on the registry's own schedule)
      */
     public void cleanupInactiveSubscriptions() {
-        long currentTime = System.currentTimeMillis();
-        long timeout = 30 * 60 * 1000; // 30 minutes timeout
-
-        // Clean up order subscriptions
-        activeOrderSubscriptions.entrySet().removeIf(entry -> {
-            boolean isInactive = (currentTime - entry.getValue()) > timeout;
-            if (isInactive) {
-                logger.debug("Removed inactive order subscription for orderId: {}", entry.getKey());
-            }
-            return isInactive;
-        });
-
-        // Clean up user subscriptions
-        activeUserSubscriptions.entrySet().removeIf(entry -> {
-            boolean isInactive = (currentTime - entry.getValue()) > timeout;
-            if (isInactive) {
-                logger.debug("Removed inactive user subscription for userId: {}", entry.getKey());
-            }
-            return isInactive;
-        });
-
-        logger.debug("Active subscriptions after cleanup - Orders: {}, Users: {}", 
-                    activeOrderSubscriptions.size(), activeUserSubscriptions.size());
+        subscriptionRegistry.evictIdleSessions();
     }
 
     /**
      * Get statistics about active connections
      */
     public String getConnectionStats() {
-        return String.format("Active WebSocket Subscriptions - Orders: %d, Users: %d", 
-                           activeOrderSubscriptions.size(), activeUserSubscriptions.size());
+        return String.format("Active WebSocket Sessions: %d, Subscriptions - Orders: %d, Users: %d",
+                           subscriptionRegistry.getSessionCount(),
+                           subscriptionRegistry.getOrderSubscriptionCount(),
+                           subscriptionRegistry.getUserSubscriptionCount());
     }
-}
\ No newline at end of file
+}
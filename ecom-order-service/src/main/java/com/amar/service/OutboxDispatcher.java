@@ -0,0 +1,79 @@
+package com.amar.service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs the outbox relay on demand instead of waiting for the next poll.
+ * Wake-ups are coalesced: any number of wakes while a run is queued result in a single extra run.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final EventOutboxService eventOutboxService;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean runQueued = new AtomicBoolean(false);
+
+    @Autowired
+    public OutboxDispatcher(@Lazy EventOutboxService eventOutboxService) {
+        this.eventOutboxService = eventOutboxService;
+    }
+
+    /**
+     * Wake the relay once the current transaction commits (immediately when there is none)
+     */
+    public void wakeAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wake();
+                }
+            });
+        } else {
+            wake();
+        }
+    }
+
+    public void wake() {
+        if (!runQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                // Clear before running so events committed during this run trigger another pass
+                runQueued.set(false);
+                try {
+                    eventOutboxService.processOutboxEvents();
+                } catch (Exception e) {
+                    logger.error("Outbox dispatch failed; the scheduled poll will retry", e);
+                }
+            });
+        } catch (Exception e) {
+            runQueued.set(false);
+            logger.warn("Could not schedule outbox dispatch: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,98 @@
+package com.amar.service;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Listens on the PostgreSQL outbox channel so that events committed by any order-service
+ * instance wake the relay here too. Holds one dedicated connection while running.
+ */
+@Component
+@ConditionalOnProperty(name = "order.outbox.notify.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxNotificationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxNotificationListener.class);
+
+    private final DataSource dataSource;
+    private final OutboxDispatcher outboxDispatcher;
+
+    @Value("${order.outbox.notify.channel:order_outbox}")
+    private String channel;
+
+    @Value("${order.outbox.notify.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    @Autowired
+    public OutboxNotificationListener(DataSource dataSource, OutboxDispatcher outboxDispatcher) {
+        this.dataSource = dataSource;
+        this.outboxDispatcher = outboxDispatcher;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "outbox-notify-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                logger.info("Listening for outbox notifications on channel {}", channel);
+
+                // Catch up on anything committed while we were not listening
+                outboxDispatcher.wake();
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(10000);
+                    if (notifications != null && notifications.length > 0) {
+                        outboxDispatcher.wake();
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Outbox notification listener lost its connection: {}. Reconnecting in {}ms",
+                           e.getMessage(), reconnectDelayMs);
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.amar.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.amar.repository.OutboxRetentionRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Removes processed outbox events past the retention window.
+ *
+ * When order_service.event_outbox is partitioned by day (migration 019, context "outbox-partitioned"),
+ * whole partitions are dropped; otherwise rows are deleted in bounded chunks, one statement per chunk,
+ * each in its own short transaction.
+ */
+@Service
+public class OutboxRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRetentionService.class);
+    private static final DateTimeFormatter PARTITION_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final String PARTITION_PREFIX = "event_outbox_p";
+
+    private final OutboxRetentionRepository retentionRepository;
+    private final Counter rowsReclaimed;
+    private final Counter bytesReclaimed;
+
+    @Value("${order.outbox.retention.days:7}")
+    private int retentionDays;
+
+    @Value("${order.outbox.retention.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${order.outbox.retention.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    @Value("${order.outbox.retention.partitions-ahead:3}")
+    private int partitionsAhead;
+
+    @Autowired
+    public OutboxRetentionService(OutboxRetentionRepository retentionRepository, MeterRegistry meterRegistry) {
+        this.retentionRepository = retentionRepository;
+        this.rowsReclaimed = Counter.builder("outbox.retention.reclaimed.rows")
+            .description("Processed outbox rows removed by retention")
+            .register(meterRegistry);
+        this.bytesReclaimed = Counter.builder("outbox.retention.reclaimed.bytes")
+            .description("Bytes released by outbox retention")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Cleanup old processed events
+     */
+    @Scheduled(fixedDelayString = "${order.outbox.retention.interval-ms:3600000}") // Every hour
+    public void cleanupOldEvents() {
+        try {
+            long[] reclaimed = retentionRepository.isPartitioned() ? dropExpiredPartitions() : deleteInChunks();
+            rowsReclaimed.increment(reclaimed[0]);
+            bytesReclaimed.increment(reclaimed[1]);
+            if (reclaimed[0] > 0) {
+                logger.info("Outbox retention reclaimed {} rows ({} bytes)", reclaimed[0], reclaimed[1]);
+            }
+        } catch (Exception e) {
+            logger.error("Outbox retention run failed", e);
+        }
+    }
+
+    private long[] deleteInChunks() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long rows = 0;
+        long bytes = 0;
+
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            long[] deleted = retentionRepository.deleteProcessedChunk(cutoff, chunkSize);
+            rows += deleted[0];
+            bytes += deleted[1];
+            if (deleted[0] < chunkSize) {
+                break;
+            }
+        }
+        return new long[]{rows, bytes};
+    }
+
+    private long[] dropExpiredPartitions() {
+        LocalDate today = LocalDate.now();
+        retentionRepository.ensurePartitions(today, partitionsAhead);
+
+        // A partition is expired when its whole day is older than the cutoff
+        LocalDate cutoff = today.minusDays(retentionDays);
+        long rows = 0;
+        long bytes = 0;
+
+        for (String partition : retentionRepository.findDailyPartitions()) {
+            LocalDate day = LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_DATE);
+            if (!day.isBefore(cutoff)) {
+                break;
+            }
+            if (retentionRepository.hasPendingEvents(partition)) {
+                logger.warn("Skipping outbox partition {} - it still holds unprocessed events", partition);
+                continue;
+            }
+            long[] dropped = retentionRepository.dropPartition(partition);
+            rows += dropped[0];
+            bytes += dropped[1];
+            logger.info("Dropped outbox partition {} ({} rows, {} bytes)", partition, dropped[0], dropped[1]);
+        }
+        return new long[]{rows, bytes};
+    }
+}
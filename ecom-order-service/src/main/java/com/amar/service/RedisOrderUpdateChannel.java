@@ -0,0 +1,71 @@
+package com.amar.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import com.amar.dto.OrderStatusUpdate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Fans order status updates out to all instances over Redis pub/sub.
+ * Every instance, the publisher included, receives the update and delivers it to its own sessions.
+ */
+@Component
+@ConditionalOnProperty(name = "order.websocket.fanout.mode", havingValue = "redis", matchIfMissing = true)
+public class RedisOrderUpdateChannel implements OrderUpdateChannel, MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisOrderUpdateChannel.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final List<BiConsumer<OrderStatusUpdate, byte[]>> handlers = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public RedisOrderUpdateChannel(StringRedisTemplate redisTemplate,
+                                   ObjectMapper objectMapper,
+                                   @Value("${order.websocket.fanout.channel:order-status-updates}") String channel) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    @Override
+    public void publish(OrderStatusUpdate update, byte[] payload) {
+        redisTemplate.convertAndSend(channel, new String(payload, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void subscribe(BiConsumer<OrderStatusUpdate, byte[]> handler) {
+        handlers.add(handler);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        byte[] payload = message.getBody();
+        OrderStatusUpdate update;
+        try {
+            update = objectMapper.readValue(payload, OrderStatusUpdate.class);
+        } catch (Exception e) {
+            logger.error("Discarding malformed order status update from channel {}: {}", channel, e.getMessage());
+            return;
+        }
+        handlers.forEach(handler -> handler.accept(update, payload));
+    }
+}
@@ -0,0 +1,143 @@
+package com.amar.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Closed-loop load test against a running order service, reporting throughput, latency and the
+ * server's thread counts. Run it once per threading mode and compare the two reports:
+ *
+ * <pre>
+ * VIRTUAL_THREADS_ENABLED=false java -jar ecom-order-service.jar   (Java 21 runtime)
+ * mvn -pl ecom-order-service test -Pload-test -Dload.target=http://localhost:8083 -Dload.label=platform
+ *
+ * VIRTUAL_THREADS_ENABLED=true java -jar ecom-order-service.jar
+ * mvn -pl ecom-order-service test -Pload-test -Dload.target=http://localhost:8083 -Dload.label=virtual
+ * </pre>
+ *
+ * The default path reads order history, which goes through the blocking WebClient/JDBC paths
+ * without creating data; point load.path at another endpoint to exercise something else.
+ * Skipped unless load.target is set; excluded from the normal build by the "load" tag.
+ */
+@Tag("load")
+class ThreadingModeLoadTest {
+
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    private final String target = System.getProperty("load.target");
+    private final String path = System.getProperty("load.path", "/api/v1/orders/user/load-test-user?size=10");
+    private final String label = System.getProperty("load.label", "unlabelled");
+    private final int concurrency = Integer.getInteger("load.concurrency", 400);
+    private final int warmupSeconds = Integer.getInteger("load.warmup-seconds", 10);
+    private final int durationSeconds = Integer.getInteger("load.duration-seconds", 60);
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .executor(Executors.newFixedThreadPool(8))
+        .build();
+
+    @Test
+    void measureThroughputAndServerThreads() throws Exception {
+        assumeTrue(target != null && !target.isBlank(), "load.target not set");
+
+        run(warmupSeconds, new ArrayList<>(), new AtomicLong());
+
+        double threadsBefore = metric("jvm.threads.live");
+        List<Long> latenciesMicros = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong errors = new AtomicLong();
+        long elapsedNanos = run(durationSeconds, latenciesMicros, errors);
+        double threadsPeak = metric("jvm.threads.peak");
+        double threadsAfter = metric("jvm.threads.live");
+
+        List<Long> sorted = new ArrayList<>(latenciesMicros);
+        Collections.sort(sorted);
+        double throughput = sorted.size() / (elapsedNanos / 1e9);
+
+        System.out.printf("%n=== Load test [%s] %s%s ===%n", label, target, path);
+        System.out.printf("concurrency=%d duration=%ds requests=%d errors=%d%n",
+                          concurrency, durationSeconds, sorted.size(), errors.get());
+        System.out.printf("throughput=%.1f req/s p50=%.1fms p99=%.1fms max=%.1fms%n", throughput,
+                          percentile(sorted, 0.50) / 1000.0, percentile(sorted, 0.99) / 1000.0,
+                          percentile(sorted, 1.0) / 1000.0);
+        System.out.printf("server threads: live before=%.0f after=%.0f peak=%.0f%n",
+                          threadsBefore, threadsAfter, threadsPeak);
+
+        assertTrue(!sorted.isEmpty(), "no request completed");
+    }
+
+    /**
+     * Each worker issues requests back to back until the deadline; returns the elapsed time
+     */
+    private long run(int seconds, List<Long> latenciesMicros, AtomicLong errors) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + path))
+            .timeout(Duration.ofSeconds(30))
+            .GET()
+            .build();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 500) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        latenciesMicros.add((System.nanoTime() - sent) / 1000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        return System.nanoTime() - start;
+    }
+
+    private double metric(String name) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/actuator/metrics/" + name))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+            Matcher matcher = METRIC_VALUE.matcher(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+            return matcher.find() ? Double.parseDouble(matcher.group(1)) : Double.NaN;
+        } catch (Exception e) {
+            return Double.NaN;
+        }
+    }
+
+    private static long percentile(List<Long> sorted, double quantile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+}
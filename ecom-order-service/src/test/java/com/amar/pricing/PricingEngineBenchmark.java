@@ -0,0 +1,89 @@
+package com.amar.pricing;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.amar.dto.CreateOrderItemRequest;
+import com.amar.dto.ProductDto;
+
+/**
+ * Cost of pricing one order against an in-memory rule snapshot (no I/O). Add -prof gc to the
+ * JMH arguments to see allocation per order:
+ *
+ * <pre>
+ * mvn -pl ecom-order-service test-compile exec:exec -Pbenchmark -Djmh.args="PricingEngineBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PricingEngineBenchmark {
+
+    @Param({"100"})
+    private int lines;
+
+    private PricingEngine engine;
+    private PricingRules rules;
+    private List<CreateOrderItemRequest> items;
+    private Map<Long, ProductDto> products;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        List<PricingRules.TaxRate> taxRates = new ArrayList<>();
+        String[] states = {"CA", "NY", "TX", "WA", "FL", "IL", "MA", "OR", "NV", "CO"};
+        for (int i = 0; i < states.length; i++) {
+            taxRates.add(new PricingRules.TaxRate("US", states[i], new BigDecimal("0.0" + (50 + i * 3))));
+        }
+        taxRates.add(new PricingRules.TaxRate("US", null, new BigDecimal("0.0600")));
+        rules = PricingRules.of(taxRates,
+            List.of(new PricingRules.ShippingRate("STANDARD", new BigDecimal("9.99"), new BigDecimal("0.50"),
+                                                  new BigDecimal("5000.00")),
+                    new PricingRules.ShippingRate("EXPRESS", new BigDecimal("19.99"), BigDecimal.ZERO, null)),
+            List.of(new PricingRules.Coupon("SAVE10", PricingRules.DiscountType.PERCENT, new BigDecimal("0.10"),
+                                            null, new BigDecimal("250.00"), null, null)),
+            new BigDecimal("0.085"), new BigDecimal("9.99"));
+        engine = new PricingEngine(() -> rules);
+
+        items = new ArrayList<>(lines);
+        products = new HashMap<>();
+        for (int i = 0; i < lines; i++) {
+            long productId = 1000L + i;
+            CreateOrderItemRequest item = new CreateOrderItemRequest();
+            item.setProductId(productId);
+            item.setQuantity(1 + i % 5);
+            items.add(item);
+
+            ProductDto product = new ProductDto();
+            product.setId(productId);
+            product.setPrice(BigDecimal.valueOf(499 + i * 137L, 2));
+            products.put(productId, product);
+        }
+        now = LocalDateTime.now();
+    }
+
+    @Benchmark
+    public PricedOrder priceOrder() {
+        return engine.price(rules, items, products, "STANDARD", "US", "CA", "SAVE10", now);
+    }
+}
@@ -0,0 +1,116 @@
+package com.amar.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.amar.entity.order.ItemFulfillmentStatus;
+import com.amar.entity.order.Order;
+import com.amar.entity.order.OrderItem;
+import com.amar.entity.order.OrderStatus;
+import com.amar.entity.order.PaymentStatus;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Guards the listing read path against N+1 regressions by counting the SQL statements per page
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class OrderListingQueryCountTest {
+
+    private static final int ORDERS = 6;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ORDERS; i++) {
+            entityManager.persist(order("user-1", i));
+        }
+        entityManager.persist(order("user-2", ORDERS));
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void userOrderPageUsesConstantNumberOfQueries() {
+        Page<UUID> ids = orderRepository.findIdsByUserId("user-1", PageRequest.of(0, 4));
+        List<Order> orders = orderRepository.findWithItemsByIdIn(ids.getContent());
+        int items = orders.stream().mapToInt(order -> order.getItems().size()).sum();
+
+        assertEquals(4, orders.size());
+        assertEquals(4 * ITEMS_PER_ORDER, items);
+        assertEquals(ORDERS, ids.getTotalElements());
+        // id page + count + one fetch of orders with items, regardless of page size
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void searchPageUsesConstantNumberOfQueries() {
+        Page<UUID> ids = orderRepository.searchOrderIds(null, OrderStatus.CONFIRMED, null, null, PageRequest.of(0, 10));
+        List<Order> orders = orderRepository.findWithItemsByIdIn(ids.getContent());
+        orders.forEach(order -> order.getItems().forEach(OrderItem::getProductName));
+
+        assertEquals(ORDERS + 1, orders.size());
+        // Last page is partial, so Spring Data skips the count query
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private Order order(String userId, int index) {
+        Order order = new Order();
+        order.setUserId(userId);
+        order.setOrderNumber("ORD-20240101-" + String.format("%05d", index + 1));
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setPaymentStatus(PaymentStatus.PAID);
+        order.setTotalAmount(new BigDecimal("30.00"));
+        order.setSubtotal(new BigDecimal("30.00"));
+        order.setCustomerEmail(userId + "@example.com");
+
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setProductId((long) i + 1);
+            item.setProductName("Product " + (i + 1));
+            item.setProductSku("SKU-" + (i + 1));
+            item.setQuantity(1);
+            item.setUnitPrice(new BigDecimal("10.00"));
+            item.setTotalPrice(new BigDecimal("10.00"));
+            item.setFulfillmentStatus(ItemFulfillmentStatus.PENDING);
+            items.add(item);
+        }
+        order.setItems(items);
+        return order;
+    }
+}
@@ -0,0 +1,123 @@
+package com.amar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class OrderNumberAllocatorTest {
+
+    /**
+     * Stands in for the order_number_blocks upsert: one atomic counter per day shared by all "instances"
+     */
+    private static class InMemoryBlockStore {
+        private final Map<LocalDate, AtomicLong> counters = new ConcurrentHashMap<>();
+
+        long reserve(LocalDate date, int size) {
+            return counters.computeIfAbsent(date, d -> new AtomicLong()).addAndGet(size);
+        }
+    }
+
+    private static class TestAllocator extends OrderNumberAllocator {
+        private final InMemoryBlockStore store;
+
+        TestAllocator(InMemoryBlockStore store, Clock clock, int blockSize) {
+            super(null, clock);
+            this.store = store;
+            setBlockSize(blockSize);
+        }
+
+        @Override
+        protected long reserveBlock(LocalDate date, int size) {
+            return store.reserve(date, size);
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private volatile Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    @Test
+    void allocatesUniqueNumbersAcrossInstancesAndThreads() throws Exception {
+        InMemoryBlockStore store = new InMemoryBlockStore();
+        Clock clock = Clock.fixed(Instant.parse("2024-03-15T10:00:00Z"), ZoneOffset.UTC);
+        List<OrderNumberAllocator> instances = List.of(
+                new TestAllocator(store, clock, 7),
+                new TestAllocator(store, clock, 7),
+                new TestAllocator(store, clock, 7));
+
+        int threads = 32;
+        int perThread = 500;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            OrderNumberAllocator allocator = instances.get(t % instances.size());
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    assertTrue(issued.add(allocator.nextOrderNumber()), "duplicate order number issued");
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertEquals(threads * perThread, issued.size());
+        assertTrue(issued.stream().allMatch(n -> n.matches("ORD-20240315-\\d{5,}")));
+    }
+
+    @Test
+    void restartsNumberingOnNewDay() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-03-15T23:59:59Z"));
+        OrderNumberAllocator allocator = new TestAllocator(new InMemoryBlockStore(), clock, 10);
+
+        assertEquals("ORD-20240315-00001", allocator.nextOrderNumber());
+        assertEquals("ORD-20240315-00002", allocator.nextOrderNumber());
+
+        clock.instant = Instant.parse("2024-03-16T00:00:01Z");
+        assertEquals("ORD-20240316-00001", allocator.nextOrderNumber());
+    }
+}
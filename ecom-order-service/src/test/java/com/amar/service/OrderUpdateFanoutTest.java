@@ -0,0 +1,157 @@
+package com.amar.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.amar.dto.OrderStatusUpdate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Two order-service instances wired to an in-memory stand-in for Redis pub/sub
+ */
+class OrderUpdateFanoutTest {
+
+    private static final String CHANNEL = "order-status-updates";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private EmbeddedPubSub pubSub;
+    private Instance instanceA;
+    private Instance instanceB;
+
+    @BeforeEach
+    void setUp() {
+        pubSub = new EmbeddedPubSub();
+        instanceA = new Instance();
+        instanceB = new Instance();
+    }
+
+    @Test
+    void updatePublishedOnOneInstanceIsDeliveredByEveryInstance() throws Exception {
+        OrderStatusUpdate update = new OrderStatusUpdate(UUID.randomUUID(), "ORD-20240101-00001", "user-1",
+                                                         "PENDING", "CONFIRMED", "Payment completed");
+
+        instanceA.fanout.publish(update);
+        // Publishing only queues; the channel is used from the broadcast thread
+        assertEquals(0, pubSub.published.size());
+
+        instanceA.broadcaster.flush();
+        instanceB.broadcaster.flush();
+
+        assertEquals(1, pubSub.published.size());
+        byte[] payload = pubSub.published.get(0);
+        for (Instance instance : List.of(instanceA, instanceB)) {
+            byte[] sent = instance.sentTo("/topic/orders/" + update.getOrderId());
+            // The payload serialized by the publisher is what every instance sends to its clients
+            assertArrayEquals(payload, sent);
+            OrderStatusUpdate delivered = objectMapper.readValue(sent, OrderStatusUpdate.class);
+            assertEquals(update.getOrderId(), delivered.getOrderId());
+            assertEquals("user-1", delivered.getUserId());
+            assertEquals("PENDING", delivered.getPreviousStatus());
+            assertEquals("CONFIRMED", delivered.getNewStatus());
+        }
+    }
+
+    @Test
+    void channelOutageFallsBackToLocalDelivery() {
+        pubSub.down = true;
+        OrderStatusUpdate update = new OrderStatusUpdate(UUID.randomUUID(), "ORD-20240101-00002", "user-2",
+                                                         "CONFIRMED", "SHIPPED", "Shipped");
+
+        instanceA.fanout.publish(update);
+        instanceA.broadcaster.flush();
+        instanceB.broadcaster.flush();
+
+        verify(instanceA.messagingTemplate, times(1)).send(eq("/topic/orders/" + update.getOrderId()), any());
+        verify(instanceB.messagingTemplate, never()).send(anyString(), any());
+    }
+
+    @Test
+    void malformedMessageIsDiscarded() {
+        instanceB.channel.onMessage(new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+                                                       "not-json".getBytes(StandardCharsets.UTF_8)), null);
+        instanceB.broadcaster.flush();
+
+        verify(instanceB.messagingTemplate, never()).send(anyString(), any());
+    }
+
+    /**
+     * One order-service instance whose clients are subscribed to every order
+     */
+    private class Instance {
+
+        private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+        private final RedisOrderUpdateChannel channel = new RedisOrderUpdateChannel(pubSub, objectMapper, CHANNEL);
+        private final OrderUpdateBroadcaster broadcaster;
+        private final OrderUpdateFanout fanout;
+
+        Instance() {
+            MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+            converter.setObjectMapper(objectMapper);
+            when(messagingTemplate.getMessageConverter()).thenReturn(converter);
+            OrderSubscriptionRegistry subscriptionRegistry = mock(OrderSubscriptionRegistry.class);
+            when(subscriptionRegistry.hasOrderSubscribers(any())).thenReturn(true);
+
+            broadcaster = new OrderUpdateBroadcaster(messagingTemplate, subscriptionRegistry, channel,
+                                                     new SimpleMeterRegistry());
+            ReflectionTestUtils.setField(broadcaster, "queueCapacity", 100);
+            fanout = new OrderUpdateFanout(channel, broadcaster, new SimpleMeterRegistry());
+            pubSub.subscribers.add(channel);
+        }
+
+        @SuppressWarnings("unchecked")
+        byte[] sentTo(String destination) {
+            ArgumentCaptor<Message<?>> message = ArgumentCaptor.forClass(Message.class);
+            verify(messagingTemplate, times(1)).send(eq(destination), message.capture());
+            return (byte[]) message.getValue().getPayload();
+        }
+    }
+
+    /**
+     * Delivers every published message synchronously to all subscribed instances
+     */
+    private static class EmbeddedPubSub extends StringRedisTemplate {
+
+        private final List<RedisOrderUpdateChannel> subscribers = new CopyOnWriteArrayList<>();
+        private final List<byte[]> published = new CopyOnWriteArrayList<>();
+        private volatile boolean down;
+
+        @Override
+        public Long convertAndSend(String channel, Object message) {
+            if (down) {
+                throw new RedisConnectionFailureException("Redis is down");
+            }
+            byte[] body = message.toString().getBytes(StandardCharsets.UTF_8);
+            published.add(body);
+            DefaultMessage redisMessage = new DefaultMessage(channel.getBytes(StandardCharsets.UTF_8), body);
+            subscribers.forEach(subscriber -> subscriber.onMessage(redisMessage, null));
+            return (long) subscribers.size();
+        }
+    }
+}
@@ -216,6 +216,30 @@ public class InventoryController {
         }
     }
 
+    @PostMapping("/availability/bulk")
+    public ResponseEntity<Map<String, Object>> checkBulkAvailability(@RequestBody Map<Long, Integer> productQuantities) {
+        logger.info("Checking bulk availability for {} products", productQuantities.size());
+
+        try {
+            InventoryAvailabilityResponse availability = inventoryService.bulkCheckAvailability(productQuantities);
+            Map<String, Object> response = new HashMap<>();
+            response.put("service", "inventory-service");
+            response.put("success", true);
+            response.put("data", availability);
+            response.put("message", "Bulk availability checked successfully");
+            response.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(response);
+        } catch (Exception ex) {
+            logger.error("Failed to check bulk availability for products: {}", productQuantities.keySet(), ex);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("service", "inventory-service");
+            errorResponse.put("success", false);
+            errorResponse.put("error", "Failed to check bulk availability: " + ex.getMessage());
+            errorResponse.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
     @PostMapping
     public ResponseEntity<Map<String, Object>> createInventory(@RequestBody Map<String, Object> inventoryData) {
         logger.info("Creating inventory for product ID: {}", inventoryData.get("productId"));
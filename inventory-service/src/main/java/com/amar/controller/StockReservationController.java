@@ -3,6 +3,7 @@ package com.amar.controller;
 import com.amar.dto.InventoryReservationDto;
 import com.amar.dto.request.StockReservationRequest;
 import com.amar.dto.response.StockReservationResponse;
+import com.amar.service.ExpiredReservationSweeper;
 import com.amar.service.StockReservationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,10 +26,13 @@ public class StockReservationController {
     private static final Logger logger = LoggerFactory.getLogger(StockReservationController.class);
 
     private final StockReservationService stockReservationService;
+    private final ExpiredReservationSweeper expiredReservationSweeper;
 
     @Autowired
-    public StockReservationController(StockReservationService stockReservationService) {
+    public StockReservationController(StockReservationService stockReservationService,
+                                      ExpiredReservationSweeper expiredReservationSweeper) {
         this.stockReservationService = stockReservationService;
+        this.expiredReservationSweeper = expiredReservationSweeper;
     }
 
     // Create new stock reservation
@@ -247,11 +251,12 @@ public class StockReservationController {
         logger.info("Manually triggering cleanup of expired reservations");
         
         try {
-            stockReservationService.cleanupExpiredReservations();
+            int released = expiredReservationSweeper.sweep();
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Expired reservations cleanup completed");
+            response.put("releasedReservations", released);
             response.put("cleanedAt", LocalDateTime.now());
 
             return ResponseEntity.ok(response);
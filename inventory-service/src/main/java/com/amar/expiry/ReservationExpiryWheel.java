@@ -0,0 +1,179 @@
+package com.amar.expiry;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.amar.repository.InventoryJdbcRepository;
+import com.amar.service.ExpiredReservationSweeper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Releases reservations within about one tick of their expiry instead of waiting for the next
+ * table poll.
+ *
+ * Request threads only record the latest deadline per reservation and queue it; a single scheduled
+ * tick drains the queue into a {@link TimingWheel}, advances it to the current time and hands the
+ * due ids to {@link ExpiredReservationSweeper#releaseDue}, which claims them with SKIP LOCKED. A
+ * fired entry whose deadline was since moved (extension) or cleared (commit/release) is ignored, and
+ * the claim re-checks the row, so ids of rolled-back, committed or already released reservations
+ * cost nothing. Several instances may track the same reservation; only one claim succeeds.
+ *
+ * The wheel lives in memory: on startup it is rebuilt from the active rows of
+ * inventory_reservations, and the sweeper's slow poll still releases anything it missed.
+ */
+@Component
+public class ReservationExpiryWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationExpiryWheel.class);
+
+    private record Deadline(UUID reservationId, long deadlineMillis) {
+    }
+
+    private final ExpiredReservationSweeper sweeper;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final boolean enabled;
+
+    private final Map<UUID, Long> deadlines = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Deadline> incoming = new ConcurrentLinkedQueue<>();
+    private final TimingWheel<Deadline> wheel;
+    private final AtomicInteger wheelSize = new AtomicInteger();
+
+    private final Counter releasedCounter;
+    private final Counter skippedCounter;
+    private final Counter failedCounter;
+
+    @Autowired
+    public ReservationExpiryWheel(ExpiredReservationSweeper sweeper,
+                                  InventoryJdbcRepository inventoryJdbcRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${inventory.reservation.expiry-wheel.enabled:true}") boolean enabled,
+                                  @Value("${inventory.reservation.expiry-wheel.tick-ms:1000}") long tickMs,
+                                  @Value("${inventory.reservation.expiry-wheel.slots-per-level:64}") int slotsPerLevel,
+                                  @Value("${inventory.reservation.expiry-wheel.levels:3}") int levels) {
+        this.sweeper = sweeper;
+        this.inventoryJdbcRepository = inventoryJdbcRepository;
+        this.enabled = enabled;
+        this.wheel = new TimingWheel<>(tickMs, slotsPerLevel, levels, System.currentTimeMillis());
+
+        this.releasedCounter = wheelCounter(meterRegistry, "released");
+        // Fired but not claimable: committed, released or extended elsewhere, or never committed
+        this.skippedCounter = wheelCounter(meterRegistry, "skipped");
+        this.failedCounter = wheelCounter(meterRegistry, "failed");
+        Gauge.builder("inventory.reservation.expiry_wheel.size", wheelSize, AtomicInteger::get)
+            .description("Reservation deadlines held by the in-memory expiry wheel")
+            .register(meterRegistry);
+    }
+
+    private static Counter wheelCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("inventory.reservation.expiry_wheel.expirations")
+            .description("Reservations fired by the expiry wheel by outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    // =====================================================
+    // Tracking
+    // =====================================================
+
+    /**
+     * Track (or move) the deadline of a reservation
+     */
+    public void schedule(UUID reservationId, LocalDateTime expiresAt) {
+        if (!enabled) {
+            return;
+        }
+        long deadlineMillis = toMillis(expiresAt);
+        deadlines.put(reservationId, deadlineMillis);
+        incoming.add(new Deadline(reservationId, deadlineMillis));
+    }
+
+    /**
+     * Stop tracking a reservation that was committed or released
+     */
+    public void cancel(UUID reservationId) {
+        deadlines.remove(reservationId);
+    }
+
+    /**
+     * Load the deadline of every active reservation, keeping any newer one scheduled meanwhile
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        AtomicInteger loaded = new AtomicInteger();
+        try {
+            inventoryJdbcRepository.forEachActiveReservation((reservationId, expiresAt) -> {
+                long deadlineMillis = toMillis(expiresAt);
+                if (deadlines.putIfAbsent(reservationId, deadlineMillis) == null) {
+                    incoming.add(new Deadline(reservationId, deadlineMillis));
+                    loaded.incrementAndGet();
+                }
+            });
+            logger.info("Expiry wheel rebuilt with {} active reservations", loaded.get());
+        } catch (Exception ex) {
+            logger.error("Failed to rebuild expiry wheel; expired reservations wait for the sweeper poll", ex);
+        }
+    }
+
+    // =====================================================
+    // Tick
+    // =====================================================
+
+    @Scheduled(fixedDelayString = "${inventory.reservation.expiry-wheel.tick-ms:1000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        Deadline deadline;
+        while ((deadline = incoming.poll()) != null) {
+            wheel.schedule(deadline, deadline.deadlineMillis());
+        }
+
+        List<UUID> due = new ArrayList<>();
+        for (Deadline fired : wheel.advance(System.currentTimeMillis())) {
+            // Only the latest deadline of a reservation counts
+            if (deadlines.remove(fired.reservationId(), fired.deadlineMillis())) {
+                due.add(fired.reservationId());
+            }
+        }
+        wheelSize.set(wheel.size());
+        if (due.isEmpty()) {
+            return;
+        }
+
+        try {
+            int released = sweeper.releaseDue(due);
+            releasedCounter.increment(released);
+            skippedCounter.increment(due.size() - released);
+            logger.debug("Expiry wheel released {} of {} due reservations", released, due.size());
+        } catch (Exception ex) {
+            failedCounter.increment(due.size());
+            logger.error("Failed to release {} due reservations; leaving them to the sweeper poll", due.size(), ex);
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,124 @@
+package com.amar.expiry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel. Level 0 has one slot per tick; each higher level has one slot per
+ * full turn of the level below, so {@code levels} wheels of {@code slotsPerLevel} slots cover
+ * slotsPerLevel^levels ticks with O(1) insertion. When time reaches a higher-level slot its
+ * entries are cascaded down to the finer level they now belong to; entries further out than the
+ * top level can see are parked in the top level and re-placed each time it turns.
+ *
+ * Entries never fire early: a deadline is rounded up to the next tick. Not thread-safe; the owner
+ * feeds and advances it from a single thread.
+ */
+public class TimingWheel<T> {
+
+    private record Entry<T>(T item, long expiryTick) {
+    }
+
+    private final long tickMillis;
+    private final int slotsPerLevel;
+    private final List<List<List<Entry<T>>>> levels = new ArrayList<>();
+    private final List<T> overdue = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, int slotsPerLevel, int levelCount, long startMillis) {
+        if (tickMillis < 1 || slotsPerLevel < 2 || levelCount < 1) {
+            throw new IllegalArgumentException("Invalid timing wheel geometry: tick=" + tickMillis
+                                               + "ms slots=" + slotsPerLevel + " levels=" + levelCount);
+        }
+        this.tickMillis = tickMillis;
+        this.slotsPerLevel = slotsPerLevel;
+        for (int level = 0; level < levelCount; level++) {
+            List<List<Entry<T>>> slots = new ArrayList<>(slotsPerLevel);
+            for (int slot = 0; slot < slotsPerLevel; slot++) {
+                slots.add(new ArrayList<>());
+            }
+            levels.add(slots);
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Add an item that becomes due at {@code deadlineMillis}. A deadline already passed is returned
+     * by the next {@link #advance}.
+     */
+    public void schedule(T item, long deadlineMillis) {
+        long expiryTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        place(new Entry<>(item, expiryTick));
+        size++;
+    }
+
+    /**
+     * Move the wheel forward to {@code nowMillis} and return every item that became due on the way
+     */
+    public List<T> advance(long nowMillis) {
+        List<T> due = new ArrayList<>(overdue);
+        overdue.clear();
+
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Cascade every level whose slot boundary this tick is, coarsest first, so entries
+            // expiring on this very tick trickle all the way down to level 0 in time
+            int topLevel = 0;
+            long span = 1;
+            while (topLevel + 1 < levels.size() && currentTick % (span * slotsPerLevel) == 0) {
+                span *= slotsPerLevel;
+                topLevel++;
+            }
+            for (int level = topLevel; level >= 1; level--) {
+                cascade(level, (int) ((currentTick / span) % slotsPerLevel));
+                span /= slotsPerLevel;
+            }
+            List<Entry<T>> slot = levels.get(0).get((int) (currentTick % slotsPerLevel));
+            List<Entry<T>> entries = new ArrayList<>(slot);
+            slot.clear();
+            for (Entry<T> entry : entries) {
+                if (entry.expiryTick() <= currentTick) {
+                    due.add(entry.item());
+                } else {
+                    // Parked beyond the wheel's range (single-level wheel); wait for another turn
+                    place(entry);
+                }
+            }
+            // cascade() may have put entries that expire on this tick into overdue
+            due.addAll(overdue);
+            overdue.clear();
+        }
+        size -= due.size();
+        return due;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void cascade(int level, int slotIndex) {
+        List<Entry<T>> slot = levels.get(level).get(slotIndex);
+        List<Entry<T>> entries = new ArrayList<>(slot);
+        slot.clear();
+        entries.forEach(this::place);
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.expiryTick() - currentTick;
+        if (delta <= 0) {
+            overdue.add(entry.item());
+            return;
+        }
+        long span = 1;
+        for (int level = 0; level < levels.size(); level++) {
+            long nextSpan = span * slotsPerLevel;
+            if (delta < nextSpan || level == levels.size() - 1) {
+                int slotIndex = (int) ((entry.expiryTick() / span) % slotsPerLevel);
+                levels.get(level).get(slotIndex).add(entry);
+                return;
+            }
+            span = nextSpan;
+        }
+    }
+}
@@ -0,0 +1,418 @@
+package com.amar.ledger;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amar.entity.inventory.InventoryReservation;
+import com.amar.repository.HotSkuAllocationRepository;
+import com.amar.repository.InventoryJdbcRepository;
+import com.amar.service.StockMovementService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Optional in-memory reservation ledger for flagged (hot) products.
+ *
+ * Each instance takes a chunk of a hot product's stock into reserved_quantity (recorded in
+ * hot_sku_allocations) and sells from it with a lock-free {@link StripedStockCounter}, so a
+ * reservation never touches the contended inventory row. Reservation and movement rows are written
+ * behind in batches; each flush turns allocated units into reservation rows in one transaction,
+ * keeping reserved_quantity = reservation rows + allocations at every commit.
+ *
+ * Recovery: allocations of instances that stop heartbeating are returned to the inventory, and on
+ * startup reserved_quantity of every hot product is rebuilt from inventory_reservations plus the
+ * live allocations. Reservations acknowledged but not yet flushed when an instance dies are lost
+ * (their orders fail at commit with no reservation found); the flush interval bounds that window.
+ */
+@Component
+public class HotSkuLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotSkuLedger.class);
+
+    private final HotSkuAllocationRepository allocationRepository;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final StockMovementService stockMovementService;
+    private final TransactionTemplate ownTransaction;
+    private final String ownerId = UUID.randomUUID().toString();
+
+    private final Map<Long, SkuBudget> budgets = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<InventoryReservation> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile boolean open;
+
+    private final Counter reservedCounter;
+    private final Counter rejectedCounter;
+    private final Counter flushedCounter;
+    private final Counter flushFailures;
+    private final Counter lostCounter;
+
+    @Value("${inventory.hot-sku.allocation-chunk:200}")
+    private int allocationChunk;
+
+    @Value("${inventory.hot-sku.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    @Value("${inventory.hot-sku.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${inventory.hot-sku.sold-out-recheck-ms:500}")
+    private long soldOutRecheckMs;
+
+    /**
+     * Local budget of one hot product
+     */
+    private static final class SkuBudget {
+        final Long productId;
+        final StripedStockCounter counter;
+        volatile long soldOutUntilNanos;
+
+        SkuBudget(Long productId, int stripes) {
+            this.productId = productId;
+            this.counter = new StripedStockCounter(stripes);
+        }
+    }
+
+    @Autowired
+    public HotSkuLedger(HotSkuAllocationRepository allocationRepository,
+                        InventoryJdbcRepository inventoryJdbcRepository,
+                        StockMovementService stockMovementService,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${inventory.hot-sku.enabled:false}") boolean enabled,
+                        @Value("${inventory.hot-sku.product-ids:}") String productIds,
+                        @Value("${inventory.hot-sku.stripes:16}") int stripes) {
+        this.allocationRepository = allocationRepository;
+        this.inventoryJdbcRepository = inventoryJdbcRepository;
+        this.stockMovementService = stockMovementService;
+        // Allocation changes belong to the instance, not to the order that triggered them
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.open = enabled;
+
+        if (enabled) {
+            for (Long productId : parseProductIds(productIds)) {
+                budgets.put(productId, new SkuBudget(productId, stripes));
+            }
+            logger.info("Hot SKU ledger enabled for products {} (owner {})", budgets.keySet(), ownerId);
+        }
+
+        this.reservedCounter = ledgerCounter(meterRegistry, "reserved");
+        this.rejectedCounter = ledgerCounter(meterRegistry, "rejected");
+        this.flushedCounter = ledgerCounter(meterRegistry, "flushed");
+        this.flushFailures = ledgerCounter(meterRegistry, "flush_failed");
+        this.lostCounter = ledgerCounter(meterRegistry, "lost");
+        Gauge.builder("inventory.hot_sku.pending", pendingCount, AtomicInteger::get)
+            .description("Hot SKU reservations acknowledged but not yet written")
+            .register(meterRegistry);
+        budgets.values().forEach(budget -> Gauge.builder("inventory.hot_sku.budget", budget.counter,
+                                                         StripedStockCounter::available)
+            .description("Units this instance can still reserve from memory")
+            .tag("productId", String.valueOf(budget.productId))
+            .register(meterRegistry));
+    }
+
+    private static Counter ledgerCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("inventory.hot_sku.reservations")
+            .description("Hot SKU ledger reservations by outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static Set<Long> parseProductIds(String productIds) {
+        return Arrays.stream(productIds.split(","))
+            .map(String::trim)
+            .filter(id -> !id.isEmpty())
+            .map(Long::valueOf)
+            .collect(Collectors.toSet());
+    }
+
+    // =====================================================
+    // Reservation Path
+    // =====================================================
+
+    public boolean handles(Long productId) {
+        return open && budgets.containsKey(productId);
+    }
+
+    /**
+     * Reserve from the local budget, topping it up from the database only when it runs short.
+     * The reservation row is written after the caller's transaction commits; on rollback the units
+     * go back to the budget.
+     */
+    public boolean tryReserve(InventoryReservation reservation) {
+        SkuBudget budget = budgets.get(reservation.getProductId());
+        int quantity = reservation.getQuantityReserved();
+
+        boolean reserved = budget.counter.tryAcquire(quantity) || refillAndAcquire(budget, quantity);
+        if (!reserved) {
+            rejectedCounter.increment();
+            return false;
+        }
+        reservedCounter.increment();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        enqueue(reservation);
+                    } else {
+                        budget.counter.release(quantity);
+                    }
+                }
+            });
+        } else {
+            enqueue(reservation);
+        }
+        return true;
+    }
+
+    private boolean refillAndAcquire(SkuBudget budget, int quantity) {
+        synchronized (budget) {
+            // Another thread may have refilled while we waited
+            if (budget.counter.tryAcquire(quantity)) {
+                return true;
+            }
+            if (System.nanoTime() < budget.soldOutUntilNanos) {
+                return false;
+            }
+            int granted = grant(budget, Math.max(allocationChunk, quantity));
+            if (granted < quantity && budget.counter.available() < quantity) {
+                budget.soldOutUntilNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(soldOutRecheckMs);
+            }
+            return budget.counter.tryAcquire(quantity);
+        }
+    }
+
+    private int grant(SkuBudget budget, int units) {
+        Integer granted = ownTransaction.execute(status ->
+            allocationRepository.grant(budget.productId, ownerId, units));
+        if (granted != null && granted > 0) {
+            budget.counter.release(granted);
+            return granted;
+        }
+        return 0;
+    }
+
+    private void enqueue(InventoryReservation reservation) {
+        pending.add(reservation);
+        pendingCount.incrementAndGet();
+    }
+
+    /**
+     * Reservations for the order that are acknowledged but not yet written
+     */
+    public List<InventoryReservation> pendingFor(UUID orderId) {
+        if (pendingCount.get() == 0) {
+            return List.of();
+        }
+        return pending.stream().filter(r -> orderId.equals(r.getOrderId())).toList();
+    }
+
+    /**
+     * Write the order's pending reservations now, so commit/release find their rows
+     */
+    public void flushOrder(UUID orderId) {
+        if (!pendingFor(orderId).isEmpty()) {
+            flush();
+        }
+    }
+
+    // =====================================================
+    // Write-Behind
+    // =====================================================
+
+    @Scheduled(fixedDelayString = "${inventory.hot-sku.flush-interval-ms:100}")
+    public void flush() {
+        if (pendingCount.get() == 0) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            List<InventoryReservation> batch = new ArrayList<>();
+            InventoryReservation next;
+            while ((next = pending.poll()) != null) {
+                batch.add(next);
+                pendingCount.decrementAndGet();
+                if (batch.size() >= flushBatchSize) {
+                    write(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(List<InventoryReservation> batch) {
+        try {
+            ownTransaction.executeWithoutResult(status -> writeBatch(batch));
+            flushedCounter.increment(batch.size());
+        } catch (DataIntegrityViolationException e) {
+            // A duplicate (order, product) row poisons the batch; isolate it by writing one at a time
+            logger.warn("Hot SKU flush of {} reservations hit a constraint, retrying individually", batch.size());
+            for (InventoryReservation reservation : batch) {
+                try {
+                    ownTransaction.executeWithoutResult(status -> writeBatch(List.of(reservation)));
+                    flushedCounter.increment();
+                } catch (DataIntegrityViolationException rowError) {
+                    logger.error("Dropping hot SKU reservation for order {} product {}: {}",
+                                 reservation.getOrderId(), reservation.getProductId(), rowError.getMessage());
+                    budgets.get(reservation.getProductId()).counter.release(reservation.getQuantityReserved());
+                    lostCounter.increment();
+                }
+            }
+        } catch (Exception e) {
+            // Database unavailable: keep the reservations and try again on the next tick
+            logger.error("Hot SKU flush of {} reservations failed, will retry", batch.size(), e);
+            flushFailures.increment();
+            pending.addAll(batch);
+            pendingCount.addAndGet(batch.size());
+        }
+    }
+
+    private void writeBatch(List<InventoryReservation> batch) {
+        Map<Long, Integer> unitsByProduct = new LinkedHashMap<>();
+        batch.forEach(r -> unitsByProduct.merge(r.getProductId(), r.getQuantityReserved(), Integer::sum));
+
+        List<InventoryReservation> rows = new ArrayList<>(batch);
+        unitsByProduct.forEach((productId, units) -> {
+            if (allocationRepository.consume(productId, ownerId, units)) {
+                return;
+            }
+            // Our allocation was revoked as stale (long pause); take the units from the inventory directly
+            budgets.get(productId).counter.drainAll();
+            if (!inventoryJdbcRepository.tryReserve(productId, units)) {
+                logger.error("Hot SKU allocation for product {} was revoked and {} units are no longer available; "
+                             + "dropping its pending reservations", productId, units);
+                int before = rows.size();
+                rows.removeIf(r -> r.getProductId().equals(productId));
+                lostCounter.increment(before - rows.size());
+            }
+        });
+
+        if (!rows.isEmpty()) {
+            inventoryJdbcRepository.insertReservations(rows);
+            stockMovementService.recordReservations(rows);
+        }
+    }
+
+    // =====================================================
+    // Maintenance & Recovery
+    // =====================================================
+
+    /**
+     * Heartbeat our allocations, top up budgets below a quarter chunk, and return the allocations
+     * of instances that stopped heartbeating.
+     */
+    @Scheduled(fixedDelayString = "${inventory.hot-sku.maintenance-interval-ms:5000}")
+    public void maintain() {
+        if (!open) {
+            return;
+        }
+        try {
+            ownTransaction.executeWithoutResult(status -> allocationRepository.heartbeat(ownerId));
+            for (SkuBudget budget : budgets.values()) {
+                if (budget.counter.available() < allocationChunk / 4 && System.nanoTime() >= budget.soldOutUntilNanos) {
+                    synchronized (budget) {
+                        grant(budget, allocationChunk);
+                    }
+                }
+            }
+            releaseStaleAllocations();
+        } catch (Exception e) {
+            logger.error("Hot SKU ledger maintenance failed", e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        if (!open) {
+            return;
+        }
+        try {
+            releaseStaleAllocations();
+            for (Long productId : budgets.keySet()) {
+                Integer correction = ownTransaction.execute(status ->
+                    allocationRepository.reconcileReservedQuantity(productId));
+                if (correction != null && correction != 0) {
+                    logger.warn("Rebuilt reserved quantity of hot product {} from reservations (corrected by {})",
+                                productId, correction);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Hot SKU ledger recovery failed", e);
+        }
+    }
+
+    private void releaseStaleAllocations() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(leaseMs));
+        Long released = ownTransaction.execute(status -> allocationRepository.releaseStale(cutoff));
+        if (released != null && released > 0) {
+            logger.warn("Returned {} units allocated by unresponsive instances", released);
+        }
+    }
+
+    /**
+     * Stop serving from memory, write what is pending and hand the unused budget back
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!open) {
+            return;
+        }
+        open = false;
+        flush();
+        for (SkuBudget budget : budgets.values()) {
+            long unused = budget.counter.drainAll();
+            if (unused > 0) {
+                try {
+                    ownTransaction.executeWithoutResult(status ->
+                        allocationRepository.giveBack(budget.productId, ownerId, (int) unused));
+                } catch (Exception e) {
+                    logger.error("Could not return {} units of product {}; they are released once the lease expires",
+                                 unused, budget.productId, e);
+                }
+            }
+        }
+        try {
+            ownTransaction.executeWithoutResult(status -> allocationRepository.deleteEmpty(ownerId));
+        } catch (Exception e) {
+            logger.warn("Could not remove empty hot SKU allocations of owner {}", ownerId, e);
+        }
+    }
+}
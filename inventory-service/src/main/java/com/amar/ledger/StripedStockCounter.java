@@ -0,0 +1,119 @@
+package com.amar.ledger;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free stock budget split across cache-line-padded stripes. A reservation takes units from
+ * the caller's home stripe with a single CAS and only walks the other stripes when that one runs
+ * short, so threads hammering the same SKU mostly touch different cache lines. The total is
+ * conserved: units are only ever moved between stripes or handed to a caller.
+ */
+public class StripedStockCounter {
+
+    // 8 longs = 64 bytes between live slots so neighbouring stripes never share a cache line
+    private static final int PADDING = 8;
+
+    private final int stripes;
+    private final AtomicLongArray slots;
+
+    public StripedStockCounter(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be positive: " + stripes);
+        }
+        this.stripes = stripes;
+        this.slots = new AtomicLongArray(stripes * PADDING);
+    }
+
+    /**
+     * Take {@code units} from the budget if that many are available in total
+     */
+    public boolean tryAcquire(int units) {
+        if (units < 1) {
+            throw new IllegalArgumentException("units must be positive: " + units);
+        }
+        int home = homeStripe();
+
+        // Fast path: one CAS on the home stripe
+        int homeSlot = home * PADDING;
+        long value = slots.get(homeSlot);
+        while (value >= units) {
+            if (slots.compareAndSet(homeSlot, value, value - units)) {
+                return true;
+            }
+            value = slots.get(homeSlot);
+        }
+
+        // Slow path: gather from every stripe, then return the excess (or everything on failure)
+        long gathered = 0;
+        for (int i = 0; i < stripes && gathered < units; i++) {
+            gathered += drain(((home + i) % stripes) * PADDING, units - gathered);
+        }
+        if (gathered >= units) {
+            if (gathered > units) {
+                slots.addAndGet(homeSlot, gathered - units);
+            }
+            return true;
+        }
+        if (gathered > 0) {
+            slots.addAndGet(homeSlot, gathered);
+        }
+        return false;
+    }
+
+    /**
+     * Return units to the budget (a released reservation or a fresh allocation), spread over the stripes
+     */
+    public void release(long units) {
+        if (units <= 0) {
+            return;
+        }
+        long share = units / stripes;
+        long remainder = units % stripes;
+        for (int i = 0; i < stripes; i++) {
+            long add = share + (i < remainder ? 1 : 0);
+            if (add > 0) {
+                slots.addAndGet(i * PADDING, add);
+            }
+        }
+    }
+
+    /**
+     * Remove and return everything left in the budget
+     */
+    public long drainAll() {
+        long drained = 0;
+        for (int i = 0; i < stripes; i++) {
+            drained += slots.getAndSet(i * PADDING, 0);
+        }
+        return drained;
+    }
+
+    /**
+     * Approximate total; exact only when no reservation is in flight
+     */
+    public long available() {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += slots.get(i * PADDING);
+        }
+        return total;
+    }
+
+    // Take up to max units from one slot
+    private long drain(int slot, long max) {
+        long value = slots.get(slot);
+        while (value > 0) {
+            long take = Math.min(value, max);
+            if (slots.compareAndSet(slot, value, value - take)) {
+                return take;
+            }
+            value = slots.get(slot);
+        }
+        return 0;
+    }
+
+    private int homeStripe() {
+        // Per-thread probe spreads concurrent callers without a shared index
+        return (int) (Thread.currentThread().getId() * 0x9E3779B97F4A7C15L >>> 33) % stripes;
+    }
+}
@@ -0,0 +1,152 @@
+package com.amar.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC access to inventory_service_schema.hot_sku_allocations: the stock each instance has taken
+ * into reserved_quantity for its in-memory ledger. All methods must run inside a transaction so
+ * the inventory row and the allocation row change together.
+ */
+@Repository
+public class HotSkuAllocationRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public HotSkuAllocationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Move up to {@code maxUnits} available units into reserved_quantity on behalf of the owner.
+     * Returns the number granted (0 when sold out or the product is unknown).
+     */
+    public int grant(Long productId, String ownerId, int maxUnits) {
+        Integer available = jdbcTemplate.queryForList("""
+                SELECT quantity - reserved_quantity FROM inventory_service_schema.inventory
+                WHERE product_id = ?
+                FOR UPDATE
+                """, Integer.class, productId)
+            .stream().findFirst().orElse(0);
+        int units = Math.min(maxUnits, available);
+        if (units <= 0) {
+            return 0;
+        }
+        jdbcTemplate.update("""
+            UPDATE inventory_service_schema.inventory
+            SET reserved_quantity = reserved_quantity + ?, version = version + 1
+            WHERE product_id = ?
+            """, units, productId);
+        jdbcTemplate.update("""
+            INSERT INTO inventory_service_schema.hot_sku_allocations (product_id, owner_id, allocated, heartbeat_at)
+            VALUES (?, ?, ?, NOW())
+            ON CONFLICT (product_id, owner_id)
+            DO UPDATE SET allocated = hot_sku_allocations.allocated + EXCLUDED.allocated, heartbeat_at = NOW()
+            """, productId, ownerId, units);
+        return units;
+    }
+
+    /**
+     * Convert allocated units into reservation rows written in the same transaction. Returns false
+     * when the allocation is gone (revoked as stale), in which case nothing was changed.
+     */
+    public boolean consume(Long productId, String ownerId, int units) {
+        return jdbcTemplate.update("""
+            UPDATE inventory_service_schema.hot_sku_allocations
+            SET allocated = allocated - ?, heartbeat_at = NOW()
+            WHERE product_id = ? AND owner_id = ? AND allocated >= ?
+            """, units, productId, ownerId, units) == 1;
+    }
+
+    /**
+     * Hand unused allocated units back to the inventory
+     */
+    public void giveBack(Long productId, String ownerId, int units) {
+        int updated = jdbcTemplate.update("""
+            UPDATE inventory_service_schema.hot_sku_allocations
+            SET allocated = allocated - ?, heartbeat_at = NOW()
+            WHERE product_id = ? AND owner_id = ? AND allocated >= ?
+            """, units, productId, ownerId, units);
+        if (updated == 1) {
+            jdbcTemplate.update("""
+                UPDATE inventory_service_schema.inventory
+                SET reserved_quantity = reserved_quantity - ?, version = version + 1
+                WHERE product_id = ?
+                """, units, productId);
+        }
+    }
+
+    public int heartbeat(String ownerId) {
+        return jdbcTemplate.update(
+            "UPDATE inventory_service_schema.hot_sku_allocations SET heartbeat_at = NOW() WHERE owner_id = ?",
+            ownerId);
+    }
+
+    public int deleteEmpty(String ownerId) {
+        return jdbcTemplate.update(
+            "DELETE FROM inventory_service_schema.hot_sku_allocations WHERE owner_id = ? AND allocated = 0",
+            ownerId);
+    }
+
+    /**
+     * Revoke allocations whose owner has not heartbeated since the cutoff and return their units
+     * to the inventory. Returns the number of units released.
+     */
+    public long releaseStale(LocalDateTime cutoff) {
+        Long released = jdbcTemplate.queryForObject("""
+            WITH stale AS (
+                DELETE FROM inventory_service_schema.hot_sku_allocations
+                WHERE heartbeat_at < ?
+                RETURNING product_id, allocated
+            ), per_product AS (
+                SELECT product_id, SUM(allocated) AS units FROM stale GROUP BY product_id
+            ), released AS (
+                UPDATE inventory_service_schema.inventory i
+                SET reserved_quantity = i.reserved_quantity - p.units, version = i.version + 1
+                FROM per_product p
+                WHERE i.product_id = p.product_id AND p.units > 0
+                RETURNING p.units
+            )
+            SELECT COALESCE(SUM(units), 0) FROM released
+            """, Long.class, cutoff);
+        return released != null ? released : 0;
+    }
+
+    /**
+     * Rebuild reserved_quantity for one product from its active reservation rows plus the live
+     * allocations. The row lock is taken first so the sums are read after every writer of this
+     * product has committed. Returns the correction applied (0 when already consistent).
+     */
+    public int reconcileReservedQuantity(Long productId) {
+        Integer current = jdbcTemplate.queryForList("""
+                SELECT reserved_quantity FROM inventory_service_schema.inventory
+                WHERE product_id = ?
+                FOR UPDATE
+                """, Integer.class, productId)
+            .stream().findFirst().orElse(null);
+        if (current == null) {
+            return 0;
+        }
+        Integer expected = jdbcTemplate.queryForObject("""
+            SELECT (SELECT COALESCE(SUM(quantity_reserved), 0)
+                    FROM inventory_service_schema.inventory_reservations
+                    WHERE product_id = ? AND is_expired = false)
+                 + (SELECT COALESCE(SUM(allocated), 0)
+                    FROM inventory_service_schema.hot_sku_allocations
+                    WHERE product_id = ?)
+            """, Integer.class, productId, productId);
+        if (expected == null || expected.equals(current)) {
+            return 0;
+        }
+        jdbcTemplate.update("""
+            UPDATE inventory_service_schema.inventory
+            SET reserved_quantity = ?, version = version + 1
+            WHERE product_id = ?
+            """, expected, productId);
+        return expected - current;
+    }
+}
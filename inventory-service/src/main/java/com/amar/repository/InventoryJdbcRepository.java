@@ -0,0 +1,273 @@
+package com.amar.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.amar.entity.inventory.InventoryReservation;
+import com.amar.entity.inventory.StockMovement;
+
+/**
+ * Set-based JDBC access for the reservation hot path. A single product is reserved with one
+ * conditional UPDATE, so the availability check and the increment are one atomic statement under
+ * READ COMMITTED. Several products are locked together in product_id order first, so two orders
+ * sharing products always queue on the same row and cannot deadlock. Reservation and movement
+ * rows are written with JDBC batches instead of one persist per row.
+ */
+@Repository
+public class InventoryJdbcRepository {
+
+    private static final RowMapper<InventoryReservation> CLAIMED_RESERVATION = (rs, rowNum) -> {
+        InventoryReservation reservation = new InventoryReservation();
+        reservation.setId(rs.getObject("id", UUID.class));
+        reservation.setProductId(rs.getLong("product_id"));
+        reservation.setOrderId(rs.getObject("order_id", UUID.class));
+        reservation.setQuantityReserved(rs.getInt("quantity_reserved"));
+        reservation.setReservedBy(rs.getString("reserved_by"));
+        reservation.setReservationType(InventoryReservation.ReservationType.valueOf(rs.getString("reservation_type")));
+        reservation.setExpiresAt(rs.getTimestamp("expires_at").toLocalDateTime());
+        reservation.setIsExpired(true);
+        return reservation;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    public InventoryJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Reserve {@code quantity} units if that many are available. Returns false, without touching
+     * the row, when the product is unknown or short of stock. The version bump makes concurrent
+     * JPA writers of the same row fail their optimistic check instead of overwriting the change.
+     */
+    public boolean tryReserve(Long productId, int quantity) {
+        String sql = """
+            UPDATE inventory_service_schema.inventory
+            SET reserved_quantity = reserved_quantity + ?, version = version + 1
+            WHERE product_id = ? AND quantity - reserved_quantity >= ?
+            """;
+        return jdbcTemplate.update(sql, quantity, productId, quantity) == 1;
+    }
+
+    /**
+     * Lock the inventory rows of all given products in one round trip, in ascending product_id
+     * order, and return their available quantity in that order (unknown ids are absent). The
+     * locks are held until the surrounding transaction ends.
+     */
+    public Map<Long, Integer> lockForUpdate(Collection<Long> productIds) {
+        Map<Long, Integer> available = new LinkedHashMap<>();
+        if (productIds.isEmpty()) {
+            return available;
+        }
+        namedJdbcTemplate.query("""
+                SELECT product_id, quantity - reserved_quantity AS available
+                FROM inventory_service_schema.inventory
+                WHERE product_id IN (:productIds)
+                ORDER BY product_id
+                FOR UPDATE
+                """,
+            new MapSqlParameterSource("productIds", productIds),
+            rs -> {
+                available.put(rs.getLong("product_id"), rs.getInt("available"));
+            });
+        return available;
+    }
+
+    /**
+     * Add the given quantities to reserved_quantity with one statement. The rows must already be
+     * locked by {@link #lockForUpdate} in this transaction and checked for availability.
+     */
+    public void reserveLocked(Map<Long, Integer> quantitiesByProduct) {
+        if (quantitiesByProduct.isEmpty()) {
+            return;
+        }
+        Long[] productIds = quantitiesByProduct.keySet().toArray(Long[]::new);
+        Integer[] quantities = quantitiesByProduct.values().toArray(Integer[]::new);
+        jdbcTemplate.update(con -> {
+            var statement = con.prepareStatement("""
+                UPDATE inventory_service_schema.inventory i
+                SET reserved_quantity = i.reserved_quantity + r.quantity, version = i.version + 1
+                FROM unnest(?::bigint[], ?::integer[]) AS r(product_id, quantity)
+                WHERE i.product_id = r.product_id
+                """);
+            statement.setArray(1, con.createArrayOf("bigint", productIds));
+            statement.setArray(2, con.createArrayOf("integer", quantities));
+            return statement;
+        });
+    }
+
+    /**
+     * Mark up to {@code limit} active reservations that expired before {@code now} as expired and
+     * return them, oldest first. Rows locked by another sweeper or a commit/release in progress are
+     * skipped rather than waited on, so concurrent sweeps split the backlog between them.
+     */
+    public List<InventoryReservation> claimExpiredReservations(LocalDateTime now, int limit) {
+        String sql = """
+            UPDATE inventory_service_schema.inventory_reservations r
+            SET is_expired = true, updated_at = NOW()
+            FROM (
+                SELECT id FROM inventory_service_schema.inventory_reservations
+                WHERE is_expired = false AND expires_at < ?
+                ORDER BY expires_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ) claimed
+            WHERE r.id = claimed.id
+            RETURNING r.id, r.product_id, r.order_id, r.quantity_reserved, r.reserved_by,
+                      r.reservation_type, r.expires_at
+            """;
+        return jdbcTemplate.query(sql, CLAIMED_RESERVATION, Timestamp.valueOf(now), limit);
+    }
+
+    /**
+     * Same claim as {@link #claimExpiredReservations(LocalDateTime, int)} restricted to the given
+     * ids. Ids already committed, released, extended past {@code now} or locked elsewhere are
+     * left alone.
+     */
+    public List<InventoryReservation> claimExpiredReservations(Collection<UUID> reservationIds, LocalDateTime now) {
+        if (reservationIds.isEmpty()) {
+            return List.of();
+        }
+        UUID[] ids = reservationIds.toArray(UUID[]::new);
+        return jdbcTemplate.query(con -> {
+            var statement = con.prepareStatement("""
+                UPDATE inventory_service_schema.inventory_reservations r
+                SET is_expired = true, updated_at = NOW()
+                FROM (
+                    SELECT id FROM inventory_service_schema.inventory_reservations
+                    WHERE id = ANY(?) AND is_expired = false AND expires_at <= ?
+                    ORDER BY expires_at
+                    FOR UPDATE SKIP LOCKED
+                ) claimed
+                WHERE r.id = claimed.id
+                RETURNING r.id, r.product_id, r.order_id, r.quantity_reserved, r.reserved_by,
+                          r.reservation_type, r.expires_at
+                """);
+            statement.setArray(1, con.createArrayOf("uuid", ids));
+            statement.setTimestamp(2, Timestamp.valueOf(now));
+            return statement;
+        }, CLAIMED_RESERVATION);
+    }
+
+    /**
+     * Stream the id and expiry of every active reservation
+     */
+    public void forEachActiveReservation(BiConsumer<UUID, LocalDateTime> consumer) {
+        jdbcTemplate.query("""
+                SELECT id, expires_at FROM inventory_service_schema.inventory_reservations
+                WHERE is_expired = false
+                """,
+            rs -> {
+                consumer.accept(rs.getObject("id", UUID.class), rs.getTimestamp("expires_at").toLocalDateTime());
+            });
+    }
+
+    /**
+     * Subtract released quantities from reserved_quantity, one UPDATE per product sent as a single
+     * JDBC batch. Products are updated in ascending product_id order, the same order the
+     * reservation path locks them in.
+     */
+    public void releaseReserved(SortedMap<Long, Integer> quantitiesByProduct) {
+        if (quantitiesByProduct.isEmpty()) {
+            return;
+        }
+        String sql = """
+            UPDATE inventory_service_schema.inventory
+            SET reserved_quantity = GREATEST(reserved_quantity - ?, 0), version = version + 1
+            WHERE product_id = ?
+            """;
+        List<Map.Entry<Long, Integer>> releases = new ArrayList<>(quantitiesByProduct.entrySet());
+        jdbcTemplate.batchUpdate(sql, releases, releases.size(), (ps, release) -> {
+            ps.setInt(1, release.getValue());
+            ps.setLong(2, release.getKey());
+        });
+    }
+
+    /**
+     * Current available quantity for each known product id (unknown ids are absent)
+     */
+    public Map<Long, Integer> findAvailableQuantities(Collection<Long> productIds) {
+        Map<Long, Integer> available = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return available;
+        }
+        namedJdbcTemplate.query("""
+                SELECT product_id, available_quantity
+                FROM inventory_service_schema.inventory
+                WHERE product_id IN (:productIds)
+                """,
+            new MapSqlParameterSource("productIds", productIds),
+            rs -> {
+                available.put(rs.getLong("product_id"), rs.getInt("available_quantity"));
+            });
+        return available;
+    }
+
+    /**
+     * Insert reservations in one batch. Ids must already be assigned; created_at/updated_at
+     * take the column defaults.
+     */
+    public void insertReservations(List<InventoryReservation> reservations) {
+        String sql = """
+            INSERT INTO inventory_service_schema.inventory_reservations
+                (id, product_id, order_id, session_id, user_id, quantity_reserved, reserved_by,
+                 reservation_type, expires_at, is_expired)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+        jdbcTemplate.batchUpdate(sql, reservations, reservations.size(), (ps, reservation) -> {
+            ps.setObject(1, reservation.getId());
+            ps.setLong(2, reservation.getProductId());
+            ps.setObject(3, reservation.getOrderId());
+            ps.setString(4, reservation.getSessionId());
+            ps.setString(5, reservation.getUserId());
+            ps.setInt(6, reservation.getQuantityReserved());
+            ps.setString(7, reservation.getReservedBy());
+            ps.setString(8, reservation.getReservationType().name());
+            ps.setTimestamp(9, Timestamp.valueOf(reservation.getExpiresAt()));
+            ps.setBoolean(10, Boolean.TRUE.equals(reservation.getIsExpired()));
+        });
+    }
+
+    /**
+     * Insert stock movements in one batch. Ids must already be assigned.
+     */
+    public void insertMovements(List<StockMovement> movements) {
+        String sql = """
+            INSERT INTO inventory_service_schema.stock_movements
+                (id, product_id, movement_type, quantity, reference_id, reference_type, reason,
+                 performed_by, notes, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+        jdbcTemplate.batchUpdate(sql, movements, movements.size(), (ps, movement) -> {
+            ps.setObject(1, movement.getId());
+            ps.setLong(2, movement.getProductId());
+            ps.setString(3, movement.getMovementType().name());
+            ps.setInt(4, movement.getQuantityChange());
+            ps.setObject(5, movement.getReferenceId());
+            ps.setString(6, movement.getReferenceType());
+            ps.setString(7, movement.getReason());
+            ps.setString(8, movement.getPerformedBy());
+            ps.setString(9, movement.getNotes());
+            ps.setTimestamp(10, Timestamp.valueOf(movement.getCreatedAt()));
+        });
+    }
+}
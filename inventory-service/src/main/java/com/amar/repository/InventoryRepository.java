@@ -12,6 +12,7 @@ import org.springframework.stereotype.Repository;
 import com.amar.entity.inventory.Inventory;
 
 import jakarta.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -23,6 +24,11 @@ public interface InventoryRepository extends JpaRepository<Inventory, UUID> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT i FROM Inventory i WHERE i.productId = :productId")
     Optional<Inventory> findByProductIdWithLock(@Param("productId") Long productId);
+
+    // Lock several products in one query, always in product_id order so overlapping callers cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.productId IN :productIds ORDER BY i.productId")
+    List<Inventory> findByProductIdInWithLockOrdered(@Param("productIds") Collection<Long> productIds);
     
     // Find by product ID without locking for read operations
     Optional<Inventory> findByProductId(Long productId);
@@ -0,0 +1,235 @@
+package com.amar.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amar.entity.inventory.InventoryReservation;
+import com.amar.repository.InventoryJdbcRepository;
+import com.amar.repository.InventoryReservationRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Releases the stock held by expired reservations in bounded batches.
+ *
+ * Each batch is its own short transaction: claim up to batch-size expired rows with
+ * FOR UPDATE SKIP LOCKED, subtract the released units with one UPDATE per product, and write the
+ * release movements as one JDBC batch. A backlog after an outage is worked off in many small
+ * commits instead of one long transaction holding inventory locks, and several instances can
+ * sweep at once without waiting on each other.
+ *
+ * Reservations are normally released on time by the {@link com.amar.expiry.ReservationExpiryWheel}
+ * through {@link #releaseDue}; the scheduled {@link #sweep} is the slow reconciliation pass that
+ * catches whatever the wheel missed (other instances' reservations, restarts, failed releases).
+ */
+@Service
+public class ExpiredReservationSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiredReservationSweeper.class);
+
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final InventoryReservationRepository reservationRepository;
+    private final StockMovementService stockMovementService;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final TransactionTemplate batchTransaction;
+
+    private final Counter releasedReservations;
+    private final Counter releasedUnits;
+    private final Counter batches;
+    private final Timer batchTimer;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    @Value("${inventory.reservation.sweeper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${inventory.reservation.sweeper.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    @Value("${inventory.reservation.sweeper.retention-days:7}")
+    private int retentionDays;
+
+    @Autowired
+    public ExpiredReservationSweeper(InventoryJdbcRepository inventoryJdbcRepository,
+                                     InventoryReservationRepository reservationRepository,
+                                     StockMovementService stockMovementService,
+                                     KafkaTemplate<String, Object> kafkaTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry) {
+        this.inventoryJdbcRepository = inventoryJdbcRepository;
+        this.reservationRepository = reservationRepository;
+        this.stockMovementService = stockMovementService;
+        this.kafkaTemplate = kafkaTemplate;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        this.releasedReservations = Counter.builder("inventory.reservation.sweeper.reservations")
+            .description("Expired reservations released by the sweeper")
+            .register(meterRegistry);
+        this.releasedUnits = Counter.builder("inventory.reservation.sweeper.units")
+            .description("Reserved units returned to stock by the sweeper")
+            .register(meterRegistry);
+        this.batches = Counter.builder("inventory.reservation.sweeper.batches")
+            .description("Sweeper batches committed")
+            .register(meterRegistry);
+        this.batchTimer = Timer.builder("inventory.reservation.sweeper.batch")
+            .description("Time to claim, release and record one sweeper batch")
+            .register(meterRegistry);
+        Gauge.builder("inventory.reservation.sweeper.lag", lagSeconds, AtomicLong::get)
+            .description("Seconds past expiry of the oldest reservation in the last batch")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    // =====================================================
+    // Sweep
+    // =====================================================
+
+    /**
+     * Release expired reservations until none are left or the per-run batch limit is reached.
+     * Returns the number of reservations released.
+     */
+    @Scheduled(fixedDelayString = "${inventory.reservation.cleanup-interval-minutes:5}", timeUnit = TimeUnit.MINUTES)
+    public int sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int released = 0;
+        int batchCount = 0;
+
+        while (batchCount < maxBatchesPerRun) {
+            List<InventoryReservation> batch = batchTimer.record(() -> batchTransaction.execute(
+                status -> release(inventoryJdbcRepository.claimExpiredReservations(now, batchSize), now)));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            batchCount++;
+            released += batch.size();
+            publishExpiredEvents(batch);
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        if (batchCount == 0) {
+            lagSeconds.set(0);
+        } else {
+            logger.info("Released {} expired reservations in {} batches{}", released, batchCount,
+                        batchCount == maxBatchesPerRun ? " (batch limit reached, continuing next run)" : "");
+        }
+
+        purgeOldExpired(now);
+        return released;
+    }
+
+    /**
+     * Release the given reservations if they are still active and expired, in batches of
+     * batch-size ids. Returns the number released.
+     */
+    public int releaseDue(List<UUID> reservationIds) {
+        LocalDateTime now = LocalDateTime.now();
+        int released = 0;
+        for (int from = 0; from < reservationIds.size(); from += batchSize) {
+            List<UUID> ids = reservationIds.subList(from, Math.min(from + batchSize, reservationIds.size()));
+            List<InventoryReservation> batch = batchTimer.record(() -> batchTransaction.execute(
+                status -> release(inventoryJdbcRepository.claimExpiredReservations(ids, now), now)));
+            if (batch != null && !batch.isEmpty()) {
+                released += batch.size();
+                publishExpiredEvents(batch);
+            }
+        }
+        return released;
+    }
+
+    private List<InventoryReservation> release(List<InventoryReservation> claimed, LocalDateTime now) {
+        if (claimed.isEmpty()) {
+            return claimed;
+        }
+
+        SortedMap<Long, Integer> releases = new TreeMap<>();
+        for (InventoryReservation reservation : claimed) {
+            releases.merge(reservation.getProductId(), reservation.getQuantityReserved(), Integer::sum);
+        }
+        inventoryJdbcRepository.releaseReserved(releases);
+        stockMovementService.recordReservationReleases(claimed, "SYSTEM");
+
+        batches.increment();
+        releasedReservations.increment(claimed.size());
+        releasedUnits.increment(releases.values().stream().mapToInt(Integer::intValue).sum());
+        // Claimed oldest first, so the first row shows how far behind the sweeper is
+        lagSeconds.set(Duration.between(claimed.get(0).getExpiresAt(), now).toSeconds());
+        return claimed;
+    }
+
+    private void purgeOldExpired(LocalDateTime now) {
+        try {
+            Integer deletedCount = batchTransaction.execute(
+                status -> reservationRepository.deleteOldExpiredReservations(now.minusDays(retentionDays)));
+            if (deletedCount != null && deletedCount > 0) {
+                logger.info("Deleted {} old expired reservations", deletedCount);
+            }
+        } catch (Exception ex) {
+            logger.error("Failed to delete old expired reservations", ex);
+        }
+    }
+
+    // =====================================================
+    // Events
+    // =====================================================
+
+    /**
+     * One "stock.reservation.expired" event per order, same payload as the other reservation events
+     */
+    private void publishExpiredEvents(List<InventoryReservation> reservations) {
+        Map<UUID, List<InventoryReservation>> byOrder = reservations.stream()
+            .collect(Collectors.groupingBy(InventoryReservation::getOrderId, LinkedHashMap::new, Collectors.toList()));
+
+        byOrder.forEach((orderId, orderReservations) -> {
+            try {
+                List<Map<String, Object>> reservationData = orderReservations.stream()
+                    .map(reservation -> {
+                        Map<String, Object> data = new HashMap<>();
+                        data.put("productId", reservation.getProductId());
+                        data.put("quantityReserved", reservation.getQuantityReserved());
+                        data.put("reservationType", reservation.getReservationType().toString());
+                        data.put("expiresAt", reservation.getExpiresAt());
+                        return data;
+                    })
+                    .collect(Collectors.toList());
+
+                Map<String, Object> event = Map.of(
+                    "eventType", "stock.reservation.expired",
+                    "orderId", orderId,
+                    "reservations", reservationData,
+                    "reservationCount", orderReservations.size(),
+                    "timestamp", LocalDateTime.now()
+                );
+
+                kafkaTemplate.send("inventory-reservation-events", orderId.toString(), event);
+            } catch (Exception ex) {
+                logger.error("Failed to publish reservation expired event for order ID: {}", orderId, ex);
+            }
+        });
+    }
+}
@@ -1,6 +1,7 @@
 package com.amar.service;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -142,8 +143,48 @@ public class InventoryService {
         logger.debug("Checking availability for product ID: {} quantity: {}", productId, requestedQuantity);
         
         Optional<Inventory> inventoryOpt = inventoryRepository.findByProductId(productId);
+        return buildAvailabilityResponse(productId, requestedQuantity, inventoryOpt.orElse(null));
+    }
+
+    /**
+     * Checks availability for many products with a single IN query instead of one lookup per product
+     */
+    @Transactional(readOnly = true)
+    public InventoryAvailabilityResponse bulkCheckAvailability(Map<Long, Integer> productQuantityMap) {
+        logger.debug("Bulk checking availability for {} products", productQuantityMap.size());
         
-        if (inventoryOpt.isEmpty()) {
+        Map<Long, Inventory> inventoryByProductId = inventoryRepository
+            .findByProductIdIn(new ArrayList<>(productQuantityMap.keySet())).stream()
+            .collect(Collectors.toMap(Inventory::getProductId, inventory -> inventory));
+
+        Map<Long, Boolean> bulkAvailability = new HashMap<>();
+        Map<Long, InventoryAvailabilityResponse.ProductAvailabilityDetails> bulkDetails = new HashMap<>();
+
+        for (Map.Entry<Long, Integer> entry : productQuantityMap.entrySet()) {
+            InventoryAvailabilityResponse response = buildAvailabilityResponse(
+                entry.getKey(), entry.getValue(), inventoryByProductId.get(entry.getKey()));
+
+            InventoryAvailabilityResponse.ProductAvailabilityDetails details = 
+                new InventoryAvailabilityResponse.ProductAvailabilityDetails();
+            details.setAvailable(response.getAvailable());
+            details.setAvailableQuantity(response.getAvailableQuantity());
+            details.setRequestedQuantity(response.getRequestedQuantity());
+            details.setStockStatus(response.getStockStatus());
+            details.setMessage(response.getMessage());
+
+            bulkAvailability.put(entry.getKey(), response.getAvailable());
+            bulkDetails.put(entry.getKey(), details);
+        }
+
+        InventoryAvailabilityResponse bulkResponse = new InventoryAvailabilityResponse();
+        bulkResponse.setAvailable(bulkAvailability.values().stream().allMatch(Boolean.TRUE::equals));
+        bulkResponse.setBulkAvailability(bulkAvailability);
+        bulkResponse.setBulkDetails(bulkDetails);
+        return bulkResponse;
+    }
+
+    private InventoryAvailabilityResponse buildAvailabilityResponse(Long productId, Integer requestedQuantity, Inventory inventory) {
+        if (inventory == null) {
             InventoryAvailabilityResponse response = new InventoryAvailabilityResponse();
             response.setProductId(productId);
             response.setAvailable(false);
@@ -154,7 +195,6 @@ public class InventoryService {
             return response;
         }
 
-        Inventory inventory = inventoryOpt.get();
         Integer availableQuantity = inventory.getAvailableQuantity();
         boolean available = availableQuantity != null && availableQuantity >= requestedQuantity;
         
@@ -171,57 +211,21 @@ public class InventoryService {
         return response;
     }
 
-    @Transactional(readOnly = true)
-    public InventoryAvailabilityResponse bulkCheckAvailability(Map<Long, Integer> productQuantityMap) {
-        logger.debug("Bulk checking availability for {} products", productQuantityMap.size());
-        
-        Map<Long, Boolean> bulkAvailability = productQuantityMap.entrySet().stream()
-            .collect(Collectors.toMap(
-                Map.Entry::getKey,
-                entry -> {
-                    InventoryAvailabilityResponse response = checkAvailability(entry.getKey(), entry.getValue());
-                    return response.getAvailable();
-                }
-            ));
-
-        Map<Long, InventoryAvailabilityResponse.ProductAvailabilityDetails> bulkDetails = 
-            productQuantityMap.entrySet().stream()
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    entry -> {
-                        InventoryAvailabilityResponse response = checkAvailability(entry.getKey(), entry.getValue());
-                        InventoryAvailabilityResponse.ProductAvailabilityDetails details = 
-                            new InventoryAvailabilityResponse.ProductAvailabilityDetails();
-                        details.setAvailable(response.getAvailable());
-                        details.setAvailableQuantity(response.getAvailableQuantity());
-                        details.setRequestedQuantity(response.getRequestedQuantity());
-                        details.setStockStatus(response.getStockStatus());
-                        details.setMessage(response.getMessage());
-                        return details;
-                    }
-                ));
-
-        InventoryAvailabilityResponse bulkResponse = new InventoryAvailabilityResponse();
-        bulkResponse.setBulkAvailability(bulkAvailability);
-        bulkResponse.setBulkDetails(bulkDetails);
-        return bulkResponse;
-    }
-
     // =====================================================
     // Stock Reservation Operations
     // =====================================================
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public StockReservationResponse reserveStock(StockReservationRequest request) {
         logger.info("Reserving stock for order ID: {} with {} items", request.getOrderId(), request.getItems().size());
         
         StockReservationResponse response = stockReservationService.createReservation(request);
         
-        // Publish reservation events
+        // Publish reservation events for the items actually reserved
         if (response.getSuccess() && response.getReservations() != null) {
-            for (var item : request.getItems()) {
+            for (var item : response.getReservations()) {
                 eventPublisher.publishStockReserved(request.getOrderId(), item.getProductId(), 
-                    item.getQuantity(), LocalDateTime.now().plusMinutes(15));
+                    item.getReservedQuantity(), response.getExpiresAt());
             }
         }
         
@@ -1,6 +1,7 @@
 package com.amar.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,8 +18,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.amar.dto.StockMovementDto;
+import com.amar.entity.inventory.InventoryReservation;
 import com.amar.entity.inventory.StockMovement;
 import com.amar.mapper.StockMovementMapper;
+import com.amar.repository.InventoryJdbcRepository;
 import com.amar.repository.StockMovementRepository;
 
 @Service
@@ -28,14 +31,17 @@ public class StockMovementService {
     private static final Logger logger = LoggerFactory.getLogger(StockMovementService.class);
 
     private final StockMovementRepository stockMovementRepository;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
     private final StockMovementMapper stockMovementMapper;
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
     @Autowired
     public StockMovementService(StockMovementRepository stockMovementRepository,
+                               InventoryJdbcRepository inventoryJdbcRepository,
                                StockMovementMapper stockMovementMapper,
                                KafkaTemplate<String, Object> kafkaTemplate) {
         this.stockMovementRepository = stockMovementRepository;
+        this.inventoryJdbcRepository = inventoryJdbcRepository;
         this.stockMovementMapper = stockMovementMapper;
         this.kafkaTemplate = kafkaTemplate;
     }
@@ -97,6 +103,51 @@ public class StockMovementService {
         publishMovementEvent("stock.movement.reservation", movement);
     }
 
+    /**
+     * Same rows and events as {@link #recordReservation}, one per reservation, written as one JDBC batch
+     */
+    public void recordReservations(List<InventoryReservation> reservations) {
+        logger.debug("Recording {} reservation movements", reservations.size());
+
+        List<StockMovement> movements = new ArrayList<>(reservations.size());
+        for (InventoryReservation reservation : reservations) {
+            StockMovement movement = createMovement(
+                reservation.getProductId(), reservation.getQuantityReserved(), StockMovement.MovementType.RESERVED,
+                reservation.getOrderId(), "ORDER", "Stock reserved for order", reservation.getReservedBy()
+            );
+            movement.setId(UUID.randomUUID());
+            movement.setNotes("Reserved " + reservation.getQuantityReserved() + " units for order: "
+                              + reservation.getOrderId());
+            movements.add(movement);
+        }
+
+        inventoryJdbcRepository.insertMovements(movements);
+        movements.forEach(movement -> publishMovementEvent("stock.movement.reservation", movement));
+    }
+
+    /**
+     * Same rows and events as {@link #recordReservationRelease}, one per reservation, written as one JDBC batch
+     */
+    public void recordReservationReleases(List<InventoryReservation> reservations, String performedBy) {
+        logger.debug("Recording {} reservation releases", reservations.size());
+
+        List<StockMovement> movements = new ArrayList<>(reservations.size());
+        for (InventoryReservation reservation : reservations) {
+            StockMovement movement = createMovement(
+                reservation.getProductId(), reservation.getQuantityReserved(),
+                StockMovement.MovementType.RESERVATION_RELEASED,
+                reservation.getOrderId(), "ORDER", "Stock reservation released", performedBy
+            );
+            movement.setId(UUID.randomUUID());
+            movement.setNotes("Released " + reservation.getQuantityReserved() + " units from order: "
+                              + reservation.getOrderId());
+            movements.add(movement);
+        }
+
+        inventoryJdbcRepository.insertMovements(movements);
+        movements.forEach(movement -> publishMovementEvent("stock.movement.reservation.released", movement));
+    }
+
     public void recordReservationRelease(Long productId, Integer quantity, UUID orderId, String performedBy) {
         logger.debug("Recording reservation release for product ID: {} quantity: {}", productId, quantity);
         
@@ -5,6 +5,9 @@ import com.amar.dto.request.StockReservationRequest;
 import com.amar.dto.response.StockReservationResponse;
 import com.amar.entity.inventory.Inventory;
 import com.amar.entity.inventory.InventoryReservation;
+import com.amar.expiry.ReservationExpiryWheel;
+import com.amar.ledger.HotSkuLedger;
+import com.amar.repository.InventoryJdbcRepository;
 import com.amar.repository.InventoryRepository;
 import com.amar.repository.InventoryReservationRepository;
 import org.slf4j.Logger;
@@ -12,17 +15,21 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -33,9 +40,14 @@ public class StockReservationService {
     private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
 
     private final InventoryRepository inventoryRepository;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
     private final InventoryReservationRepository reservationRepository;
     private final StockMovementService stockMovementService;
+    private final HotSkuLedger hotSkuLedger;
+    private final ReservationExpiryWheel expiryWheel;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final Counter reservationItems;
+    private final Counter rejectedItems;
 
     @Value("${inventory.reservation.default-ttl-minutes:15}")
     private Integer defaultTtlMinutes;
@@ -45,25 +57,49 @@ public class StockReservationService {
 
     @Autowired
     public StockReservationService(InventoryRepository inventoryRepository,
+                                  InventoryJdbcRepository inventoryJdbcRepository,
                                   InventoryReservationRepository reservationRepository,
                                   StockMovementService stockMovementService,
-                                  KafkaTemplate<String, Object> kafkaTemplate) {
+                                  HotSkuLedger hotSkuLedger,
+                                  ReservationExpiryWheel expiryWheel,
+                                  KafkaTemplate<String, Object> kafkaTemplate,
+                                  MeterRegistry meterRegistry) {
         this.inventoryRepository = inventoryRepository;
+        this.inventoryJdbcRepository = inventoryJdbcRepository;
         this.reservationRepository = reservationRepository;
         this.stockMovementService = stockMovementService;
+        this.hotSkuLedger = hotSkuLedger;
+        this.expiryWheel = expiryWheel;
         this.kafkaTemplate = kafkaTemplate;
+        this.reservationItems = reservationItemCounter(meterRegistry, "reserved");
+        this.rejectedItems = reservationItemCounter(meterRegistry, "rejected");
+    }
+
+    private static Counter reservationItemCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("inventory.reservation.items")
+            .description("Reservation line items by outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
     }
 
     // =====================================================
     // Stock Reservation Operations
     // =====================================================
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public StockReservationResponse reserveStock(StockReservationRequest request) {
         return createReservation(request);
     }
     
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    /**
+     * Reserve every requested product; products that are unknown or short of stock are reported as
+     * errors while the rest are reserved. A single product is reserved with one conditional UPDATE
+     * (see {@link InventoryJdbcRepository#tryReserve}). Several products are locked together in
+     * product_id order and updated with one statement, so concurrent orders sharing products queue
+     * instead of deadlocking. Products flagged for the {@link HotSkuLedger} are reserved from memory
+     * and written behind.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public StockReservationResponse createReservation(StockReservationRequest request) {
         logger.info("Creating stock reservation for order ID: {} with {} items", 
                    request.getOrderId(), request.getItems().size());
@@ -72,8 +108,10 @@ public class StockReservationService {
         Integer ttlMinutes = validateTtl(request.getExpirationMinutes());
         LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(ttlMinutes);
 
-        // Check for existing reservations for this order
-        List<InventoryReservation> existingReservations = reservationRepository.findByOrderIdOrderByCreatedAtAsc(request.getOrderId());
+        // Check for existing reservations for this order (written, or still queued by the hot SKU ledger)
+        List<InventoryReservation> existingReservations = new ArrayList<>(
+            reservationRepository.findByOrderIdOrderByCreatedAtAsc(request.getOrderId()));
+        existingReservations.addAll(hotSkuLedger.pendingFor(request.getOrderId()));
         if (!existingReservations.isEmpty()) {
             logger.warn("Found {} existing reservations for order ID: {}, returning existing data", 
                        existingReservations.size(), request.getOrderId());
@@ -82,35 +120,88 @@ public class StockReservationService {
             return createResponseFromExistingReservations(existingReservations);
         }
 
-        List<StockReservationResponse.ReservationItem> successfulReservations = new ArrayList<>();
-        List<StockReservationResponse.ReservationError> errors = new ArrayList<>();
-
-        // Process each item in the reservation request
-        for (StockReservationRequest.ReservationItem item : request.getItems()) {
-            try {
-                StockReservationResponse.ReservationItem reservation = processItemReservation(
-                    item, request.getOrderId(), request.getUserId(), request.getSessionId(),
-                    request.getReservationType(), expiresAt
-                );
-                successfulReservations.add(reservation);
-            } catch (Exception ex) {
-                logger.warn("Failed to reserve stock for product ID: {} in order: {}", 
-                           item.getProductId(), request.getOrderId(), ex);
-                
-                StockReservationResponse.ReservationError error = new StockReservationResponse.ReservationError();
-                error.setProductId(item.getProductId());
-                error.setRequestedQuantity(item.getQuantity());
-                error.setErrorCode(getErrorCode(ex));
-                error.setErrorMessage(ex.getMessage());
-                errors.add(error);
+        String reservedBy = request.getUserId() != null ? request.getUserId() : request.getSessionId();
+        InventoryReservation.ReservationType reservationType = parseReservationType(request.getReservationType());
+
+        Map<Long, Integer> requested = mergeItems(request.getItems());
+        Map<Long, Integer> reserved = new HashMap<>();
+        Map<Long, Integer> rejected = new LinkedHashMap<>();
+        Map<Long, Integer> knownAvailable = new HashMap<>();
+
+        // Hot products are reserved from the in-memory ledger, before any row lock is taken
+        Map<Long, Integer> databaseItems = new TreeMap<>();
+        List<InventoryReservation> ledgerReservations = new ArrayList<>();
+        requested.forEach((productId, quantity) -> {
+            if (!hotSkuLedger.handles(productId)) {
+                databaseItems.put(productId, quantity);
+                return;
+            }
+            InventoryReservation reservation = newReservation(productId, quantity, request, reservedBy,
+                                                              reservationType, expiresAt);
+            if (hotSkuLedger.tryReserve(reservation)) {
+                reserved.put(productId, quantity);
+                ledgerReservations.add(reservation);
+            } else {
+                rejected.put(productId, quantity);
             }
+        });
+
+        if (databaseItems.size() == 1) {
+            // A single row needs no lock ordering: one conditional UPDATE
+            Map.Entry<Long, Integer> item = databaseItems.entrySet().iterator().next();
+            if (inventoryJdbcRepository.tryReserve(item.getKey(), item.getValue())) {
+                reserved.put(item.getKey(), item.getValue());
+            } else {
+                rejected.put(item.getKey(), item.getValue());
+            }
+        } else if (databaseItems.size() > 1) {
+            // Lock all rows in product_id order in one query, so orders sharing products cannot deadlock
+            Map<Long, Integer> available = inventoryJdbcRepository.lockForUpdate(databaseItems.keySet());
+            Map<Long, Integer> toReserve = new LinkedHashMap<>();
+            databaseItems.forEach((productId, quantity) -> {
+                Integer availableQuantity = available.get(productId);
+                knownAvailable.put(productId, availableQuantity);
+                if (availableQuantity != null && availableQuantity >= quantity) {
+                    toReserve.put(productId, quantity);
+                } else {
+                    rejected.put(productId, quantity);
+                }
+            });
+            inventoryJdbcRepository.reserveLocked(toReserve);
+            reserved.putAll(toReserve);
         }
+        reservationItems.increment(reserved.size());
+        rejectedItems.increment(rejected.size());
 
         // If no items could be reserved, fail the entire operation
-        if (successfulReservations.isEmpty()) {
+        if (reserved.isEmpty()) {
             throw new IllegalStateException("No items could be reserved for order ID: " + request.getOrderId());
         }
 
+        // Rows for database-reserved items; the ledger writes its own behind
+        List<InventoryReservation> reservations = new ArrayList<>();
+        List<StockReservationResponse.ReservationItem> successfulReservations = new ArrayList<>();
+        requested.forEach((productId, quantity) -> {
+            if (!reserved.containsKey(productId)) {
+                return;
+            }
+            if (databaseItems.containsKey(productId)) {
+                reservations.add(newReservation(productId, quantity, request, reservedBy, reservationType, expiresAt));
+            }
+            successfulReservations.add(
+                new StockReservationResponse.ReservationItem(productId, quantity, quantity, "RESERVED"));
+        });
+        if (!reservations.isEmpty()) {
+            inventoryJdbcRepository.insertReservations(reservations);
+            stockMovementService.recordReservations(reservations);
+        }
+        // Track the new reservations for on-time expiry; ids from a rolled-back call simply find no row
+        reservations.forEach(reservation -> expiryWheel.schedule(reservation.getId(), expiresAt));
+        ledgerReservations.forEach(reservation -> expiryWheel.schedule(reservation.getId(), expiresAt));
+
+        List<StockReservationResponse.ReservationError> errors =
+            describeRejections(rejected, knownAvailable, request.getOrderId());
+
         // Calculate totals
         Integer totalItemsReserved = successfulReservations.size();
         Integer totalQuantityReserved = successfulReservations.stream()
@@ -136,69 +227,91 @@ public class StockReservationService {
         return response;
     }
 
-    private StockReservationResponse.ReservationItem processItemReservation(StockReservationRequest.ReservationItem item,
-                                                          UUID orderId, String userId, String sessionId,
-                                                          String reservationType, LocalDateTime expiresAt) {
-        // Get inventory with pessimistic lock
-        Optional<Inventory> inventoryOpt = inventoryRepository.findByProductIdWithLock(item.getProductId());
-        if (inventoryOpt.isEmpty()) {
-            throw new IllegalArgumentException("Product not found in inventory: " + item.getProductId());
-        }
-
-        Inventory inventory = inventoryOpt.get();
-        
-        // Check if sufficient stock is available
-        if (!inventory.canReserve(item.getQuantity())) {
-            throw new IllegalStateException(
-                String.format("Insufficient stock. Available: %d, Requested: %d", 
-                             inventory.getAvailableQuantity(), item.getQuantity())
-            );
+    /**
+     * Requested quantity per product in request order; a product listed twice is reserved once
+     */
+    private Map<Long, Integer> mergeItems(List<StockReservationRequest.ReservationItem> items) {
+        Map<Long, Integer> merged = new LinkedHashMap<>();
+        for (StockReservationRequest.ReservationItem item : items) {
+            if (item.getProductId() == null || item.getQuantity() == null || item.getQuantity() < 1) {
+                throw new IllegalArgumentException("Invalid reservation item: product " + item.getProductId()
+                                                   + ", quantity " + item.getQuantity());
+            }
+            merged.merge(item.getProductId(), item.getQuantity(), Integer::sum);
         }
+        return merged;
+    }
 
-        // Reserve the stock
-        inventory.reserveStock(item.getQuantity());
-        inventoryRepository.save(inventory);
-
-        // Create reservation record
+    private InventoryReservation newReservation(Long productId, Integer quantity, StockReservationRequest request,
+                                                String reservedBy, InventoryReservation.ReservationType reservationType,
+                                                LocalDateTime expiresAt) {
         InventoryReservation reservation = new InventoryReservation();
-        reservation.setProductId(item.getProductId());
-        reservation.setOrderId(orderId);
-        reservation.setUserId(userId);
-        reservation.setSessionId(sessionId);
-        reservation.setQuantityReserved(item.getQuantity());
-        reservation.setReservedBy(userId != null ? userId : sessionId);
-        reservation.setReservationType(parseReservationType(reservationType));
+        reservation.setId(UUID.randomUUID());
+        reservation.setProductId(productId);
+        reservation.setOrderId(request.getOrderId());
+        reservation.setUserId(request.getUserId());
+        reservation.setSessionId(request.getSessionId());
+        reservation.setQuantityReserved(quantity);
+        reservation.setReservedBy(reservedBy);
+        reservation.setReservationType(reservationType);
         reservation.setExpiresAt(expiresAt);
         reservation.setIsExpired(false);
+        return reservation;
+    }
 
-        reservation = reservationRepository.save(reservation);
-
-        // Record stock movement
-        stockMovementService.recordReservation(item.getProductId(), item.getQuantity(), orderId, 
-                                             userId != null ? userId : sessionId);
-
-        return new StockReservationResponse.ReservationItem(
-            item.getProductId(), item.getQuantity(), item.getQuantity(), "RESERVED");
+    /**
+     * Explain rejected items as unknown product or not enough available stock. Availability read
+     * under the row locks is reused; the rest is looked up in one query.
+     */
+    private List<StockReservationResponse.ReservationError> describeRejections(Map<Long, Integer> rejected,
+                                                                            Map<Long, Integer> knownAvailable,
+                                                                            UUID orderId) {
+        List<StockReservationResponse.ReservationError> errors = new ArrayList<>();
+        if (rejected.isEmpty()) {
+            return errors;
+        }
+        Map<Long, Integer> available = new HashMap<>(knownAvailable);
+        List<Long> unknown = rejected.keySet().stream().filter(id -> !knownAvailable.containsKey(id)).toList();
+        available.putAll(inventoryJdbcRepository.findAvailableQuantities(unknown));
+
+        rejected.forEach((productId, quantity) -> {
+            StockReservationResponse.ReservationError error = new StockReservationResponse.ReservationError();
+            error.setProductId(productId);
+            error.setRequestedQuantity(quantity);
+            Integer availableQuantity = available.get(productId);
+            if (availableQuantity == null) {
+                error.setErrorCode("PRODUCT_NOT_FOUND");
+                error.setErrorMessage("Product not found in inventory: " + productId);
+            } else {
+                error.setAvailableQuantity(availableQuantity);
+                error.setErrorCode("INSUFFICIENT_STOCK");
+                error.setErrorMessage(String.format("Insufficient stock. Available: %d, Requested: %d",
+                                                    availableQuantity, quantity));
+            }
+            logger.warn("Failed to reserve stock for product ID: {} in order: {} - {}",
+                       productId, orderId, error.getErrorMessage());
+            errors.add(error);
+        });
+        return errors;
     }
 
     @Transactional
     public void commitReservation(UUID orderId) {
         logger.info("Committing reservation for order ID: {}", orderId);
+        hotSkuLedger.flushOrder(orderId);
 
         List<InventoryReservation> reservations = reservationRepository.findByOrderIdOrderByCreatedAtAsc(orderId);
         if (reservations.isEmpty()) {
             throw new IllegalArgumentException("No reservations found for order ID: " + orderId);
         }
 
+        Map<Long, Inventory> inventories = lockInventories(reservations);
         for (InventoryReservation reservation : reservations) {
-            // Get inventory with lock
-            Optional<Inventory> inventoryOpt = inventoryRepository.findByProductIdWithLock(reservation.getProductId());
-            if (inventoryOpt.isEmpty()) {
+            Inventory inventory = inventories.get(reservation.getProductId());
+            if (inventory == null) {
                 logger.error("Inventory not found for product ID: {} during commit", reservation.getProductId());
                 throw new IllegalStateException("Inventory not found for product ID: " + reservation.getProductId());
             }
-
-            Inventory inventory = inventoryOpt.get();
             
             // Validate that we have sufficient stock to commit
             if (inventory.getQuantity() < reservation.getQuantityReserved()) {
@@ -227,6 +340,7 @@ public class StockReservationService {
             // Mark reservation as expired (to indicate it's been processed)
             reservation.setIsExpired(true);
             reservationRepository.save(reservation);
+            expiryWheel.cancel(reservation.getId());
         }
 
         // Publish commit event
@@ -236,25 +350,24 @@ public class StockReservationService {
     @Transactional
     public void releaseReservation(UUID orderId) {
         logger.info("Releasing reservation for order ID: {}", orderId);
+        hotSkuLedger.flushOrder(orderId);
 
         List<InventoryReservation> reservations = reservationRepository.findByOrderIdOrderByCreatedAtAsc(orderId);
         if (reservations.isEmpty()) {
             throw new IllegalArgumentException("No reservations found for order ID: " + orderId);
         }
 
+        Map<Long, Inventory> inventories = lockInventories(reservations);
         for (InventoryReservation reservation : reservations) {
             if (reservation.getIsExpired()) {
                 continue; // Already processed
             }
 
-            // Get inventory with lock
-            Optional<Inventory> inventoryOpt = inventoryRepository.findByProductIdWithLock(reservation.getProductId());
-            if (inventoryOpt.isEmpty()) {
+            Inventory inventory = inventories.get(reservation.getProductId());
+            if (inventory == null) {
                 logger.error("Inventory not found for product ID: {} during release", reservation.getProductId());
                 continue;
             }
-
-            Inventory inventory = inventoryOpt.get();
             
             // Release reserved stock
             inventory.releaseReservedStock(reservation.getQuantityReserved());
@@ -268,6 +381,7 @@ public class StockReservationService {
             // Mark reservation as expired
             reservation.setIsExpired(true);
             reservationRepository.save(reservation);
+            expiryWheel.cancel(reservation.getId());
         }
 
         // Publish release event
@@ -280,6 +394,7 @@ public class StockReservationService {
 
     @Transactional(readOnly = true)
     public List<InventoryReservationDto> getReservationsForOrder(UUID orderId) {
+        hotSkuLedger.flushOrder(orderId);
         List<InventoryReservation> reservations = reservationRepository.findByOrderIdOrderByCreatedAtAsc(orderId);
         return reservations.stream().map(this::mapToDto).collect(Collectors.toList());
     }
@@ -317,83 +432,25 @@ public class StockReservationService {
 
         reservation.setExpiresAt(newExpiration);
         reservationRepository.save(reservation);
+        expiryWheel.schedule(reservationId, newExpiration);
 
         logger.info("Extended reservation ID: {} to {}", reservationId, newExpiration);
         return true;
     }
 
     // =====================================================
-    // Background Jobs
+    // Helper Methods
     // =====================================================
 
-    @Scheduled(fixedRateString = "${inventory.reservation.cleanup-interval-minutes:5}000")
-    @Transactional
-    public void cleanupExpiredReservations() {
-        logger.debug("Running expired reservations cleanup job");
-
-        LocalDateTime now = LocalDateTime.now();
-        
-        // Find expired reservations
-        List<InventoryReservation> expiredReservations = reservationRepository.findExpiredReservations(now);
-        
-        if (expiredReservations.isEmpty()) {
-            return;
-        }
-
-        logger.info("Processing {} expired reservations", expiredReservations.size());
-
-        for (InventoryReservation reservation : expiredReservations) {
-            try {
-                processExpiredReservation(reservation);
-            } catch (Exception ex) {
-                logger.error("Failed to process expired reservation ID: {}", reservation.getId(), ex);
-            }
-        }
-
-        // Mark them as expired in bulk
-        int markedCount = reservationRepository.markExpiredReservations(now);
-        logger.info("Marked {} reservations as expired", markedCount);
-
-        // Clean up old expired reservations (older than 7 days)
-        LocalDateTime cutoffDate = now.minusDays(7);
-        int deletedCount = reservationRepository.deleteOldExpiredReservations(cutoffDate);
-        if (deletedCount > 0) {
-            logger.info("Deleted {} old expired reservations", deletedCount);
-        }
-    }
-
-    private void processExpiredReservation(InventoryReservation reservation) {
-        if (reservation.getIsExpired()) {
-            return; // Already processed
-        }
-
-        // Get inventory with lock
-        Optional<Inventory> inventoryOpt = inventoryRepository.findByProductIdWithLock(reservation.getProductId());
-        if (inventoryOpt.isEmpty()) {
-            logger.warn("Inventory not found for expired reservation. Product ID: {}", reservation.getProductId());
-            return;
-        }
-
-        Inventory inventory = inventoryOpt.get();
-        
-        // Release reserved stock
-        inventory.releaseReservedStock(reservation.getQuantityReserved());
-        inventoryRepository.save(inventory);
-
-        // Record stock movement
-        stockMovementService.recordReservationRelease(reservation.getProductId(), 
-                                                     reservation.getQuantityReserved(), 
-                                                     reservation.getOrderId(), "SYSTEM");
-
-        // Publish expiration event
-        publishReservationEntityEvent("stock.reservation.expired", reservation.getOrderId(), 
-                               List.of(reservation));
+    /**
+     * Lock the inventory rows of all reserved products in one query, in product_id order
+     */
+    private Map<Long, Inventory> lockInventories(List<InventoryReservation> reservations) {
+        List<Long> productIds = reservations.stream().map(InventoryReservation::getProductId).distinct().toList();
+        return inventoryRepository.findByProductIdInWithLockOrdered(productIds).stream()
+            .collect(Collectors.toMap(Inventory::getProductId, inventory -> inventory));
     }
 
-    // =====================================================
-    // Helper Methods
-    // =====================================================
-
     private Integer validateTtl(Integer requestedTtl) {
         if (requestedTtl == null) {
             return defaultTtlMinutes;
@@ -418,18 +475,6 @@ public class StockReservationService {
         }
     }
 
-    private String getErrorCode(Exception ex) {
-        if (ex instanceof IllegalArgumentException) {
-            return "PRODUCT_NOT_FOUND";
-        } else if (ex instanceof IllegalStateException && ex.getMessage().contains("Insufficient stock")) {
-            return "INSUFFICIENT_STOCK";
-        } else if (ex instanceof IllegalStateException && ex.getMessage().contains("already exists")) {
-            return "DUPLICATE_RESERVATION";
-        } else {
-            return "RESERVATION_ERROR";
-        }
-    }
-
     private void publishReservationEvent(String eventType, UUID orderId, List<StockReservationResponse.ReservationItem> reservations) {
         try {
             Map<String, Object> event = Map.of(
@@ -0,0 +1,75 @@
+package com.amar.load;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Schema and connection pool shared by the inventory load tests
+ */
+final class InventoryTestDatabase {
+
+    private InventoryTestDatabase() {
+    }
+
+    static HikariDataSource dataSource(PostgreSQLContainer<?> postgres, int poolSize) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        dataSource.setMaximumPoolSize(poolSize);
+        return dataSource;
+    }
+
+    /**
+     * The production tables minus the cross-schema product foreign keys
+     */
+    static void createSchema(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("""
+            CREATE SCHEMA inventory_service_schema;
+            CREATE TABLE inventory_service_schema.inventory (
+                id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+                product_id BIGINT NOT NULL UNIQUE,
+                quantity INTEGER NOT NULL DEFAULT 0 CHECK (quantity >= 0),
+                reserved_quantity INTEGER NOT NULL DEFAULT 0 CHECK (reserved_quantity >= 0),
+                available_quantity INTEGER GENERATED ALWAYS AS (quantity - reserved_quantity) STORED,
+                version BIGINT NOT NULL DEFAULT 0,
+                updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+                CONSTRAINT chk_quantity_consistency CHECK (reserved_quantity <= quantity)
+            );
+            CREATE TABLE inventory_service_schema.inventory_reservations (
+                id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+                product_id BIGINT NOT NULL,
+                order_id UUID NOT NULL,
+                session_id VARCHAR(255),
+                user_id VARCHAR(255),
+                quantity_reserved INTEGER NOT NULL CHECK (quantity_reserved > 0),
+                reserved_by VARCHAR(255) NOT NULL,
+                reservation_type VARCHAR(50) NOT NULL DEFAULT 'CHECKOUT',
+                expires_at TIMESTAMPTZ NOT NULL,
+                is_expired BOOLEAN NOT NULL DEFAULT FALSE,
+                created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+                updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+                CONSTRAINT uk_reservations_order_product UNIQUE (order_id, product_id)
+            );
+            CREATE TABLE inventory_service_schema.stock_movements (
+                id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+                product_id BIGINT NOT NULL,
+                movement_type VARCHAR(50) NOT NULL,
+                quantity INTEGER NOT NULL,
+                reference_id UUID,
+                reference_type VARCHAR(50),
+                reason TEXT,
+                performed_by VARCHAR(255),
+                notes TEXT,
+                created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+            );
+            """);
+    }
+
+    static void truncate(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("TRUNCATE inventory_service_schema.inventory, "
+            + "inventory_service_schema.inventory_reservations, inventory_service_schema.stock_movements");
+    }
+}
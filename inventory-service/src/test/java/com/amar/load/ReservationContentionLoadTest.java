@@ -0,0 +1,230 @@
+package com.amar.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.amar.entity.inventory.InventoryReservation;
+import com.amar.entity.inventory.StockMovement;
+import com.amar.repository.InventoryJdbcRepository;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Many threads reserving the same SKU, comparing the old path (SERIALIZABLE + SELECT ... FOR UPDATE,
+ * retried on serialization failure) with the conditional UPDATE in {@link InventoryJdbcRepository}.
+ * Each reservation writes the inventory row, a reservation row and a movement row, as in production.
+ * Prints throughput, p50/p99 latency and retries per strategy, then checks that neither oversells.
+ *
+ * <pre>
+ * mvn -pl inventory-service test -Pload-test -Dtest=ReservationContentionLoadTest -Dload.threads=64
+ * </pre>
+ *
+ * Needs Docker for the PostgreSQL container; excluded from the normal build by the "load" tag.
+ */
+@Tag("load")
+@Testcontainers(disabledWithoutDocker = true)
+class ReservationContentionLoadTest {
+
+    private static final long PRODUCT_ID = 1L;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static HikariDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static InventoryJdbcRepository repository;
+    private static DataSourceTransactionManager transactionManager;
+
+    private final int threads = Integer.getInteger("load.threads", 64);
+    private final int durationSeconds = Integer.getInteger("load.duration-seconds", 20);
+
+    @BeforeAll
+    static void setUpDatabase() {
+        dataSource = InventoryTestDatabase.dataSource(POSTGRES, Integer.getInteger("load.threads", 64));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new InventoryJdbcRepository(jdbcTemplate);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        InventoryTestDatabase.createSchema(jdbcTemplate);
+    }
+
+    @AfterAll
+    static void closeDataSource() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    void compareReservationStrategiesOnOneSku() throws Exception {
+        Report legacy = run("serializable+for-update", 10_000_000, this::reserveWithLockSerializable);
+        Report conditional = run("conditional-update", 10_000_000, this::reserveWithConditionalUpdate);
+
+        System.out.println(legacy);
+        System.out.println(conditional);
+    }
+
+    @Test
+    void conditionalUpdateNeverOversells() throws Exception {
+        int stock = 500;
+        Report report = run("conditional-update/limited", stock, this::reserveWithConditionalUpdate);
+        System.out.println(report);
+
+        assertEquals(stock, report.reserved, "every unit should be reserved exactly once");
+        assertEquals(stock, jdbcTemplate.queryForObject(
+            "SELECT reserved_quantity FROM inventory_service_schema.inventory WHERE product_id = ?",
+            Integer.class, PRODUCT_ID));
+        assertEquals(stock, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM inventory_service_schema.inventory_reservations", Integer.class));
+    }
+
+    // =====================================================
+    // Strategies (one unit per call; false when out of stock)
+    // =====================================================
+
+    private boolean reserveWithLockSerializable() {
+        TransactionTemplate tx = transaction(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        return Boolean.TRUE.equals(tx.execute(status -> {
+            Integer available = jdbcTemplate.queryForObject("""
+                SELECT quantity - reserved_quantity FROM inventory_service_schema.inventory
+                WHERE product_id = ? FOR UPDATE
+                """, Integer.class, PRODUCT_ID);
+            if (available == null || available < 1) {
+                return false;
+            }
+            jdbcTemplate.update("""
+                UPDATE inventory_service_schema.inventory
+                SET reserved_quantity = reserved_quantity + 1, version = version + 1
+                WHERE product_id = ?
+                """, PRODUCT_ID);
+            writeReservationRows();
+            return true;
+        }));
+    }
+
+    private boolean reserveWithConditionalUpdate() {
+        TransactionTemplate tx = transaction(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        return Boolean.TRUE.equals(tx.execute(status -> {
+            if (!repository.tryReserve(PRODUCT_ID, 1)) {
+                return false;
+            }
+            writeReservationRows();
+            return true;
+        }));
+    }
+
+    private void writeReservationRows() {
+        UUID orderId = UUID.randomUUID();
+
+        InventoryReservation reservation = new InventoryReservation();
+        reservation.setId(UUID.randomUUID());
+        reservation.setProductId(PRODUCT_ID);
+        reservation.setOrderId(orderId);
+        reservation.setSessionId("load-test");
+        reservation.setQuantityReserved(1);
+        reservation.setReservedBy("load-test");
+        reservation.setReservationType(InventoryReservation.ReservationType.CHECKOUT);
+        reservation.setExpiresAt(LocalDateTime.now().plusMinutes(15));
+        reservation.setIsExpired(false);
+        repository.insertReservations(List.of(reservation));
+
+        StockMovement movement = new StockMovement(PRODUCT_ID, 1, StockMovement.MovementType.RESERVED,
+                                                   orderId, "ORDER", "Stock reserved for order", "load-test");
+        movement.setId(UUID.randomUUID());
+        repository.insertMovements(List.of(movement));
+    }
+
+    private static TransactionTemplate transaction(int isolation) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setIsolationLevel(isolation);
+        return tx;
+    }
+
+    // =====================================================
+    // Driver
+    // =====================================================
+
+    private Report run(String label, int stock, BooleanSupplier reserveOne) throws Exception {
+        InventoryTestDatabase.truncate(jdbcTemplate);
+        jdbcTemplate.update("INSERT INTO inventory_service_schema.inventory (product_id, quantity) VALUES (?, ?)",
+                            PRODUCT_ID, stock);
+
+        AtomicLong reserved = new AtomicLong();
+        AtomicLong retries = new AtomicLong();
+        AtomicLong soldOut = new AtomicLong();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long started = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                List<Long> local = new ArrayList<>();
+                while (System.nanoTime() < deadline && soldOut.get() == 0) {
+                    long callStart = System.nanoTime();
+                    while (true) {
+                        try {
+                            if (reserveOne.getAsBoolean()) {
+                                reserved.incrementAndGet();
+                            } else {
+                                soldOut.incrementAndGet();
+                            }
+                            break;
+                        } catch (ConcurrencyFailureException e) {
+                            // Serialization failure / deadlock: what callers of the old path had to retry
+                            retries.incrementAndGet();
+                        }
+                    }
+                    local.add(System.nanoTime() - callStart);
+                }
+                latencies.addAll(local);
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(durationSeconds + 60L, TimeUnit.SECONDS);
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return new Report(label, threads, reserved.get(), retries.get(), reserved.get() / elapsedSeconds,
+                          percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99));
+    }
+
+    private static double percentileMillis(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+
+    private record Report(String label, int threads, long reserved, long retries, double perSecond,
+                          double p50Millis, double p99Millis) {
+        @Override
+        public String toString() {
+            return String.format("[%s] threads=%d reserved=%d retries=%d throughput=%.0f/s p50=%.2fms p99=%.2fms",
+                                 label, threads, reserved, retries, perSecond, p50Millis, p99Millis);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.amar.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.amar.repository.InventoryJdbcRepository;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Two orders for the same two products, listed in opposite order, reserved at the same time. The
+ * old path locked one inventory row per item in request order, so after both transactions hold
+ * their first row each waits on the other's: a deadlock that PostgreSQL breaks by aborting one of
+ * them. Locking all rows in one product_id-ordered query (as StockReservationService now does)
+ * makes the second order queue behind the first instead.
+ *
+ * <pre>
+ * mvn -pl inventory-service test -Pload-test -Dtest=ReservationDeadlockStressTest -Dload.rounds=50
+ * </pre>
+ *
+ * Needs Docker for the PostgreSQL container; excluded from the normal build by the "load" tag.
+ */
+@Tag("load")
+@Testcontainers(disabledWithoutDocker = true)
+class ReservationDeadlockStressTest {
+
+    private static final long PRODUCT_A = 1L;
+    private static final long PRODUCT_B = 2L;
+
+    // Detect deadlocks quickly so the old path does not spend a second per round waiting
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine")
+        .withCommand("postgres", "-c", "deadlock_timeout=100ms");
+
+    private static HikariDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static InventoryJdbcRepository repository;
+    private static TransactionTemplate transactionTemplate;
+
+    private final int rounds = Integer.getInteger("load.rounds", 20);
+
+    @BeforeAll
+    static void setUpDatabase() {
+        dataSource = InventoryTestDatabase.dataSource(POSTGRES, 4);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new InventoryJdbcRepository(jdbcTemplate);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        transactionTemplate.setTimeout(30);
+        InventoryTestDatabase.createSchema(jdbcTemplate);
+    }
+
+    @AfterAll
+    static void closeDataSource() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    void rowByRowLockingInRequestOrderDeadlocks() throws Exception {
+        Report report = run("row-by-row", this::reserveRowByRow);
+        System.out.println(report);
+
+        assertTrue(report.deadlocks > 0, "opposite lock order should reproduce the deadlock");
+        assertReservedMatchesCommitted(report);
+    }
+
+    @Test
+    void orderedBatchLockingNeverDeadlocks() throws Exception {
+        Report report = run("ordered-batch", this::reserveOrderedBatch);
+        System.out.println(report);
+
+        assertEquals(0, report.deadlocks, "product_id-ordered locking must not deadlock");
+        assertEquals(2L * rounds, report.committed, "every order should be reserved");
+        assertReservedMatchesCommitted(report);
+    }
+
+    private void assertReservedMatchesCommitted(Report report) {
+        for (long productId : List.of(PRODUCT_A, PRODUCT_B)) {
+            assertEquals(report.committed, jdbcTemplate.queryForObject(
+                "SELECT reserved_quantity FROM inventory_service_schema.inventory WHERE product_id = ?",
+                Long.class, productId));
+        }
+    }
+
+    // =====================================================
+    // Strategies (one unit of each product per order)
+    // =====================================================
+
+    /**
+     * The old path: lock and update each item's row in the order the request lists them. The
+     * barrier holds both orders after their first lock so the interleaving is reproduced every round.
+     */
+    private void reserveRowByRow(List<Long> productIds, CyclicBarrier afterFirstLock) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < productIds.size(); i++) {
+                jdbcTemplate.queryForObject("""
+                    SELECT quantity - reserved_quantity FROM inventory_service_schema.inventory
+                    WHERE product_id = ? FOR UPDATE
+                    """, Integer.class, productIds.get(i));
+                jdbcTemplate.update("""
+                    UPDATE inventory_service_schema.inventory
+                    SET reserved_quantity = reserved_quantity + 1, version = version + 1
+                    WHERE product_id = ?
+                    """, productIds.get(i));
+                if (i == 0) {
+                    await(afterFirstLock);
+                }
+            }
+        });
+    }
+
+    /**
+     * The new path: lock every row in one product_id-ordered query, then update them in one statement.
+     * The second order blocks on its very first row, so there is nothing to hold at a barrier.
+     */
+    private void reserveOrderedBatch(List<Long> productIds, CyclicBarrier afterFirstLock) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, Integer> quantities = new TreeMap<>();
+            productIds.forEach(productId -> quantities.put(productId, 1));
+            Map<Long, Integer> available = repository.lockForUpdate(quantities.keySet());
+            if (!available.keySet().equals(quantities.keySet())) {
+                throw new IllegalStateException("Missing inventory rows: " + available);
+            }
+            repository.reserveLocked(quantities);
+        });
+    }
+
+    // =====================================================
+    // Driver
+    // =====================================================
+
+    private Report run(String label, Strategy strategy) throws Exception {
+        InventoryTestDatabase.truncate(jdbcTemplate);
+        jdbcTemplate.update("INSERT INTO inventory_service_schema.inventory (product_id, quantity) VALUES (?, ?), (?, ?)",
+                            PRODUCT_A, 1_000_000, PRODUCT_B, 1_000_000);
+
+        AtomicLong committed = new AtomicLong();
+        AtomicLong deadlocks = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        long started = System.nanoTime();
+        try {
+            for (int round = 0; round < rounds; round++) {
+                CyclicBarrier start = new CyclicBarrier(2);
+                CyclicBarrier afterFirstLock = new CyclicBarrier(2);
+                Future<?> first = pool.submit(order(strategy, List.of(PRODUCT_A, PRODUCT_B), start,
+                                                    afterFirstLock, committed, deadlocks));
+                Future<?> second = pool.submit(order(strategy, List.of(PRODUCT_B, PRODUCT_A), start,
+                                                     afterFirstLock, committed, deadlocks));
+                first.get(60, TimeUnit.SECONDS);
+                second.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        double elapsedMillis = (System.nanoTime() - started) / 1e6;
+        return new Report(label, rounds, committed.get(), deadlocks.get(), elapsedMillis / rounds);
+    }
+
+    private static Runnable order(Strategy strategy, List<Long> productIds, CyclicBarrier start,
+                                  CyclicBarrier afterFirstLock, AtomicLong committed, AtomicLong deadlocks) {
+        return () -> {
+            await(start);
+            try {
+                strategy.reserve(productIds, afterFirstLock);
+                committed.incrementAndGet();
+            } catch (PessimisticLockingFailureException e) {
+                // PostgreSQL aborted this transaction to break a deadlock (SQLSTATE 40P01)
+                deadlocks.incrementAndGet();
+            }
+        };
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Barrier failed", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Strategy {
+        void reserve(List<Long> productIds, CyclicBarrier afterFirstLock);
+    }
+
+    private record Report(String label, int rounds, long committed, long deadlocks, double millisPerRound) {
+        @Override
+        public String toString() {
+            return String.format("[%s] rounds=%d committed=%d deadlocks=%d per-round=%.1fms",
+                                 label, rounds, committed, deadlocks, millisPerRound);
+        }
+    }
+}
@@ -82,6 +82,18 @@ public class ProductControllerV2 {
         }
     }
     
+    /**
+     * Get several products by ID in one call; unknown IDs are left out of the response
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProductDto>> getProductsByIds(@RequestBody List<Long> ids) {
+        logger.debug("Fetching {} products by ID", ids.size());
+        if (ids.size() > 500) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+    
     /**
      * Get product by SKU
      */
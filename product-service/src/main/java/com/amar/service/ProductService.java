@@ -243,6 +243,19 @@ public class ProductService {
         return productMapperMS.toDto(product);
     }
     
+    /**
+     * Get several products by ID in one query (used for order pricing).
+     * Unknown IDs are simply absent from the result; no inventory enrichment.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductDto> getProductsByIds(List<Long> ids) {
+        logger.debug("Fetching {} products by ID", ids.size());
+        
+        return productRepository.findAllById(ids).stream()
+                .map(productMapperMS::toDto)
+                .toList();
+    }
+    
     /**
      * Get all products with pagination and real-time inventory
      */
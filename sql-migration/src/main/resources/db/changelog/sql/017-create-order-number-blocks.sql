@@ -0,0 +1,40 @@
+-- =====================================================
+-- Order Number Allocation
+-- Migration: 017-create-order-number-blocks.sql
+-- Description: Per-day counter used to hand out order number blocks (hi/lo)
+-- =====================================================
+
+-- One row per calendar day; last_value is the highest number handed out to any instance.
+-- Each instance reserves a block with a single upsert and serves numbers from memory,
+-- so checkout never scans order_service.orders and the counter resets every day.
+CREATE TABLE IF NOT EXISTS order_service.order_number_blocks (
+    order_date DATE NOT NULL PRIMARY KEY,
+    last_value BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE order_service.order_number_blocks IS 'Daily high-water mark for ORD-YYYYMMDD-XXXXX order number blocks';
+
+-- Replace the COUNT(*) based generator with one backed by the block table
+CREATE OR REPLACE FUNCTION order_service.generate_order_number()
+RETURNS TEXT AS $$
+DECLARE
+    sequence_num BIGINT;
+BEGIN
+    INSERT INTO order_service.order_number_blocks (order_date, last_value)
+    VALUES (CURRENT_DATE, 1)
+    ON CONFLICT (order_date) DO UPDATE
+        SET last_value = order_service.order_number_blocks.last_value + 1,
+            updated_at = CURRENT_TIMESTAMP
+    RETURNING last_value INTO sequence_num;
+
+    RETURN 'ORD-' || TO_CHAR(CURRENT_DATE, 'YYYYMMDD') || '-' || LPAD(sequence_num::TEXT, 5, '0');
+END;
+$$ LANGUAGE plpgsql;
+
+-- Seed today's counter past any numbers already issued so the allocator never collides with them
+INSERT INTO order_service.order_number_blocks (order_date, last_value)
+SELECT CURRENT_DATE, COALESCE(MAX(CAST(SUBSTRING(order_number FROM 14) AS BIGINT)), 0)
+FROM order_service.orders
+WHERE order_number LIKE 'ORD-' || TO_CHAR(CURRENT_DATE, 'YYYYMMDD') || '-%'
+ON CONFLICT (order_date) DO NOTHING;
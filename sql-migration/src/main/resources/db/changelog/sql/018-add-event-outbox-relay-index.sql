@@ -0,0 +1,11 @@
+-- =====================================================
+-- Event Outbox Relay Index
+-- Migration: 018-add-event-outbox-relay-index.sql
+-- Description: Partial index backing the batched SKIP LOCKED outbox claim
+-- =====================================================
+
+-- The relay claims the oldest unprocessed rows in bounded batches; only pending rows are indexed
+-- so the index stays small while processed rows accumulate until retention removes them
+CREATE INDEX IF NOT EXISTS idx_event_outbox_pending_created
+    ON order_service.event_outbox (created_at)
+    WHERE processed = false;
@@ -0,0 +1,17 @@
+-- =====================================================
+-- Order Keyset Pagination Indexes
+-- Migration: 020-add-order-keyset-indexes.sql
+-- Description: Indexes matching the (created_at, id) cursor used by order listings
+-- =====================================================
+
+-- Order history per user: WHERE user_id = ? AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_orders_user_created_id
+    ON order_service.orders (user_id, created_at DESC, id DESC);
+
+-- Admin listing by status
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_id
+    ON order_service.orders (status, created_at DESC, id DESC);
+
+-- Unfiltered admin search walks the whole table in cursor order
+CREATE INDEX IF NOT EXISTS idx_orders_created_id
+    ON order_service.orders (created_at DESC, id DESC);
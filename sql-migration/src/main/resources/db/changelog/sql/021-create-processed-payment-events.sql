@@ -0,0 +1,17 @@
+-- =====================================================
+-- Processed Payment Events
+-- Migration: 021-create-processed-payment-events.sql
+-- Description: Dedupe ledger so redelivered payment events are applied to orders only once
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS order_service.processed_payment_events (
+    event_id VARCHAR(100) PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL,
+    payment_id VARCHAR(100),
+    order_id UUID,
+    processed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Supports pruning old entries once they are past any possible redelivery
+CREATE INDEX IF NOT EXISTS idx_processed_payment_events_processed_at
+    ON order_service.processed_payment_events (processed_at);
@@ -0,0 +1,44 @@
+-- =====================================================
+-- Checkout Saga
+-- Migration: 022-create-checkout-sagas.sql
+-- Description: Persistent checkout state machine and its step log, so an interrupted
+--              checkout can be resumed or compensated after a restart
+-- =====================================================
+
+-- One row per checkout; state is advanced with conditional updates by the instance holding the lease
+CREATE TABLE IF NOT EXISTS order_service.checkout_sagas (
+    order_id UUID PRIMARY KEY REFERENCES order_service.orders(id) ON DELETE CASCADE,
+    state VARCHAR(30) NOT NULL,
+    context TEXT NOT NULL,
+    payment_transaction_id VARCHAR(100),
+    failure_reason TEXT,
+    lease_owner VARCHAR(100),
+    lease_until TIMESTAMP,
+    recovery_attempts INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT chk_checkout_saga_state CHECK (state IN (
+        'STARTED', 'INVENTORY_RESERVED', 'PAYMENT_PENDING', 'PAYMENT_COMPLETED',
+        'COMPLETED', 'COMPENSATING', 'FAILED'
+    ))
+);
+
+-- Recovery scan: in-flight sagas whose lease has run out
+CREATE INDEX IF NOT EXISTS idx_checkout_sagas_in_flight
+    ON order_service.checkout_sagas (lease_until)
+    WHERE state NOT IN ('COMPLETED', 'FAILED');
+
+-- Append-only audit of every step attempt
+CREATE TABLE IF NOT EXISTS order_service.checkout_saga_steps (
+    id BIGSERIAL PRIMARY KEY,
+    order_id UUID NOT NULL REFERENCES order_service.checkout_sagas(order_id) ON DELETE CASCADE,
+    step VARCHAR(50) NOT NULL,
+    outcome VARCHAR(20) NOT NULL,
+    detail TEXT,
+    instance_id VARCHAR(100),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_checkout_saga_steps_order
+    ON order_service.checkout_saga_steps (order_id, id);
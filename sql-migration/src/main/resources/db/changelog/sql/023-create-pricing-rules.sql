@@ -0,0 +1,53 @@
+-- =====================================================
+-- Pricing Rules
+-- Migration: 023-create-pricing-rules.sql
+-- Description: Tax, shipping and coupon rule tables read by the order service pricing engine.
+--              The engine keeps them in memory and reloads when any updated_at moves.
+-- =====================================================
+
+-- Tax rate per destination; state NULL is the country-wide rate
+CREATE TABLE IF NOT EXISTS order_service.tax_rates (
+    id BIGSERIAL PRIMARY KEY,
+    country VARCHAR(100) NOT NULL,
+    state VARCHAR(100),
+    rate NUMERIC(7,6) NOT NULL CHECK (rate >= 0 AND rate < 1),
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_tax_rates_destination
+    ON order_service.tax_rates (UPPER(country), UPPER(COALESCE(state, '')));
+
+-- Shipping cost per shipping method: base + per item, free above a subtotal threshold
+CREATE TABLE IF NOT EXISTS order_service.shipping_rates (
+    shipping_method VARCHAR(50) PRIMARY KEY,
+    base_cost NUMERIC(19,2) NOT NULL CHECK (base_cost >= 0),
+    per_item_cost NUMERIC(19,2) NOT NULL DEFAULT 0 CHECK (per_item_cost >= 0),
+    free_over_subtotal NUMERIC(19,2),
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Coupons: PERCENT takes value as a fraction (0.10 = 10%), FIXED as an amount
+CREATE TABLE IF NOT EXISTS order_service.coupons (
+    code VARCHAR(50) PRIMARY KEY,
+    discount_type VARCHAR(10) NOT NULL,
+    value NUMERIC(19,6) NOT NULL CHECK (value >= 0),
+    min_subtotal NUMERIC(19,2),
+    max_discount NUMERIC(19,2),
+    valid_from TIMESTAMP,
+    valid_until TIMESTAMP,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT chk_coupon_discount_type CHECK (discount_type IN ('PERCENT', 'FIXED'))
+);
+
+-- Seed with the values previously hard-coded in OrderService
+INSERT INTO order_service.shipping_rates (shipping_method, base_cost)
+VALUES ('STANDARD', 9.99)
+ON CONFLICT (shipping_method) DO NOTHING;
+
+INSERT INTO order_service.coupons (code, discount_type, value)
+VALUES ('SAVE10', 'PERCENT', 0.10)
+ON CONFLICT (code) DO NOTHING;
@@ -0,0 +1,25 @@
+-- =====================================================
+-- Order Archive
+-- Migration: 024-create-orders-archive.sql
+-- Description: Cold storage for delivered/cancelled orders moved out of the hot tables.
+--              One row per order: the order, its items and status history as JSONB
+--              (TOAST-compressed), plus the few columns lookups need.
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS order_service.orders_archive (
+    id UUID PRIMARY KEY,
+    order_number VARCHAR(100) NOT NULL,
+    user_id VARCHAR(255) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    total_amount DECIMAL(19,2) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    order_data JSONB NOT NULL,          -- orders row with an "items" array of order_items rows
+    status_history JSONB NOT NULL DEFAULT '[]'::jsonb
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_orders_archive_order_number
+    ON order_service.orders_archive (order_number);
+
+CREATE INDEX IF NOT EXISTS idx_orders_archive_user_created
+    ON order_service.orders_archive (user_id, created_at DESC);
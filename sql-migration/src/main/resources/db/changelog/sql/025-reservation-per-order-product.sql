@@ -0,0 +1,13 @@
+-- =====================================================
+-- Reservation rows per order line
+-- Migration: 025-reservation-per-order-product.sql
+-- Description: A multi-item order holds one reservation row per product, so order_id alone
+--              cannot be unique. Uniqueness moves to (order_id, product_id), which also stops a
+--              concurrent retry of the same order from reserving its stock twice.
+-- =====================================================
+
+ALTER TABLE inventory_service_schema.inventory_reservations
+    DROP CONSTRAINT IF EXISTS inventory_reservations_order_id_key;
+
+ALTER TABLE inventory_service_schema.inventory_reservations
+    ADD CONSTRAINT uk_reservations_order_product UNIQUE (order_id, product_id);
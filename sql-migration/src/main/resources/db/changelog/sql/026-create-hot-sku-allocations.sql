@@ -0,0 +1,19 @@
+-- =====================================================
+-- Hot SKU Allocations
+-- Migration: 026-create-hot-sku-allocations.sql
+-- Description: Stock an inventory-service instance has moved into reserved_quantity to sell from
+--              its in-memory hot-SKU ledger, not yet backed by reservation rows. For every product:
+--              reserved_quantity = active reservation rows + allocations. Rows whose owner stops
+--              heartbeating are returned to the inventory by any other instance.
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS inventory_service_schema.hot_sku_allocations (
+    product_id BIGINT NOT NULL,
+    owner_id VARCHAR(100) NOT NULL,
+    allocated INTEGER NOT NULL DEFAULT 0 CHECK (allocated >= 0),
+    heartbeat_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (product_id, owner_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_hot_sku_allocations_heartbeat
+    ON inventory_service_schema.hot_sku_allocations (heartbeat_at);
@@ -0,0 +1,9 @@
+-- =====================================================
+-- Event Outbox Retry Backoff
+-- Migration: 027-add-event-outbox-next-attempt.sql
+-- Description: Earliest time a failed outbox event may be claimed again
+-- =====================================================
+
+-- NULL means "due now"; the relay sets it with exponential backoff after each failed send
+ALTER TABLE order_service.event_outbox
+    ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP;
@@ -0,0 +1,23 @@
+-- =====================================================
+-- Checkout Saga Reconciliation State
+-- Migration: 028-checkout-saga-reconciliation-state.sql
+-- Description: Terminal state for checkouts whose payment outcome was never learned; these are
+--              left for manual reconciliation instead of being cancelled without a refund
+-- =====================================================
+
+ALTER TABLE order_service.checkout_sagas DROP CONSTRAINT IF EXISTS chk_checkout_saga_state;
+ALTER TABLE order_service.checkout_sagas ADD CONSTRAINT chk_checkout_saga_state CHECK (state IN (
+    'STARTED', 'INVENTORY_RESERVED', 'PAYMENT_PENDING', 'PAYMENT_COMPLETED',
+    'COMPLETED', 'COMPENSATING', 'FAILED', 'RECONCILIATION_REQUIRED'
+));
+
+-- The recovery scan must not pick these up again
+DROP INDEX IF EXISTS order_service.idx_checkout_sagas_in_flight;
+CREATE INDEX IF NOT EXISTS idx_checkout_sagas_in_flight
+    ON order_service.checkout_sagas (lease_until)
+    WHERE state NOT IN ('COMPLETED', 'FAILED', 'RECONCILIATION_REQUIRED');
+
+-- Work queue for whoever settles them with payment-service
+CREATE INDEX IF NOT EXISTS idx_checkout_sagas_reconciliation
+    ON order_service.checkout_sagas (updated_at)
+    WHERE state = 'RECONCILIATION_REQUIRED';
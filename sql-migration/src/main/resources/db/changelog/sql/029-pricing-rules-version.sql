@@ -0,0 +1,53 @@
+-- =====================================================
+-- Pricing Rules Version
+-- Migration: 029-pricing-rules-version.sql
+-- Description: Change counter for the pricing rule tables. Every statement that touches
+--              tax_rates, shipping_rates or coupons bumps it, so the pricing engine's cache
+--              sees plain UPDATEs and DELETEs that leave updated_at alone.
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS order_service.pricing_rules_version (
+    id SMALLINT PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO order_service.pricing_rules_version (id, version)
+VALUES (1, 0)
+ON CONFLICT (id) DO NOTHING;
+
+-- Statement-level: one bump per INSERT/UPDATE/DELETE/TRUNCATE, however many rows it touched
+CREATE OR REPLACE FUNCTION order_service.bump_pricing_rules_version()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE order_service.pricing_rules_version
+    SET version = version + 1, updated_at = CURRENT_TIMESTAMP
+    WHERE id = 1;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER bump_tax_rates_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON order_service.tax_rates
+    FOR EACH STATEMENT EXECUTE FUNCTION order_service.bump_pricing_rules_version();
+
+CREATE TRIGGER bump_shipping_rates_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON order_service.shipping_rates
+    FOR EACH STATEMENT EXECUTE FUNCTION order_service.bump_pricing_rules_version();
+
+CREATE TRIGGER bump_coupons_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON order_service.coupons
+    FOR EACH STATEMENT EXECUTE FUNCTION order_service.bump_pricing_rules_version();
+
+-- Keep updated_at honest for whoever reads the rule rows
+CREATE TRIGGER update_tax_rates_updated_at
+    BEFORE UPDATE ON order_service.tax_rates
+    FOR EACH ROW EXECUTE FUNCTION order_service.update_updated_at_column();
+
+CREATE TRIGGER update_shipping_rates_updated_at
+    BEFORE UPDATE ON order_service.shipping_rates
+    FOR EACH ROW EXECUTE FUNCTION order_service.update_updated_at_column();
+
+CREATE TRIGGER update_coupons_updated_at
+    BEFORE UPDATE ON order_service.coupons
+    FOR EACH ROW EXECUTE FUNCTION order_service.update_updated_at_column();